@@ -0,0 +1,94 @@
+package bench;
+
+import model.Database;
+import tools.DatasetGenerator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+/**
+
+ The BenchmarkDatabase class sets up the embedded database the benchmarks run against. It is an H2 database in memory
+ in MySQL mode, which understands the backticks and the other MySQL syntax of the database managers. The tables are
+ created and filled by the {@link DatasetGenerator}, with the given number of recipes, users, scores and settings
+ profiles, so the benchmarks can be run for different sizes of the database.
+ <p>
+ The {@link Database} of the application is connected to the embedded database, so the benchmarks use the real
+ database managers and the real connection pool.
+ */
+public final class BenchmarkDatabase {
+    private static final DatasetGenerator GENERATOR = new DatasetGenerator();
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Creates the tables in a new embedded database, fills the tables with the given number of rows and connects
+     * the application to it. A database created by an earlier call is dropped first.
+     *
+     * @param rows the number of recipes, users, scores and settings profiles
+     * @throws SQLException if the database cannot be created or filled
+     */
+    public static void start(int rows) throws SQLException {
+        if (!Database.getInstance().connect(DatasetGenerator.EMBEDDED_URL, "sa", "")) {
+            throw new SQLException("Cannot connect to the embedded database");
+        }
+        try (Connection connection = Database.getInstance().getConnection()) {
+            dropAllObjects(connection);
+            DatasetGenerator.createSchema(connection);
+        }
+        GENERATOR.setRecipes(rows);
+        GENERATOR.setUsers(rows);
+        GENERATOR.setProfiles(rows);
+        GENERATOR.generate(Database.getInstance().getConnectionPool());
+        try (Connection connection = Database.getInstance().getConnection()) {
+            DatasetGenerator.createIndexes(connection, false);
+        }
+    }
+
+    /**
+     * Drops all tables of the embedded database, so the memory of its rows is freed.
+     *
+     * @throws SQLException if the tables cannot be dropped
+     */
+    public static void stop() throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection()) {
+            dropAllObjects(connection);
+        }
+    }
+
+    /**
+     * Returns the name of the seeded recipe with the given id.
+     *
+     * @param id the id of the recipe, from 1 to the number of rows
+     * @return the name of the recipe
+     */
+    public static String recipeName(int id) {
+        return GENERATOR.recipeName(id);
+    }
+
+    /**
+     * Returns the name of the seeded user with the given id.
+     *
+     * @param id the id of the user, from 1 to the number of rows
+     * @return the name of the user
+     */
+    public static String userName(int id) {
+        return GENERATOR.userName(id);
+    }
+
+    /**
+     * Returns the name of the seeded settings profile with the given number.
+     *
+     * @param number the number of the profile, from 1 to the number of rows
+     * @return the name of the profile
+     */
+    public static String profileName(int number) {
+        return DatasetGenerator.profileName(number);
+    }
+
+    private static void dropAllObjects(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+}
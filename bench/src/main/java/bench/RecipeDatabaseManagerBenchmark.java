@@ -0,0 +1,85 @@
+package bench;
+
+import javafx.collections.ObservableList;
+import model.Recipe;
+import model.databaseManager.RecipeDatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+
+ Measures the queries of the {@link RecipeDatabaseManager} against an embedded database with 10k, 100k and 1M
+ recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecipeDatabaseManagerBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final RecipeDatabaseManager recipeDatabaseManager = new RecipeDatabaseManager();
+    private final AtomicInteger createdRecipes = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ObservableList<Recipe> getAllFromProperty() throws SQLException {
+        return recipeDatabaseManager.getAllFromProperty();
+    }
+
+    @Benchmark
+    public Optional<Recipe> findRecipeByName() throws SQLException {
+        return recipeDatabaseManager.findRecipeByName(BenchmarkDatabase.recipeName(randomRow()));
+    }
+
+    @Benchmark
+    public Recipe updatePropertyInDB() throws SQLException {
+        int row = randomRow();
+        Recipe recipe = new Recipe(BenchmarkDatabase.recipeName(row), 20 + row % 40, 7 + row % 14, row % 150, 9 + row % 7, null);
+        recipe.setId(row);
+        recipeDatabaseManager.updatePropertyInDB(recipe);
+        return recipe;
+    }
+
+    /**
+     * Creates a new recipe with every call, so the table grows by the recipes created during the run.
+     */
+    @Benchmark
+    public Recipe createNewPropertyInDB() throws SQLException {
+        Recipe recipe = new Recipe("Benchmark recipe " + createdRecipes.incrementAndGet(), 30, 10, 50, 9, null);
+        recipeDatabaseManager.createNewPropertyInDB(recipe);
+        return recipe;
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+}
@@ -0,0 +1,89 @@
+package bench;
+
+import model.Database;
+import model.Recipe;
+import model.databaseManager.IndexedRowMapper;
+import model.databaseManager.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+
+ Compares the two ways of mapping the rows of a result set to recipes, over all rows of a table with 1M recipes:
+ reading every column by its label on every row, as the entity constructors that took a ResultSet did, and reading
+ them by index through an {@link IndexedRowMapper}, which looks the labels up once per query. Both read the same
+ columns of the same query, so the difference between them is the cost of the label lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RowMappingBenchmark {
+    private static final String SELECT_STATEMENT = "SELECT `idRecipe`, `name`, `brewtime`, `amount_beans`, `amount_added_milk`, `water_pressure`, `image` FROM Recipe";
+    private static final IndexedRowMapper<Recipe> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idRecipe", "name", "brewtime", "amount_beans", "amount_added_milk", "water_pressure", "image"),
+            row -> {
+                Recipe recipe = new Recipe(row.getString(1), row.getInt(2), row.getInt(3), row.getInt(4), row.getInt(5), row.getString(6));
+                recipe.setId(row.getInt(0));
+                return recipe;
+            });
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public void mapByLabel(Blackhole blackhole) throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STATEMENT);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                Recipe recipe = new Recipe(resultSet.getString("name"), resultSet.getInt("brewtime"),
+                        resultSet.getInt("amount_beans"), resultSet.getInt("amount_added_milk"),
+                        resultSet.getInt("water_pressure"), resultSet.getString("image"));
+                recipe.setId(resultSet.getInt("idRecipe"));
+                blackhole.consume(recipe);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapByIndex(Blackhole blackhole) throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STATEMENT);
+             ResultSet resultSet = statement.executeQuery()) {
+            RowMapper<Recipe> rowMapper = ROW_MAPPER.compile(resultSet);
+            while (resultSet.next()) {
+                blackhole.consume(rowMapper.mapRow(resultSet));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import javafx.collections.ObservableList;
+import model.Score;
+import model.databaseManager.ScoreDatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+/**
+
+ Measures the queries of the {@link ScoreDatabaseManager} against an embedded database with 10k, 100k and 1M scores.
+ Scores have no name and are never created on their own, so the lookup is the lookup by id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScoreDatabaseManagerBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final ScoreDatabaseManager scoreDatabaseManager = new ScoreDatabaseManager();
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ObservableList<Score> getAllFromProperty() throws SQLException {
+        return scoreDatabaseManager.getAllFromProperty();
+    }
+
+    @Benchmark
+    public Optional<Score> getScoreById() throws SQLException {
+        return scoreDatabaseManager.getScoreById(randomRow());
+    }
+
+    @Benchmark
+    public Score updatePropertyInDB() throws SQLException {
+        Score score = new Score(randomRow(), ThreadLocalRandom.current().nextInt(10_000));
+        scoreDatabaseManager.updatePropertyInDB(score);
+        return score;
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+}
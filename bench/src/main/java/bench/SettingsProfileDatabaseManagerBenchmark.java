@@ -0,0 +1,77 @@
+package bench;
+
+import javafx.collections.ObservableList;
+import model.FontFamily;
+import model.SettingsProfile;
+import model.databaseManager.SettingsProfileDatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+/**
+
+ Measures the queries of the {@link SettingsProfileDatabaseManager} against an embedded database with 10k, 100k and 1M
+ settings profiles. Reading all profiles is what the application does at every login. The lookup by name bypasses the
+ cache of the manager, so every call reaches the database. Profiles are never created by the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SettingsProfileDatabaseManagerBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final SettingsProfileDatabaseManager profileDatabaseManager = new SettingsProfileDatabaseManager();
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(rows);
+        SettingsProfileDatabaseManager.getEntityCache().setEnabled(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        SettingsProfileDatabaseManager.getEntityCache().setEnabled(true);
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ObservableList<SettingsProfile> getAllFromProperty() throws SQLException {
+        return profileDatabaseManager.getAllFromProperty();
+    }
+
+    @Benchmark
+    public Optional<SettingsProfile> getProfileByName() throws SQLException {
+        return profileDatabaseManager.getProfileByName(BenchmarkDatabase.profileName(randomRow()));
+    }
+
+    @Benchmark
+    public SettingsProfile updatePropertyInDB() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SettingsProfile profile = new SettingsProfile(BenchmarkDatabase.profileName(randomRow()), random.nextBoolean(),
+                SettingsProfile.MEDIUM_FONT_SIZE, FontFamily.values()[random.nextInt(FontFamily.values().length)]);
+        profileDatabaseManager.updatePropertyInDB(profile);
+        return profile;
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+}
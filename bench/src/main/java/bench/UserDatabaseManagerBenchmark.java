@@ -0,0 +1,89 @@
+package bench;
+
+import javafx.collections.ObservableList;
+import model.User;
+import model.databaseManager.UserDatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+
+ Measures the queries of the {@link UserDatabaseManager} against an embedded database with 10k, 100k and 1M users,
+ each with a score.
+ <p>
+ A single user is created with {@link UserDatabaseManager#createNewPropertyInDB(User)}, which runs as a JDBC
+ transaction on the embedded database; MySQL gets it as a multi-statement transaction in one round trip instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserDatabaseManagerBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final UserDatabaseManager userDatabaseManager = new UserDatabaseManager();
+    private final AtomicInteger createdUsers = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ObservableList<User> getAllFromProperty() throws SQLException {
+        return userDatabaseManager.getAllFromProperty();
+    }
+
+    @Benchmark
+    public Optional<User> findUserByName() throws SQLException {
+        return userDatabaseManager.findUserByName(BenchmarkDatabase.userName(randomRow()));
+    }
+
+    @Benchmark
+    public User updatePropertyInDB() throws SQLException {
+        int row = randomRow();
+        String name = BenchmarkDatabase.userName(row);
+        User user = new User(row, name, name + "@example" + row % 10 + ".com", "password" + row);
+        userDatabaseManager.updatePropertyInDB(user);
+        return user;
+    }
+
+    /**
+     * Creates a new user and its score with every call, so the tables grow by the users created during the run.
+     */
+    @Benchmark
+    public User createNewPropertyInDB() throws SQLException {
+        String name = "benchmark" + createdUsers.incrementAndGet();
+        User user = new User(0, name, name + "@example.com", "password");
+        userDatabaseManager.createNewPropertyInDB(user);
+        return user;
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+}
@@ -8,6 +8,8 @@ import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.util.Callback;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An abstract class that provides functionality for editing, creating, and deleting instances of a certain type T.
  * Extends EditController and implements Initializable.
@@ -62,7 +64,12 @@ public abstract class EditAndCreateAndDeleteController<T> extends EditController
                             setText(null);
                         } else {
                             deleteButton.setOnAction(event -> {
-                                setSelectedProperty(getTableView().getItems().get(getIndex()));
+                                T clickedProperty = getTableView().getItems().get(getIndex());
+                                if (clickedProperty == null) {
+                                    // the row is still loading
+                                    return;
+                                }
+                                setSelectedProperty(clickedProperty);
                                 deleteSelectedProperty();
                             });
                             setGraphic(deleteButton);
@@ -78,47 +85,100 @@ public abstract class EditAndCreateAndDeleteController<T> extends EditController
 
     /**
      * This method is called when the delete button is pressed in the TableView.
-     * It first calls the abstract method deleteSelectedPropertyFromDB() to delete the selected property from the database.
-     * If the deletion is successful, it resets the edit area, shows a success message in the message field, and refreshes the TableView.
-     * If the deletion is unsuccessful, it does not perform any action.
+     * It first calls the abstract method deleteSelectedPropertyFromDB() to delete the selected property from the database in the background.
+     * With optimistic writes, the row is removed from the TableView at once; if the deletion fails, a warning is shown and the row is
+     * read again and put back. Otherwise, if the deletion is successful, it resets the edit area, shows a success message in the message
+     * field and removes the row from the TableView, and if it fails, it shows a warning and refreshes the TableView.
      */
     protected void deleteSelectedProperty(){
-        if (deleteSelectedPropertyFromDB()){
+        runAction("delete", this::deleteProperty);
+    }
+
+    private void deleteProperty(){
+        T deletedProperty = getSelectedProperty();
+        String nameOfSelectedProperty = getNameOfSelectedProperty();
+        if (isOptimisticWrites()) {
+            CompletableFuture<Void> deletion = PendingWrites.track(deleteSelectedPropertyFromDB());
             resetEditArea();
-            showSuccessInMessageField(getNameOfSelectedProperty() +  " was deleted successfully!");
+            removeRow(deletedProperty);
+            clearSelectedProperty();
+            consumeOnFxThread(deletion,
+                    ignored -> showSuccessInMessageField(nameOfSelectedProperty +  " was deleted successfully!"),
+                    throwable -> {
+                        showWarningInMessageField("Deleting " + nameOfSelectedProperty + " failed on database side, it was restored");
+                        refreshRow(deletedProperty);
+                    });
+            return;
         }
-        refresh();
+        showLoadingInMessageField();
+        consumeOnFxThread(deleteSelectedPropertyFromDB(), ignored -> {
+            resetEditArea();
+            showSuccessInMessageField(nameOfSelectedProperty +  " was deleted successfully!");
+            removeRow(deletedProperty);
+            clearSelectedProperty();
+        }, throwable -> {
+            showWarningInMessageField("Deleting " + nameOfSelectedProperty + " failed on database side");
+            refresh();
+        });
     }
 
     /**
      * Deletes the selected property from the database.
      *
-     * @return true if the property was successfully deleted, false otherwise
+     * @return a future that completes when the property is deleted, or exceptionally if it failed
      */
-    protected abstract boolean deleteSelectedPropertyFromDB();
+    protected abstract CompletableFuture<Void> deleteSelectedPropertyFromDB();
 
     /**
      * Creates a new instance of the selected property.
      * If the updateSelectedProperty() method returns false, the selected property is cleared.
-     * If the updateSelectedProperty() method returns true and createNewPropertyInDB() returns true,
-     * the edit area is reset, a success message is displayed in the message field, and the table is refreshed.
+     * If the updateSelectedProperty() method returns true, createNewPropertyInDB() runs in the background. If it succeeds,
+     * the edit area is reset, a success message is displayed in the message field, and the new row is inserted into the table
+     * at its position in the sort order. With optimistic writes, the new row is shown at the top of the table at once and
+     * removed again if the creation fails.
      */
     @FXML
     void createNewProperty() {
+        runAction("create", this::createProperty);
+    }
+
+    private void createProperty() {
         if (!updateSelectedProperty()){
             clearSelectedProperty();
         }
-        if (updateSelectedProperty() && createNewPropertyInDB()){
-            resetEditArea();
-            showSuccessInMessageField(getNameOfSelectedProperty() +  " was added successfully!");
-            refresh();
+        if (updateSelectedProperty()){
+            T newProperty = getSelectedProperty();
+            String nameOfSelectedProperty = getNameOfSelectedProperty();
+            if (isOptimisticWrites()) {
+                CompletableFuture<Void> creation = PendingWrites.track(createNewPropertyInDB());
+                resetEditArea();
+                insertRow(newProperty);
+                clearSelectedProperty();
+                consumeOnFxThread(creation, ignored -> {
+                    showSuccessInMessageField(nameOfSelectedProperty +  " was added successfully!");
+                    refreshRow(newProperty);
+                }, throwable -> {
+                    showWarningInMessageField(getWriteFailureMessage(nameOfSelectedProperty, throwable,
+                            "Creating " + nameOfSelectedProperty + " failed on database side, it was removed again"));
+                    removeRow(newProperty);
+                });
+                return;
+            }
+            showLoadingInMessageField();
+            consumeOnFxThread(createNewPropertyInDB(), ignored -> {
+                resetEditArea();
+                showSuccessInMessageField(nameOfSelectedProperty +  " was added successfully!");
+                refreshRow(newProperty);
+                clearSelectedProperty();
+            }, throwable -> showWarningInMessageField(getWriteFailureMessage(nameOfSelectedProperty, throwable,
+                    "Creating " + nameOfSelectedProperty + " failed on database side")));
         }
     }
 
     /**
      * Creates a new instance of the selected property in the database.
      *
-     * @return true if the new instance was successfully created, false otherwise
+     * @return a future that completes when the new instance is created, or exceptionally if it failed
      */
-    protected abstract boolean createNewPropertyInDB();
+    protected abstract CompletableFuture<Void> createNewPropertyInDB();
 }
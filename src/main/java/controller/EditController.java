@@ -14,7 +14,9 @@ import java.net.URL;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This abstract class extends TableViewController and provides functionality for editing T objects.
@@ -36,6 +38,11 @@ public abstract class EditController<T> extends TableViewController<T> {
      */
     private List<TextField> allTextFields = new ArrayList<>();
 
+    /**
+     * Whether changes are shown in the table before they are written to the database.
+     */
+    private boolean optimisticWrites = true;
+
     /**
      * Initializes the controller after its root element has been completely processed.
      *
@@ -66,6 +73,25 @@ public abstract class EditController<T> extends TableViewController<T> {
         return allTextFields;
     }
 
+    /**
+     * Returns whether changes are shown in the table before they are written to the database.
+     *
+     * @return true if changes are shown at once and undone if their write fails
+     */
+    public boolean isOptimisticWrites() {
+        return optimisticWrites;
+    }
+
+    /**
+     * Sets whether changes are shown in the table before they are written to the database. If not, the table is only
+     * changed once the write succeeded, and a loading message is shown while it runs.
+     *
+     * @param optimisticWrites true to show changes at once and undo them if their write fails
+     */
+    public void setOptimisticWrites(boolean optimisticWrites) {
+        this.optimisticWrites = optimisticWrites;
+    }
+
     /**
      * Sets additional content for the TableView, such as the edit table column and all TextFields.
      */
@@ -123,13 +149,35 @@ public abstract class EditController<T> extends TableViewController<T> {
 
     /**
      * Called when the edit button is clicked. Sets the selected property and loads its information into the edit fields.
+     * The table only reads the columns it shows, so all columns of the property are read in the background and replace
+     * the selected property, as long as it is still selected.
      *
      * @param editCell The TableCell that contains the edit button that was clicked.
      */
     private void onEditButtonClicked(TableCell<T, String> editCell){
-        setSelectedProperty(editCell.getTableView().getItems().get(editCell.getIndex()));
+        T clickedProperty = editCell.getTableView().getItems().get(editCell.getIndex());
+        if (clickedProperty == null) {
+            // the row is still loading
+            return;
+        }
+        setSelectedProperty(clickedProperty);
         loadSelectedPropertyInEditField();
+        runAction("open editor", () -> consumeOnFxThread(loadFullProperty(clickedProperty), fullProperty -> {
+            if (getSelectedProperty() == clickedProperty) {
+                fullProperty.ifPresent(this::setSelectedProperty);
+            }
+        }, Throwable::printStackTrace));
     }
+    /**
+     * Reads all columns of the given row of the table in the background, for the edit area.
+     *
+     * @param property the row of the table
+     * @return a future that completes with the property, or with an empty Optional if it was deleted meanwhile
+     */
+    protected CompletableFuture<Optional<T>> loadFullProperty(T property) {
+        return getDatabaseManager().getFullPropertyAsync(property);
+    }
+
     /**
      * Loads the selected property into the edit field(s), enabling the user to modify its values.
      * This method should be implemented by subclasses to handle the specific details of how the selected
@@ -140,19 +188,73 @@ public abstract class EditController<T> extends TableViewController<T> {
 
     /**
      * Handles the editing of the selected property, updating its values based on the current values in the
-     * edit field(s). If the update is successful (both locally and in the database), the edit area is reset,
-     * the success message is displayed in the message field, and the table view is refreshed to display the
-     * updated property.
+     * edit field(s). The database update runs in the background. With optimistic writes, the edit is shown in the
+     * table and the edit area is reset at once; if the update fails, the row is set back to its values from before
+     * the edit and a warning is displayed in the message field. Otherwise the edit area is reset once the update was
+     * successful, and the row of the updated property is read again and replaced in the table view; if it fails, the
+     * edit area keeps the edit so it can be fixed, and the row is set back to its values from before the edit.
      */
     @FXML
     void editProperty(){
-        if (updateSelectedProperty() && updateSelectedPropertyInDB()){
-            resetEditArea();
-            showSuccessInMessageField(getNameOfSelectedProperty() +  " was edited successfully!");
-            refresh();
+        runAction("save edit", this::editSelectedProperty);
+    }
+
+    private void editSelectedProperty(){
+        T propertyBeforeEdit = copyProperty(getSelectedProperty());
+        if (updateSelectedProperty()){
+            T editedProperty = getSelectedProperty();
+            String nameOfSelectedProperty = getNameOfSelectedProperty();
+            if (optimisticWrites) {
+                CompletableFuture<Void> update = PendingWrites.track(updateSelectedPropertyInDB());
+                resetEditArea();
+                replaceRow(editedProperty, editedProperty);
+                clearSelectedProperty();
+                consumeOnFxThread(update, ignored -> {
+                    showSuccessInMessageField(nameOfSelectedProperty +  " was edited successfully!");
+                    refreshRow(editedProperty);
+                }, throwable -> {
+                    showWarningInMessageField(getWriteFailureMessage(nameOfSelectedProperty, throwable,
+                            "Updating " + nameOfSelectedProperty + " failed on database side, the change was undone"));
+                    replaceRow(editedProperty, propertyBeforeEdit);
+                });
+                return;
+            }
+            showLoadingInMessageField();
+            consumeOnFxThread(updateSelectedPropertyInDB(), ignored -> {
+                resetEditArea();
+                showSuccessInMessageField(nameOfSelectedProperty +  " was edited successfully!");
+                refreshRow(editedProperty);
+                clearSelectedProperty();
+            }, throwable -> {
+                showWarningInMessageField(getWriteFailureMessage(nameOfSelectedProperty, throwable,
+                        "Updating " + nameOfSelectedProperty + " failed on database side"));
+                // the edit was applied to the selected property, which can be the row shown in the table
+                replaceRow(editedProperty, propertyBeforeEdit);
+            });
         }
     }
 
+    /**
+     * Returns the warning shown if writing a property failed on database side. Subclasses can replace the given
+     * message for failures the user can fix, for example a name that is already taken.
+     *
+     * @param name           the name of the property that was written
+     * @param throwable      the cause of the failure
+     * @param defaultMessage the warning shown for any other failure
+     * @return the warning to show in the message field
+     */
+    protected String getWriteFailureMessage(String name, Throwable throwable, String defaultMessage) {
+        return defaultMessage;
+    }
+
+    /**
+     * Creates a copy of the given property, which is shown again if the write of a change to it fails.
+     *
+     * @param property the property to copy
+     * @return a new object with the same values as the given property
+     */
+    protected abstract T copyProperty(T property);
+
     /**
      * Updates the selected property based on the current values in the edit field(s). This method should be
      * implemented by subclasses to handle the specific details of how the selected property is updated based
@@ -167,9 +269,9 @@ public abstract class EditController<T> extends TableViewController<T> {
      * should be implemented by subclasses to handle the specific details of how the selected property is updated
      * in the database.
      *
-     * @return true if the update is successful, false otherwise.
+     * @return a future that completes when the update is done, or exceptionally if it failed.
      */
-    protected abstract boolean updateSelectedPropertyInDB();
+    protected abstract CompletableFuture<Void> updateSelectedPropertyInDB();
 
     /**
      * Resets the edit area by clearing the values in all of the text fields.
@@ -1,6 +1,5 @@
 package controller;
 
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.TableColumn;
@@ -10,7 +9,7 @@ import model.Ingredient;
 import model.databaseManager.IngredientDatabaseManager;
 
 import java.net.URL;
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 import java.util.ResourceBundle;
 /**
  The IngredientController class is a subclass of EditController that controls the UI of the ingredient table.
@@ -76,21 +75,12 @@ public class IngredientController extends EditController<Ingredient> implements
     }
 
     /**
-     * Attempts to update the selected property in the database.
-     * If successful, returns true.
-     * If unsuccessful, shows a warning message in the message field and returns false.
-     * @return true if the update was successful, false otherwise.
+     * Updates the selected property in the database in the background.
+     * @return a future that completes when the update is done, or exceptionally if it failed.
      */
     @Override
-    protected boolean updateSelectedPropertyInDB() {
-        try {
-            ingredientDatabaseManager.updatePropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Updating " + getNameOfSelectedProperty() + " failed on database side");
-            sqlException.printStackTrace();
-            return false;
-        }
+    protected CompletableFuture<Void> updateSelectedPropertyInDB() {
+        return ingredientDatabaseManager.updatePropertyInDBAsync(getSelectedProperty());
     }
     /**
      * Returns the name of the currently selected property.
@@ -100,6 +90,15 @@ public class IngredientController extends EditController<Ingredient> implements
     protected String getNameOfSelectedProperty() {
         return getSelectedProperty().getName();
     }
+    /**
+     * Creates a copy of the given ingredient, which is shown again if the write of a change to it fails.
+     * @param ingredient the ingredient to copy
+     * @return a new Ingredient with the same values
+     */
+    @Override
+    protected Ingredient copyProperty(Ingredient ingredient) {
+        return ingredient.copy();
+    }
     /**
      * Sets the regular table columns describing an ingredient.
      */
@@ -127,17 +126,12 @@ public class IngredientController extends EditController<Ingredient> implements
         setSelectedProperty(emptyIngredient);
     }
     /**
-     * Retrieves all ingredients from the database and returns them as an ObservableList.
-     * If an SQLException occurs, returns null.
-     * @return an ObservableList containing all ingredients from the database, or null if an SQLException occurs.
+     * Returns the database manager whose ingredients are shown in the table.
+     * @return the ingredient database manager
      */
     @Override
-    protected ObservableList<Ingredient> getAllFromSelectedProperty() {
-        try {
-            return ingredientDatabaseManager.getAllFromProperty();
-        } catch (SQLException sqlException){
-            return null;
-        }
+    protected IngredientDatabaseManager getDatabaseManager() {
+        return ingredientDatabaseManager;
     }
 
 }
@@ -10,9 +10,13 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import model.Database;
 import model.SettingsApplier;
+import model.SettingsStore;
+import model.StartupMetrics;
+import model.databaseManager.QueryAccounting;
 
 import java.io.IOException;
 import java.net.URL;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
 
 public class LoginController implements Initializable {
@@ -33,8 +37,17 @@ public class LoginController implements Initializable {
      */
     @FXML
     private void login() {
+        StartupMetrics.markLoginStarted();
         boolean connected = Database.getInstance().connect();
         if (connected) {
+            // the settings are applied on every pane switch, so they are read once here and kept in memory
+            QueryAccounting.run(getClass().getSimpleName(), "login", () -> {
+                try {
+                    SettingsStore.getInstance().load();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            });
             try {
                 Stage stage = (Stage) host.getScene().getWindow();
                 Parent root = FXMLLoader.load(getClass().getResource("/view/navbar.fxml"));
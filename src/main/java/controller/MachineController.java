@@ -1,6 +1,5 @@
 package controller;
 
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TextField;
@@ -8,7 +7,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import model.Machine;
 import model.databaseManager.MachineDatabaseManager;
 
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 public class MachineController extends EditController<Machine> {
     @FXML
@@ -75,20 +74,12 @@ public class MachineController extends EditController<Machine> {
         getSelectedProperty().setDescription(description);
     }
     /**
-     * Attempts to update the selected property in the database.
-     * If successful, returns true.
-     * If unsuccessful, shows a warning message in the message field and returns false.
-     * @return true if the update was successful, false otherwise.
+     * Updates the selected property in the database in the background.
+     * @return a future that completes when the update is done, or exceptionally if it failed.
      */
     @Override
-    protected boolean updateSelectedPropertyInDB() {
-        try {
-            machineDatabaseManager.updatePropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Updating " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> updateSelectedPropertyInDB() {
+        return machineDatabaseManager.updatePropertyInDBAsync(getSelectedProperty());
     }
     /**
      * Returns the name of the currently selected property.
@@ -98,6 +89,15 @@ public class MachineController extends EditController<Machine> {
     protected String getNameOfSelectedProperty() {
         return getSelectedProperty().getName();
     }
+    /**
+     * Creates a copy of the given machine, which is shown again if the write of a change to it fails.
+     * @param machine the machine to copy
+     * @return a new Machine with the same values
+     */
+    @Override
+    protected Machine copyProperty(Machine machine) {
+        return machine.copy();
+    }
     /**
      * Sets the regular table columns describing a machine.
      */
@@ -115,16 +115,11 @@ public class MachineController extends EditController<Machine> {
         setSelectedProperty(new Machine(Integer.MAX_VALUE, "", ""));
     }
     /**
-     * Retrieves all machines from the database and returns them as an ObservableList.
-     * If an SQLException occurs, returns null.
-     * @return an ObservableList containing all machines from the database, or null if an SQLException occurs.
+     * Returns the database manager whose machines are shown in the table.
+     * @return the machine database manager
      */
     @Override
-    protected ObservableList<Machine> getAllFromSelectedProperty() {
-        try {
-            return machineDatabaseManager.getAllFromProperty();
-        } catch (SQLException sqlException){
-            return null;
-        }
+    protected MachineDatabaseManager getDatabaseManager() {
+        return machineDatabaseManager;
     }
 }
@@ -1,34 +1,55 @@
 package controller;
 
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import model.SettingsApplier;
 import model.SettingsProfile;
+import model.StartupMetrics;
 import model.databaseManager.SettingsProfileDatabaseManager;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 /**
  * The MenuController class manages the menu bar and the content pane of the main application window.
  * It implements the Initializable interface, so its initialize method is called when the FXML file is loaded.
  * The class is responsible for loading the different panes when the corresponding menu items are clicked.
+ * Only the welcome pane is loaded before the menu is shown. A background thread reads the FXML files of the other
+ * panes and loads the classes of their controllers; the panes themselves are built on the JavaFX application thread,
+ * one at a time, and a pane that is opened before its turn is built right away.
  */
 public class MenuController implements Initializable {
     @FXML
     private AnchorPane contentPane;
+    @FXML
+    private Label pendingWritesLabel;
 
-    private Pane usersPane, recipePane, ingredientPane, machinePane, currentPane, settingsPane, welcomePane;
+    private final LazyPane usersPane = new LazyPane("/view/user.fxml");
+    private final LazyPane recipePane = new LazyPane("/view/recipe.fxml");
+    private final LazyPane ingredientPane = new LazyPane("/view/Ingredient.fxml");
+    private final LazyPane machinePane = new LazyPane("/view/machine.fxml");
+    private final LazyPane settingsPane = new LazyPane("/view/settings.fxml");
+    private Pane currentPane, welcomePane;
 
     /**
-     * This method is called by the FXMLLoader when the FXML file is loaded. It loads the different panes from the FXML files.
-     * It then applies the current settings to the content pane and loads the welcome pane.
+     * This method is called by the FXMLLoader when the FXML file is loaded. It loads the welcome pane, applies the
+     * current settings to the content pane and shows the welcome pane. The other panes are preloaded in the background.
+     * The navbar shows how many changes are still being written to the database.
      *
      * @param url the URL of the FXML file
      * @param resourceBundle the ResourceBundle object associated with the FXML file
@@ -36,17 +57,35 @@ public class MenuController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         try {
-            usersPane = FXMLLoader.load(getClass().getResource("/view/user.fxml"));
-            recipePane = FXMLLoader.load(getClass().getResource("/view/recipe.fxml"));
-            ingredientPane = FXMLLoader.load(getClass().getResource("/view/Ingredient.fxml"));
-            machinePane = FXMLLoader.load(getClass().getResource("/view/machine.fxml"));
-            settingsPane = FXMLLoader.load(getClass().getResource("/view/settings.fxml"));
             welcomePane = FXMLLoader.load(getClass().getResource("/view/WelcomePage.fxml"));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        pendingWritesLabel.textProperty().bind(Bindings.format("Saving %d change(s)...", PendingWrites.countProperty()));
+        pendingWritesLabel.visibleProperty().bind(PendingWrites.countProperty().greaterThan(0));
         SettingsApplier.applyCurrentSettings(contentPane);
         loadWelcomePane();
+        Platform.runLater(StartupMetrics::markInteractive);
+        preloadPanes();
+    }
+
+    /**
+     * This method preloads the panes, the ones used most often first. A background thread reads the FXML file of a
+     * pane and then queues the pane to be built on the JavaFX application thread, so every pane is built in a step of
+     * its own and input is handled in between. Their controllers read their tables asynchronously, so building a pane
+     * does not wait for the database.
+     */
+    private void preloadPanes() {
+        List<LazyPane> panesByPriority = List.of(recipePane, usersPane, ingredientPane, machinePane, settingsPane);
+        Thread preloader = new Thread(() -> {
+            for (LazyPane pane : panesByPriority) {
+                pane.prefetch();
+                Platform.runLater(pane::preload);
+            }
+            Platform.runLater(StartupMetrics::markPanesPreloaded);
+        }, "pane-preloader");
+        preloader.setDaemon(true);
+        preloader.start();
     }
 
     /**
@@ -75,7 +114,7 @@ public class MenuController implements Initializable {
     void loadUsersPane(){
         removeCurrentContent();
         SettingsApplier.applyCurrentSettings(contentPane);
-        addContentToContentPane(usersPane);
+        addContentToContentPane(usersPane.get());
     }
 
     /**
@@ -85,7 +124,7 @@ public class MenuController implements Initializable {
     void loadRecipePane(){
         removeCurrentContent();
         SettingsApplier.applyCurrentSettings(contentPane);
-        addContentToContentPane(recipePane);
+        addContentToContentPane(recipePane.get());
     }
 
     /**
@@ -95,7 +134,7 @@ public class MenuController implements Initializable {
     void loadIngredientPane(){
         removeCurrentContent();
         SettingsApplier.applyCurrentSettings(contentPane);
-        addContentToContentPane(ingredientPane);
+        addContentToContentPane(ingredientPane.get());
     }
 
     /**
@@ -105,7 +144,7 @@ public class MenuController implements Initializable {
     void loadMachinePane() {
         removeCurrentContent();
         SettingsApplier.applyCurrentSettings(contentPane);
-        addContentToContentPane(machinePane);
+        addContentToContentPane(machinePane.get());
     }
     /**
      * This method loads the settings pane into the content pane when the Settings menu item is clicked.
@@ -114,7 +153,7 @@ public class MenuController implements Initializable {
     void loadSettingsPane() {
         removeCurrentContent();
         SettingsApplier.applyCurrentSettings(contentPane);
-        addContentToContentPane(settingsPane);
+        addContentToContentPane(settingsPane.get());
     }
     /**
      * This method loads the welcome pane into the content pane when the initialize method is called.
@@ -125,4 +164,69 @@ public class MenuController implements Initializable {
         SettingsApplier.applyCurrentSettings(contentPane);
         addContentToContentPane(welcomePane);
     }
+
+    /**
+     * A pane that is loaded from its FXML file the first time it is needed, either by the preloader or when it is
+     * opened. The file can be read and the class of its controller loaded on any thread beforehand, but the pane is
+     * only built on the JavaFX application thread, which also runs the initialize method of its controller.
+     */
+    private static final class LazyPane {
+        private static final Pattern CONTROLLER_ATTRIBUTE = Pattern.compile("fx:controller\\s*=\\s*\"([^\"]+)\"");
+
+        private final String fxmlFile;
+        private volatile byte[] fxml;
+        private Pane pane;
+
+        LazyPane(String fxmlFile) {
+            this.fxmlFile = fxmlFile;
+        }
+
+        /**
+         * Reads the FXML file and loads the class of its controller without initializing it, so building the pane
+         * later does no I/O. It may be called on any thread; if it fails, the pane is read when it is built.
+         */
+        void prefetch() {
+            try (InputStream in = MenuController.class.getResourceAsStream(fxmlFile)) {
+                byte[] bytes = in.readAllBytes();
+                Matcher controller = CONTROLLER_ATTRIBUTE.matcher(new String(bytes, StandardCharsets.UTF_8));
+                if (controller.find()) {
+                    Class.forName(controller.group(1), false, MenuController.class.getClassLoader());
+                }
+                fxml = bytes;
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Builds the pane in the background of the menu, printing the error instead of throwing it if it fails.
+         * It has to be called on the JavaFX application thread.
+         */
+        void preload() {
+            try {
+                get();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Returns the pane, building it first if necessary. It has to be called on the JavaFX application thread.
+         *
+         * @return the loaded pane
+         */
+        Pane get() {
+            if (pane == null) {
+                FXMLLoader loader = new FXMLLoader(MenuController.class.getResource(fxmlFile));
+                byte[] prefetched = fxml;
+                try {
+                    pane = prefetched == null ? loader.load() : loader.load(new ByteArrayInputStream(prefetched));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                fxml = null;
+            }
+            return pane;
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Counts the writes whose changes are already shown in a table but are still running in the background, so the menu
+ * can show that there are changes which are not saved yet. The count is only changed on the JavaFX application thread.
+ */
+final class PendingWrites {
+    private static final ReadOnlyIntegerWrapper count = new ReadOnlyIntegerWrapper();
+
+    private PendingWrites() {}
+
+    /**
+     * Counts the given write until it completes. Has to be called on the JavaFX application thread.
+     *
+     * @param write the running write
+     * @param <R>   the type of the result of the write
+     * @return the given write
+     */
+    static <R> CompletableFuture<R> track(CompletableFuture<R> write) {
+        count.set(count.get() + 1);
+        write.whenCompleteAsync((result, throwable) -> count.set(count.get() - 1), Platform::runLater);
+        return write;
+    }
+
+    /**
+     * Returns the number of writes that are still running.
+     *
+     * @return the read-only count of pending writes
+     */
+    static ReadOnlyIntegerProperty countProperty() {
+        return count.getReadOnlyProperty();
+    }
+}
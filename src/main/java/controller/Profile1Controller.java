@@ -1,7 +1,6 @@
 package controller;
 
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.ResourceBundle;
 /**
  This class represents the controller for "Profile 1" in the application.
@@ -21,12 +20,8 @@ public class Profile1Controller extends ProfileController{
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        try {
-            setProfile(getProfileDatabaseManager().getProfileByName("Profile 1").get());
-            setNewProfileSettings(getProfile().copy());
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        setProfile(getSettingsStore().getProfile("Profile 1").get());
+        setNewProfileSettings(getProfile().copy());
         setDarkModeBox();
         setSelectedButtons();
     }
@@ -1,7 +1,6 @@
 package controller;
 
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.ResourceBundle;
 /**
  This class represents the controller for "Profile 3" in the application.
@@ -20,12 +19,8 @@ public class Profile3Controller extends ProfileController {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        try {
-            setProfile(getProfileDatabaseManager().getProfileByName("Profile 3").get());
-            setNewProfileSettings(getProfile().copy());
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        setProfile(getSettingsStore().getProfile("Profile 3").get());
+        setNewProfileSettings(getProfile().copy());
         //loadCurrentProfileConfiguration();
         setDarkModeBox();
         setSelectedButtons();
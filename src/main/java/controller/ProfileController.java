@@ -4,24 +4,24 @@ import com.google.protobuf.MapEntry;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.layout.AnchorPane;
 import model.FontFamily;
 import model.SettingsApplier;
 import model.SettingsProfile;
-import model.databaseManager.SettingsProfileDatabaseManager;
+import model.SettingsStore;
+import model.ThemeEngine;
+import model.databaseManager.QueryAccounting;
 
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.*;
 
 /**
  * The ProfileController class provides methods and functionality for configuring the user's profile settings.
  * This abstract class implements the Initializable interface and contains several FXML elements, including
- * CheckBox, Button, and AnchorPane, which are initialized using the FXML annotation. It also contains an instance
- * of the SettingsProfileDatabaseManager class, which provides access to the database where user profile settings are stored.
+ * CheckBox, Button, and AnchorPane, which are initialized using the FXML annotation. It reads and saves the profile
+ * settings through the SettingsStore, which keeps them in memory and writes changes to the database in the background.
  * The class contains several methods for configuring the user's profile settings, including methods for loading the current
  * profile configuration, setting all buttons to their default settings, selecting the current font size and font family,
  * setting the dark mode, and updating the current settings in the database. It also contains methods for saving and resetting
@@ -34,17 +34,17 @@ public abstract class ProfileController implements Initializable {
     @FXML
     private Button smallFontSizeButton, mediumFontSizeButton, bigFontSizeButton, arialButton, comicSansMSButton, timesNewRomanButton, resetChangesButton, resetToDefaultButton, submitButton;
 
-    private final SettingsProfileDatabaseManager profileDatabaseManager = new SettingsProfileDatabaseManager();
+    private final SettingsStore settingsStore = SettingsStore.getInstance();
     private SettingsProfile profile;
     private SettingsProfile newProfileSettings;
 
     /**
-     * Returns the instance of the SettingsProfileDatabaseManager class used by this ProfileController.
+     * Returns the SettingsStore used by this ProfileController.
      *
-     * @return the instance of the SettingsProfileDatabaseManager class used by this ProfileController.
+     * @return the SettingsStore used by this ProfileController.
      */
-    public SettingsProfileDatabaseManager getProfileDatabaseManager() {
-        return profileDatabaseManager;
+    public SettingsStore getSettingsStore() {
+        return settingsStore;
     }
 
     /**
@@ -104,10 +104,6 @@ public abstract class ProfileController implements Initializable {
      * Sets all button styles to the corresponding default values.
      */
     private void setAllButtonsToDefault() {
-        if (getNewProfileSettings().isInDarkMode()){
-            arialButton.getScene().getRoot().getStylesheets().clear();
-            arialButton.getScene().getRoot().getStylesheets().add(getClass().getResource("/css/darkMode.css").toString());
-        }
         smallFontSizeButton.getStyleClass().clear();
         smallFontSizeButton.getStyleClass().add("smallFontSizeButton");
         smallFontSizeButton.getStyleClass().add("button");
@@ -177,48 +173,48 @@ public abstract class ProfileController implements Initializable {
     /**
 
      This method resets the changes made to the profile settings to the original state.
-     @throws SQLException if there is a problem with the SQL query
      */
     @FXML
-    void resetChanges() throws SQLException {
-        setNewProfileSettings(getProfile().copy());
-        profileDatabaseManager.updatePropertyInDB(newProfileSettings);
-        applyUnsavedSettings();
-        loadCurrentProfileConfiguration();
+    void resetChanges() {
+        QueryAccounting.run(getClass().getSimpleName(), "reset profile", () -> {
+            setNewProfileSettings(getProfile().copy());
+            settingsStore.save(newProfileSettings);
+            applyUnsavedSettings();
+            loadCurrentProfileConfiguration();
+        });
     }
     /**
 
      This method resets the profile settings to the default values stored in the database.
-     @throws SQLException if there is a problem with the SQL query
      */
     @FXML
-    void resetToDefault() throws SQLException {
-        setNewProfileSettings(profileDatabaseManager.getDefaultSettings().get());
+    void resetToDefault() {
+        setNewProfileSettings(settingsStore.getDefaultSettings().get());
         getNewProfileSettings().setName(getProfile().getName());
         applyUnsavedSettings();
         loadCurrentProfileConfiguration();
     }
     /**
 
-     This method saves the current profile configuration to the database.
-     @throws SQLException if there is a problem with the SQL query
+     This method saves the current profile configuration. It is applied at once and written to the database in the background.
      */
     @FXML
-    void saveCurrentConfiguration() throws SQLException {
-        profileDatabaseManager.updatePropertyInDB(newProfileSettings);
-        setProfile(newProfileSettings.copy());
-        updateCurrentSettingsInDb();
-        SettingsApplier.applyCurrentSettings(arialButton);
-        loadCurrentProfileConfiguration();
+    void saveCurrentConfiguration() {
+        QueryAccounting.run(getClass().getSimpleName(), "save profile", () -> {
+            settingsStore.save(newProfileSettings);
+            setProfile(newProfileSettings.copy());
+            updateCurrentSettingsInDb();
+            SettingsApplier.applyCurrentSettings(arialButton);
+            loadCurrentProfileConfiguration();
+        });
     }
     /**
 
-     This method updates the current settings in the database.
-     @throws SQLException if there is a problem with the SQL query
+     This method updates the current settings in the store, which writes them to the database in the background.
      */
-    private void updateCurrentSettingsInDb() throws SQLException {
-        getNewProfileSettings().setName("Current");
-        profileDatabaseManager.updatePropertyInDB(getNewProfileSettings());
+    private void updateCurrentSettingsInDb() {
+        getNewProfileSettings().setName(SettingsStore.CURRENT_PROFILE);
+        settingsStore.save(getNewProfileSettings());
         getNewProfileSettings().setName(getProfile().getName());
     }
     /**
@@ -228,12 +224,7 @@ public abstract class ProfileController implements Initializable {
     @FXML
     void switchDarkMode() {
         getNewProfileSettings().switchDarkMode();
-        if (newProfileSettings.isInDarkMode()) {
-            arialButton.getScene().getRoot().getStylesheets().add(getClass().getResource("/css/darkMode.css").toString());
-        } else {
-            arialButton.getScene().getRoot().getStylesheets().clear();
-            arialButton.getScene().getRoot().getStylesheets().add(getClass().getResource("/css/stylesheet.css").toString());
-        }
+        ThemeEngine.apply(arialButton.getScene().getRoot(), getNewProfileSettings());
         loadCurrentProfileConfiguration();
     }
     /**
@@ -303,19 +294,7 @@ public abstract class ProfileController implements Initializable {
         Platform.runLater(new Runnable() {
             @Override
             public void run() {
-                Parent root = arialButton.getScene().getRoot();
-                if (getNewProfileSettings().isInDarkMode()) {
-                    root.getStylesheets().clear();
-                    root.getStylesheets().add(SettingsApplier.class.getResource("/css/darkMode.css").toString());
-                } else {
-                    root.getStylesheets().clear();
-                    root.getStylesheets().add(SettingsApplier.class.getResource("/css/stylesheet.css").toString());
-                }
-                root.getStyleClass().clear();
-                root.setStyle("");
-                root.getStyleClass().add("root");
-                root.getStyleClass().add("root" + getNewProfileSettings().getFontFamily());
-                root.setStyle("-fx-font-size: " + getNewProfileSettings().getFontSize());
+                ThemeEngine.apply(arialButton.getScene().getRoot(), getNewProfileSettings());
             }
         });
     }
@@ -1,14 +1,14 @@
 package controller;
 
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import model.Recipe;
+import model.databaseManager.DatabaseManager;
 import model.databaseManager.RecipeDatabaseManager;
 
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 /**
  The RecipeController class is a subclass of EditAndCreateAndDeleteController that controls the UI of the Recipe table.
  It includes methods for adding, deleting, and editing recipes as well as loading recipe data from the database.
@@ -25,38 +25,23 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
     private final RecipeDatabaseManager recipeDatabaseManager = new RecipeDatabaseManager();
     /**
      * This method is called when a user selects the delete button from the UI.
-     * It attempts to delete the selected recipe from the database.
-     * If the deletion is successful, this method returns true, else it shows a warning message in the message field and returns false.
+     * It deletes the selected recipe from the database in the background.
      *
-     * @return true if the selected recipe was successfully deleted from the database, false otherwise.
+     * @return a future that completes when the selected recipe is deleted from the database, or exceptionally if it failed.
      */
     @Override
-    protected boolean deleteSelectedPropertyFromDB() {
-        try {
-            recipeDatabaseManager.deletePropertyFromDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Deleting " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> deleteSelectedPropertyFromDB() {
+        return recipeDatabaseManager.deletePropertyFromDBAsync(getSelectedProperty());
     }
     /**
      * This method is called when a user selects the create button from the UI.
-     * It attempts to create a new recipe in the database using the selected recipe's data.
-     * If the creation is successful, this method returns true, else it shows a warning message in the message field and returns false.
+     * It creates a new recipe in the database in the background using the selected recipe's data.
      *
-     * @return true if the new recipe was successfully created in the database, false otherwise.
+     * @return a future that completes when the new recipe is created in the database, or exceptionally if it failed.
      */
     @Override
-    protected boolean createNewPropertyInDB() {
-        try {
-            recipeDatabaseManager.createNewPropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Creating " + getNameOfSelectedProperty() + " failed on database side");
-            sqlException.printStackTrace();
-            return false;
-        }
+    protected CompletableFuture<Void> createNewPropertyInDB() {
+        return recipeDatabaseManager.createNewPropertyInDBAsync(getSelectedProperty());
     }
     /**
      * This method sets all text fields used in the UI for the recipe table.
@@ -98,12 +83,6 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
         } catch (NullPointerException nullPointerException) {
             showWarningInMessageField("The name field cannot be empty!");
             return false;
-        } catch (IllegalArgumentException illegalArgumentException) {
-            showWarningInMessageField("A recipe with the name " + nameField.getText() + "already exists! Choose another name!");
-            return false;
-        } catch (SQLException sqlException) {
-            sqlException.printStackTrace();
-            return false;
         }
     }
     /**
@@ -113,17 +92,13 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
      * from the GUI and sets them as the new property values for the selected Recipe.
      * If any of the input values are invalid, a NumberFormatException will be thrown.
      * If the new Recipe name is empty, a NullPointerException will be thrown.
-     * If the new Recipe name is not unique and not equal to the original name of the selected Recipe,
-     * an IllegalArgumentException will be thrown.
-     * The former name of the Recipe is set to the name of the selected Recipe before the name is updated.
+     * Whether the new Recipe name is unique is checked by the unique index of the database when the Recipe is written.
      * The image URL for the Recipe is set to the default image URL.
-     * @throws SQLException if there is an error in the database during the update process
      * @throws NumberFormatException if any of the input values are not valid numbers
      * @throws NullPointerException if the new Recipe name is empty
-     * @throws IllegalArgumentException if the new Recipe name is not unique and not equal to the original name of the selected Recipe
 
      **/
-    private void tryUpdateSelectedProperty() throws SQLException {
+    private void tryUpdateSelectedProperty() {
         int brewtime = Integer.parseInt(brewtimeField.getText());
         int beans = Integer.parseInt(coffeeBeanField.getText());
         int milk = Integer.parseInt(milkField.getText());
@@ -134,14 +109,11 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
         String newName = nameField.getText();
         if (newName.isEmpty()) {
             throw new NullPointerException();
-        } else if (recipeDatabaseManager.findRecipeByName(newName).isPresent() && !newName.equals(getSelectedProperty().getName())) {
-            throw new IllegalArgumentException();
         }
         getSelectedProperty().setBrewtime(brewtime);
         getSelectedProperty().setAmountOfBeans(beans);
         getSelectedProperty().setAmountOfMilk(milk);
         getSelectedProperty().setWaterPressure(waterPressure);
-        getSelectedProperty().setFormerName(getNameOfSelectedProperty());
         getSelectedProperty().setName(nameField.getText());
         getSelectedProperty().setImageURL(Recipe.DEFAULT_IMAGE_URL);
     }
@@ -158,20 +130,12 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
         return brewtime > 0 && beans > 0 && milk >= 0 && waterPressure > 0;
     }
     /**
-     * Attempts to update the selected property in the database.
-     * If successful, returns true.
-     * If unsuccessful, shows a warning message in the message field and returns false.
-     * @return true if the update was successful, false otherwise.
+     * Updates the selected property in the database in the background.
+     * @return a future that completes when the update is done, or exceptionally if it failed.
      */
     @Override
-    protected boolean updateSelectedPropertyInDB() {
-        try {
-            recipeDatabaseManager.updatePropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Updating " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> updateSelectedPropertyInDB() {
+        return recipeDatabaseManager.updatePropertyInDBAsync(getSelectedProperty());
     }
     /**
      * Returns the name of the currently selected property.
@@ -181,6 +145,29 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
     protected String getNameOfSelectedProperty() {
         return getSelectedProperty().getName();
     }
+    /**
+     * Returns the warning shown if writing a recipe failed, which explains a name that is already taken.
+     * @param name the name of the recipe that was written
+     * @param throwable the cause of the failure
+     * @param defaultMessage the warning shown for any other failure
+     * @return the warning to show in the message field
+     */
+    @Override
+    protected String getWriteFailureMessage(String name, Throwable throwable, String defaultMessage) {
+        if (DatabaseManager.isDuplicateKey(throwable)) {
+            return "A recipe with the name " + name + " already exists! Choose another name!";
+        }
+        return defaultMessage;
+    }
+    /**
+     * Creates a copy of the given recipe, which is shown again if the write of a change to it fails.
+     * @param recipe the recipe to copy
+     * @return a new Recipe with the same values
+     */
+    @Override
+    protected Recipe copyProperty(Recipe recipe) {
+        return recipe.copy();
+    }
     /**
      * Sets the regular table columns describing a recipe.
      */
@@ -200,16 +187,11 @@ public class RecipeController extends EditAndCreateAndDeleteController<Recipe> {
         setSelectedProperty(new Recipe());
     }
     /**
-     * Retrieves all recipes from the database and returns them as an ObservableList.
-     * If an SQLException occurs, returns null.
-     * @return an ObservableList containing all recipes from the database, or null if an SQLException occurs.
+     * Returns the database manager whose recipes are shown in the table.
+     * @return the recipe database manager
      */
     @Override
-    protected ObservableList<Recipe> getAllFromSelectedProperty() {
-        try {
-            return recipeDatabaseManager.getAllFromProperty();
-        } catch (SQLException sqlException){
-            return null;
-        }
+    protected RecipeDatabaseManager getDatabaseManager() {
+        return recipeDatabaseManager;
     }
 }
@@ -1,15 +1,30 @@
 package controller;
 
-import javafx.collections.ObservableList;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.StackPane;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
+import model.databaseManager.DatabaseManager;
+import model.databaseManager.PageQuery;
+import model.databaseManager.PagedObservableList;
+import model.databaseManager.QueryAccounting;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Abstract class for a table view controller. Defines common functionality for displaying and refreshing table data.
@@ -36,11 +51,49 @@ public abstract class TableViewController <T> implements Initializable {
     @FXML
     private Text messageField;
 
+    /**
+     * The filter the user picked in the filter bar. Views without a filter bar leave it null.
+     */
+    @FXML
+    private ChoiceBox<PageQuery.Filter> filterChoiceBox;
+
+    /**
+     * The value the user entered in the filter bar. Views without a filter bar leave it null.
+     */
+    @FXML
+    private TextField filterField;
+
     /**
      * The currently selected property.
      */
     private T selectedProperty;
 
+    /**
+     * The message shown in the message field while the database is busy.
+     */
+    private static final String LOADING_MESSAGE = "Loading...";
+
+    /**
+     * The message and style the message field showed before the loading message replaced them.
+     */
+    private String messageBeforeLoading, styleBeforeLoading;
+
+    /**
+     * Counts the refreshes, so only the result of the latest one is put into the table.
+     */
+    private long refreshGeneration;
+
+    /**
+     * The order and the filter of the rows, taken from the sort order of the table and the filter bar.
+     */
+    private PageQuery<T> pageQuery = PageQuery.all();
+
+    /**
+     * The query and the version of the rows the table currently shows. The version is null while it is unknown.
+     */
+    private PageQuery<T> shownQuery;
+    private List<Long> shownVersion;
+
     /**
      * Sets the selected property to the given value.
      *
@@ -67,23 +120,260 @@ public abstract class TableViewController <T> implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        refresh();
+        // the items are a paged list that only holds the rows on screen, so the database sorts them
+        tableView.setSortPolicy(table -> {
+            applySortOrder();
+            return true;
+        });
+        runAction("open pane", this::refresh);
+        disableColumnsWithoutDatabaseSorting();
+        initializeFilterBar();
+        // the table is shown again whenever the user navigates to it, so it is refreshed if the data changed meanwhile
+        tableView.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null && shownQuery != null) {
+                runAction("show pane", this::reloadIfChanged);
+            }
+        });
+    }
+
+    /**
+     * Turns the sort order of the table into the ORDER BY of the query and reloads the table if it changed.
+     */
+    private void applySortOrder() {
+        List<PageQuery.Order<T>> orders = new ArrayList<>();
+        for (TableColumn<T, ?> column : tableView.getSortOrder()) {
+            findSortColumn(column).ifPresent(sortColumn ->
+                    orders.add(new PageQuery.Order<>(sortColumn, column.getSortType() == TableColumn.SortType.DESCENDING)));
+        }
+        PageQuery<T> sortedQuery = pageQuery.orderedBy(orders);
+        if (!sortedQuery.equals(pageQuery)) {
+            pageQuery = sortedQuery;
+            runAction("sort", this::refresh);
+        }
     }
 
     /**
-     * Refreshes the table view with the latest data from the selected property.
+     * Finds the column of the database manager that a column of the table can be sorted by. Only columns whose cells
+     * show a property through a {@link PropertyValueFactory} can be matched.
+     */
+    private Optional<PageQuery.SortColumn<T>> findSortColumn(TableColumn<T, ?> column) {
+        Object cellValueFactory = column.getCellValueFactory();
+        if (!(cellValueFactory instanceof PropertyValueFactory)) {
+            return Optional.empty();
+        }
+        String property = ((PropertyValueFactory<?, ?>) cellValueFactory).getProperty();
+        return getDatabaseManager().getSortColumns().stream()
+                .filter(sortColumn -> sortColumn.getProperty().equals(property))
+                .findFirst();
+    }
+
+    private void disableColumnsWithoutDatabaseSorting() {
+        for (TableColumn<T, ?> column : tableView.getColumns()) {
+            if (findSortColumn(column).isEmpty()) {
+                column.setSortable(false);
+            }
+        }
+    }
+
+    /**
+     * Fills the filter bar with the filters of the database manager. Changing the filter or its value reloads the
+     * table with the filter as the WHERE of the query once the user stopped typing.
+     */
+    private void initializeFilterBar() {
+        if (filterChoiceBox == null || filterField == null) {
+            return;
+        }
+        filterChoiceBox.getItems().setAll(getDatabaseManager().getFilters());
+        filterChoiceBox.getSelectionModel().selectFirst();
+        // waits until the user stopped typing before the table is reloaded
+        PauseTransition filterDelay = new PauseTransition(Duration.millis(300));
+        filterDelay.setOnFinished(event -> applyFilter());
+        filterChoiceBox.valueProperty().addListener((observable, oldFilter, newFilter) -> filterDelay.playFromStart());
+        filterField.textProperty().addListener((observable, oldText, newText) -> filterDelay.playFromStart());
+    }
+
+    private void applyFilter() {
+        String text = filterField.getText();
+        PageQuery.Filter filter = text == null || text.isBlank() ? null : filterChoiceBox.getValue();
+        PageQuery<T> filteredQuery;
+        try {
+            filteredQuery = pageQuery.filteredBy(filter, text);
+        } catch (IllegalArgumentException illegalArgumentException) {
+            showWarningInMessageField("\"" + text + "\" is not a valid value for " + filter.getLabel());
+            return;
+        }
+        if (!filteredQuery.equals(pageQuery)) {
+            pageQuery = filteredQuery;
+            runAction("filter", this::refresh);
+        }
+    }
+
+    /**
+     * Refreshes the table view with the latest data from the selected property. First the version of the data is
+     * read, which is cheap; only if it moved since the table was loaded, or the sort order or the filter changed, the
+     * data is loaded again. The data is loaded in the background, and the message field shows a loading message until
+     * it arrives. The table then gets a new list of items.
      */
     protected void refresh(){
         setRegularTableColumns();
         setAdditionalContent();
+        reloadIfChanged();
+        clearSelectedProperty();
+    }
 
-        try {
-            tableView.getItems().setAll(getAllFromSelectedProperty());
-        } catch (NullPointerException nullPointerException){
-            showWarningInMessageField("There are no properties in the corresponding table! You have to create one!");
+    /**
+     * Reads the version of the data and reloads the table if it moved or the query changed.
+     */
+    private void reloadIfChanged() {
+        long generation = ++refreshGeneration;
+        PageQuery<T> query = pageQuery;
+        consumeOnFxThread(readVersion(), version -> {
+            if (generation != refreshGeneration) {
+                return;
+            }
+            if (version != null && version.equals(shownVersion) && query.equals(shownQuery)) {
+                return;
+            }
+            reload(generation, query, version);
+        }, throwable -> {
+            if (generation == refreshGeneration) {
+                reload(generation, query, null);
+            }
+        });
+    }
+
+    /**
+     * Reads the version of the data in the background, which tells whether the table has to be loaded again.
+     *
+     * @return a future that completes with the version, or with null if it is unknown
+     */
+    protected CompletableFuture<List<Long>> readVersion() {
+        return getDatabaseManager().getVersionAsync();
+    }
+
+    /**
+     * Loads the data for the given query into the table. The version was read before the data, so a change in
+     * between is loaded again by the next refresh.
+     */
+    private void reload(long generation, PageQuery<T> query, List<Long> version) {
+        showLoadingInMessageField();
+        consumeOnFxThread(getAllFromSelectedProperty(), properties -> {
+            if (generation == refreshGeneration) {
+                tableView.setItems(properties);
+                shownQuery = query;
+                shownVersion = version;
+                clearLoadingInMessageField();
+            }
+        }, throwable -> {
+            if (generation == refreshGeneration) {
+                shownVersion = null;
+                showWarningInMessageField("There are no properties in the corresponding table! You have to create one!");
+            }
+        });
+    }
+
+    /**
+     * Applies a row that was created or edited to the table in place: only the row is read again, and it is put at its
+     * position in the sort order, so the selection and the scroll position of the table stay where they were. If
+     * the row cannot be applied in place, the table is reloaded. The selected property is left as it is.
+     *
+     * @param property the created or edited property
+     */
+    protected void refreshRow(T property) {
+        PagedObservableList<T> items = getShownItems();
+        if (items == null) {
+            reloadIfChanged();
+            return;
         }
+        consumeOnFxThread(items.refreshRow(property), applied -> {
+            if (!applied) {
+                reloadIfChanged();
+            }
+        }, throwable -> reloadIfChanged());
+    }
 
-        clearSelectedProperty();
+    /**
+     * Shows another version of a row in place without reading anything from the database, for example an edit that
+     * is not written yet, or the row as it was before an edit whose write failed.
+     *
+     * @param property    the row shown in the table
+     * @param replacement the row to show instead; can be the same row if it was changed
+     */
+    protected void replaceRow(T property, T replacement) {
+        PagedObservableList<T> items = getShownItems();
+        if (items != null) {
+            items.replaceRow(property, replacement);
+        }
+    }
+
+    /**
+     * Shows a created row at the top of the table before it is written to the database. Once it is written,
+     * {@link #refreshRow(Object)} moves it to its position in the sort order.
+     *
+     * @param property the created property
+     */
+    protected void insertRow(T property) {
+        PagedObservableList<T> items = getShownItems();
+        if (items != null) {
+            items.insertRow(0, property);
+        }
+    }
+
+    /**
+     * Removes a row that was deleted from the table in place, without reading the table again. If the row is not
+     * shown, the table is reloaded. The selected property is left as it is.
+     *
+     * @param property the deleted property
+     */
+    protected void removeRow(T property) {
+        PagedObservableList<T> items = getShownItems();
+        if (items == null || !items.removeRow(property)) {
+            reloadIfChanged();
+        }
+    }
+
+    /**
+     * Returns the paged list the table shows, or null if it does not show the rows of the current query.
+     */
+    @SuppressWarnings("unchecked")
+    private PagedObservableList<T> getShownItems() {
+        if (!(tableView.getItems() instanceof PagedObservableList) || !pageQuery.equals(shownQuery)) {
+            return null;
+        }
+        return (PagedObservableList<T>) tableView.getItems();
+    }
+
+    /**
+     * Runs the given work as an action of this controller for the {@link QueryAccounting}, so the queries it causes,
+     * also in the background, are counted under the name of the controller.
+     *
+     * @param name the name of the action, for example "open pane"
+     * @param work the work of the action
+     */
+    protected void runAction(String name, Runnable work) {
+        QueryAccounting.run(getClass().getSimpleName(), name, work);
+    }
+
+    /**
+     * Hands the result of a database operation to the JavaFX application thread once it is available. The callbacks
+     * run under the action that was current when this method was called, so the queries they send are counted into it.
+     *
+     * @param future    the pending database operation
+     * @param onSuccess called on the JavaFX application thread with the result
+     * @param onFailure called on the JavaFX application thread with the cause if the operation failed
+     * @param <R>       the type of the result
+     */
+    protected <R> void consumeOnFxThread(CompletableFuture<R> future, Consumer<R> onSuccess, Consumer<Throwable> onFailure) {
+        QueryAccounting.Action action = QueryAccounting.currentAction();
+        future.whenCompleteAsync((result, throwable) -> QueryAccounting.runAs(action, () -> {
+            if (throwable == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                cause.printStackTrace();
+                onFailure.accept(cause);
+            }
+        }), Platform::runLater);
     }
 
     /**
@@ -102,11 +392,21 @@ public abstract class TableViewController <T> implements Initializable {
     protected abstract void clearSelectedProperty();
 
     /**
-     * Gets all the data from the selected property as an ObservableList.
+     * Returns the database manager of the selected property.
+     *
+     * @return the database manager whose data is shown in the table
+     */
+    protected abstract DatabaseManager<T> getDatabaseManager();
+
+    /**
+     * Gets the data from the selected property that matches the filter bar, in the sort order of the table, as a
+     * paged list. The data is loaded off the JavaFX application thread, and rows that are not loaded yet are null.
      *
-     * @return an ObservableList of all the data from the selected property
+     * @return a future that completes with a paged list of the data from the selected property
      */
-    protected abstract ObservableList<T> getAllFromSelectedProperty();
+    protected CompletableFuture<PagedObservableList<T>> getAllFromSelectedProperty() {
+        return getDatabaseManager().getAllFromPropertyPagedAsync(pageQuery);
+    }
 
     /**
      * Shows a warning message in the message field.
@@ -127,4 +427,27 @@ public abstract class TableViewController <T> implements Initializable {
         warningBackground.setStyle("-fx-background-color: #8ce854; -fx-font-size: 15.0");
         messageField.setText(successMessage);
     }
+
+    /**
+     * Shows the loading message in the message field. The message that was shown before comes back
+     * with {@link #clearLoadingInMessageField()}.
+     */
+    protected void showLoadingInMessageField(){
+        if (!LOADING_MESSAGE.equals(messageField.getText())) {
+            messageBeforeLoading = messageField.getText();
+            styleBeforeLoading = warningBackground.getStyle();
+        }
+        warningBackground.setStyle("-fx-background-color: lightgrey; -fx-font-size: 15.0");
+        messageField.setText(LOADING_MESSAGE);
+    }
+
+    /**
+     * Restores the message that was shown before the loading message, unless another message replaced it meanwhile.
+     */
+    protected void clearLoadingInMessageField(){
+        if (LOADING_MESSAGE.equals(messageField.getText())) {
+            warningBackground.setStyle(styleBeforeLoading);
+            messageField.setText(messageBeforeLoading);
+        }
+    }
 }
@@ -1,15 +1,15 @@
 package controller;
 
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import model.User;
+import model.databaseManager.DatabaseManager;
 import model.databaseManager.UserDatabaseManager;
 import scala.Int;
 
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 /**
  The UserController class is a subclass of EditAndCreateAndDeleteController that controls the UI of the User table.
  It includes methods for adding, deleting, and editing users as well as loading user data from the database.
@@ -28,38 +28,24 @@ public class UserController extends EditAndCreateAndDeleteController<User>{
 
     /**
      * This method is called when a user selects the delete button from the UI.
-     * It attempts to delete the selected user from the database.
-     * If the deletion is successful, this method returns true, else it shows a warning message in the message field and returns false.
+     * It deletes the selected user from the database in the background.
      *
-     * @return true if the selected user was successfully deleted from the database, false otherwise.
+     * @return a future that completes when the selected user is deleted from the database, or exceptionally if it failed.
      */
     @Override
-    protected boolean deleteSelectedPropertyFromDB() {
-        try{
-            userDatabaseManager.deletePropertyFromDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException){
-            showWarningInMessageField("Deleting " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> deleteSelectedPropertyFromDB() {
+        return userDatabaseManager.deletePropertyFromDBAsync(getSelectedProperty());
     }
 
     /**
      * This method is called when a user selects the create button from the UI.
-     * It attempts to create a new user in the database using the selected user's data.
-     * If the creation is successful, this method returns true, else it shows a warning message in the message field and returns false.
+     * It creates a new user in the database in the background using the selected user's data.
      *
-     * @return true if the new user was successfully created in the database, false otherwise.
+     * @return a future that completes when the new user is created in the database, or exceptionally if it failed.
      */
     @Override
-    protected boolean createNewPropertyInDB() {
-        try{
-            userDatabaseManager.createNewPropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException){
-            showWarningInMessageField("Deleting " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> createNewPropertyInDB() {
+        return userDatabaseManager.createNewPropertyInDBAsync(getSelectedProperty());
     }
 
     /**
@@ -98,64 +84,36 @@ public class UserController extends EditAndCreateAndDeleteController<User>{
         } catch (NullPointerException nullPointerException){
             showWarningInMessageField("The editable fields cannot be empty!");
             return false;
-        } catch (IllegalArgumentException illegalArgumentException){
-            showWarningInMessageField("A User with the username " + usernameField.getText() + " already exists! Choose another username!");
-            return false;
-        } catch (SQLException sqlException){
-            showWarningInMessageField("Something went wrong on database side!");
-            return false;
         }
     }
 
     /**
      * Tries to update the selected user property with the values entered in the corresponding text fields.
-     * If any of the fields are empty or if the entered username is not unique, throws a NullPointerException
-     * or an IllegalArgumentException, respectively. Otherwise, sets the values of the selected user property
-     * to the entered values.
+     * If any of the fields are empty, throws a NullPointerException. Otherwise, sets the values of the selected user
+     * property to the entered values. Whether the username is unique is checked by the unique index of the database
+     * when the user is written.
      *
      * @throws NullPointerException if any of the editable fields are empty
-     * @throws IllegalArgumentException if the entered username is not unique
-     * @throws SQLException if there is an error while accessing the user database
      */
-    private void tryUpdateSelectedProperty() throws SQLException {
+    private void tryUpdateSelectedProperty() {
         String newUsername = usernameField.getText();
         String newMail = mailField.getText();
         String newPassword = passwordField.getText();
 
         if (newUsername.isEmpty() || newMail.isEmpty() || newPassword.isEmpty()){
             throw new NullPointerException();
-        } else if (!isNameUnique(newUsername) && !newUsername.equals(getSelectedProperty().getUsername())) {
-            throw new IllegalArgumentException();
         }
         getSelectedProperty().setUsername(newUsername);
         getSelectedProperty().setMail(newMail);
         getSelectedProperty().setPassword(newPassword);
     }
     /**
-     * Checks if the given username is unique among all the users in the user database.
-     *
-     * @param name the username to check
-     * @return true if the username is unique; false otherwise.
-     * @throws SQLException if there is an error while accessing the user database
-     */
-    private boolean isNameUnique(String name) throws SQLException {
-        return userDatabaseManager.findUserByName(name).isEmpty();
-    }
-    /**
-     * Attempts to update the selected property in the database.
-     * If successful, returns true.
-     * If unsuccessful, shows a warning message in the message field and returns false.
-     * @return true if the update was successful, false otherwise.
+     * Updates the selected property in the database in the background.
+     * @return a future that completes when the update is done, or exceptionally if it failed.
      */
     @Override
-    protected boolean updateSelectedPropertyInDB() {
-        try {
-            userDatabaseManager.updatePropertyInDB(getSelectedProperty());
-            return true;
-        } catch (SQLException sqlException) {
-            showWarningInMessageField("Updating " + getNameOfSelectedProperty() + " failed on database side");
-            return false;
-        }
+    protected CompletableFuture<Void> updateSelectedPropertyInDB() {
+        return userDatabaseManager.updatePropertyInDBAsync(getSelectedProperty());
     }
 
     /**
@@ -166,6 +124,29 @@ public class UserController extends EditAndCreateAndDeleteController<User>{
     protected String getNameOfSelectedProperty() {
         return getSelectedProperty().getUsername();
     }
+    /**
+     * Returns the warning shown if writing a user failed, which explains a username that is already taken.
+     * @param name the username of the user that was written
+     * @param throwable the cause of the failure
+     * @param defaultMessage the warning shown for any other failure
+     * @return the warning to show in the message field
+     */
+    @Override
+    protected String getWriteFailureMessage(String name, Throwable throwable, String defaultMessage) {
+        if (DatabaseManager.isDuplicateKey(throwable)) {
+            return "A User with the username " + name + " already exists! Choose another username!";
+        }
+        return defaultMessage;
+    }
+    /**
+     * Creates a copy of the given user, which is shown again if the write of a change to it fails.
+     * @param user the user to copy
+     * @return a new User with the same values
+     */
+    @Override
+    protected User copyProperty(User user) {
+        return user.copy();
+    }
 
     /**
      * Sets the regular table columns.
@@ -189,16 +170,11 @@ public class UserController extends EditAndCreateAndDeleteController<User>{
     }
 
     /**
-     * Retrieves all users from the database and returns them as an ObservableList.
-     * If an SQLException occurs, returns null.
-     * @return an ObservableList containing all users from the database, or null if an SQLException occurs.
+     * Returns the database manager whose users are shown in the table.
+     * @return the user database manager
      */
     @Override
-    protected ObservableList<User> getAllFromSelectedProperty() {
-        try {
-            return userDatabaseManager.getAllFromProperty();
-        } catch (SQLException sqlException){
-            return null;
-        }
+    protected UserDatabaseManager getDatabaseManager() {
+        return userDatabaseManager;
     }
 }
@@ -2,10 +2,9 @@ package model;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import model.connectionPool.ConnectionPool;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
 
 public class Database {
 
@@ -13,9 +12,21 @@ public class Database {
     public StringProperty database = new SimpleStringProperty();
     public StringProperty username = new SimpleStringProperty();
     public StringProperty password = new SimpleStringProperty();
-    public Connection conn;
+    /**
+     * The most connections of the pool for multi-statement transactions; only the user manager uses it to create a
+     * user in one round trip.
+     */
+    public static final int MULTI_STATEMENT_POOL_SIZE = 2;
+    private ConnectionPool connectionPool;
+    private ConnectionPool multiStatementConnectionPool;
 
-    private Database(){}
+    private Database(){
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            public void run() {
+                Database.getInstance().closeConnectionPools();
+            }
+        });
+    }
 
     private final static Database instance = new Database();
 
@@ -24,7 +35,7 @@ public class Database {
     }
 
     /**
-     * Connects the user to the database.
+     * Connects the user to the database by setting up a connection pool and leasing a first connection from it.
      * @return true if connection is established.
      */
     public boolean connect() {
@@ -33,25 +44,116 @@ public class Database {
         url += "/";
         url += database.get();
         url += "?useSSL=false";
+        // prepare statements on the server, the pooled connections cache them per connection
+        url += "&useServerPrepStmts=true";
+        // send the batches of the database managers as multi-row statements
+        url += "&rewriteBatchedStatements=true";
+        // streams read their rows through a server-side cursor in chunks of the fetch size
+        url += "&useCursorFetch=true";
+
+        // only the connections of this small pool run several statements in one query, so no statement of the other
+        // managers can have a second one stacked onto it
+        ConnectionPool newMultiStatementConnectionPool = new ConnectionPool(url + "&allowMultiQueries=true",
+                username.get(), password.get(), MULTI_STATEMENT_POOL_SIZE, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS,
+                ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+        return connect(new ConnectionPool(url, username.get(), password.get()), newMultiStatementConnectionPool);
+    }
+
+    /**
+     * Connects to the database at the given JDBC URL by setting up a connection pool and leasing a first connection
+     * from it. The benchmarks use it to connect to an embedded database instead of a MySQL server.
+     * @param url the JDBC URL of the database.
+     * @param user the name of the database user.
+     * @param password the password of the database user.
+     * @return true if connection is established.
+     */
+    public boolean connect(String url, String user, String password) {
+        return connect(new ConnectionPool(url, user, password));
+    }
 
+    /**
+     * Connects through the given connection pool by leasing a first connection from it. The load generator uses it
+     * to give every simulated session a connection of its own. The pool is closed if no connection can be leased.
+     * Without a pool for multi-statement transactions, the user manager runs them as JDBC transactions.
+     * @param newConnectionPool the pool of connections to the database.
+     * @return true if connection is established.
+     */
+    public boolean connect(ConnectionPool newConnectionPool) {
+        return connect(newConnectionPool, null);
+    }
+
+    /**
+     * Connects through the given connection pools by leasing a first connection from the first one. Both pools are
+     * closed if no connection can be leased.
+     * @param newConnectionPool the pool of connections to the database.
+     * @param newMultiStatementConnectionPool the pool of connections that allow several statements in one query, or
+     *                                        null if the database does not support them.
+     * @return true if connection is established.
+     */
+    public boolean connect(ConnectionPool newConnectionPool, ConnectionPool newMultiStatementConnectionPool) {
         try {
-            conn = DriverManager.getConnection(url, username.get(), password.get());
-            Runtime.getRuntime().addShutdownHook(new Thread() {
-                public void run() {
-                    try {
-                        Connection conn = Database.getInstance().conn;
-                        if(conn != null){
-                            conn.close();
-                        }
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                    }
-                }
-            });
+            // the first connection only shows that the database can be reached, it goes back to the pool at once
+            newConnectionPool.getConnection().close();
         } catch (SQLException e) {
             e.printStackTrace();
+            newConnectionPool.close();
+            if (newMultiStatementConnectionPool != null) {
+                newMultiStatementConnectionPool.close();
+            }
             return false;
         }
+        closeConnectionPools();
+        connectionPool = newConnectionPool;
+        multiStatementConnectionPool = newMultiStatementConnectionPool;
         return true;
     }
+
+    /**
+     * Leases a connection from the pool. The caller owns the connection until it closes it,
+     * which hands it back to the pool.
+     * @return a connection to the database.
+     * @throws SQLException if the user is not connected or no connection became available in time.
+     */
+    public Connection getConnection() throws SQLException {
+        if (connectionPool == null) {
+            throw new SQLException("Not connected to a database");
+        }
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Leases a connection that runs several statements separated by semicolons in one query, so a transaction can
+     * be sent in one round trip. Only fixed SQL with parameters may be run on it, never SQL built from user input.
+     * @return a connection to the database that allows multi-statement queries.
+     * @throws SQLException if the user is not connected to a MySQL database or no connection became available in time.
+     */
+    public Connection getMultiStatementConnection() throws SQLException {
+        ConnectionPool pool = multiStatementConnectionPool;
+        if (pool == null) {
+            throw new SQLException("The database does not run multi-statement queries");
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * Returns whether {@link #getMultiStatementConnection()} can lease a connection.
+     * @return true if connected to a MySQL database through {@link #connect()}.
+     */
+    public boolean supportsMultiStatements() {
+        return multiStatementConnectionPool != null;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    private void closeConnectionPools() {
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+        if (multiStatementConnectionPool != null) {
+            multiStatementConnectionPool.close();
+        }
+    }
 }
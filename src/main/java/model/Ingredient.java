@@ -1,7 +1,5 @@
 package model;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 /**
 
  The Ingredient class represents an ingredient that can be used in a recipe. It contains information about the name,
@@ -21,19 +19,6 @@ public class Ingredient {
         this.description = description;
         this.unit = unit;
     }
-    /**
-
-     Constructs an Ingredient object by extracting data from the specified ResultSet object.
-     @param rs the ResultSet object containing the data for the Ingredient
-     @throws SQLException if a database access error occurs or the ResultSet object's cursor is before the first row or after the last row
-     */
-    public Ingredient(ResultSet rs) throws SQLException {
-        this.name = rs.getString("name");
-        this.description = rs.getString("description");
-        this.unit = rs.getString("unit");
-
-
-    }
 
     public String getName() {
         return name;
@@ -59,5 +44,13 @@ public class Ingredient {
         this.unit = unit;
     }
 
+    /**
+
+     Creates a copy of this Ingredient object.
 
+     @return a new Ingredient object with the same properties as this one
+     */
+    public Ingredient copy(){
+        return new Ingredient(getName(), getDescription(), getUnit());
+    }
 }
@@ -1,15 +1,11 @@
 package model;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 /**
 
  This class represents a Machine entity, with an id, name, and description.
  It provides methods to get and set these attributes, and a clear method to reset them.
  A Machine can be created with the default constructor, which initializes its attributes to default values,
  or with a constructor that takes an id, name, and description as arguments.
- This class also provides a constructor that takes a ResultSet object as argument and extracts the values of its
- fields from it. The ResultSet object is expected to contain the following fields: "idMachine", "name", and "decription".
 
  */
 public class Machine {
@@ -27,13 +23,6 @@ public class Machine {
         this.description = description;
     }
 
-    public Machine(ResultSet rs) throws SQLException {
-        this.id = rs.getInt("idMachine");
-        this.name = rs.getString("name");
-        this.description = rs.getString("decription");
-
-    }
-
     public int getId() {
         return id;
     }
@@ -63,4 +52,14 @@ public class Machine {
         this.id = Integer.MAX_VALUE;
         this.description = "";
     }
+
+    /**
+
+     Creates a copy of this Machine object.
+
+     @return a new Machine object with the same properties as this one
+     */
+    public Machine copy(){
+        return new Machine(getId(), getName(), getDescription());
+    }
 }
@@ -1,18 +1,18 @@
 package model;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 /**
 
  The Recipe class represents a recipe for making coffee. It contains information such as the name of the recipe,
  the amount of beans and milk needed, the time it takes to brew the coffee, the water pressure required, and an image URL.
+ A recipe that was read from the database also carries its primary key, which stays the same when it is renamed.
  */
 public class Recipe {
     /**
      * The default image URL for a recipe.
      */
     public static final String DEFAULT_IMAGE_URL = "default";
-    private String name, formerName, imageURL;
+    private int id;
+    private String name, imageURL;
     private int brewtime, amountOfBeans, amountOfMilk, waterPressure = 0;
     /**
      * Creates a new Recipe object with default values.
@@ -29,18 +29,13 @@ public class Recipe {
         this.waterPressure = waterPressure;
         this.imageURL = imageURL;
     }
-    /**
-     * Creates a new Recipe object from the given ResultSet object.
-     * @param rs A ResultSet object containing the data for the Recipe.
-     * @throws SQLException If an error occurs while retrieving data from the ResultSet.
-     */
-    public Recipe(ResultSet rs) throws SQLException {
-        this.name = rs.getString("name");
-        this.brewtime = rs.getInt("brewtime");
-        this.amountOfBeans = rs.getInt("amount_beans");
-        this.amountOfMilk = rs.getInt("amount_added_milk");
-        this.waterPressure = rs.getInt("water_pressure");
-        this.imageURL = rs.getString("image");
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
     }
 
     public String getName() {
@@ -51,14 +46,6 @@ public class Recipe {
         this.name = name;
     }
 
-    public String getFormerName() {
-        return formerName;
-    }
-
-    public void setFormerName(String formerName) {
-        this.formerName = formerName;
-    }
-
     public int getBrewtime() {
         return brewtime;
     }
@@ -107,7 +94,19 @@ public class Recipe {
         this.amountOfBeans = Integer.MAX_VALUE;
         this.amountOfMilk = Integer.MAX_VALUE;
         this.waterPressure = Integer.MAX_VALUE;
-        this.formerName = "";
+        this.id = 0;
         this.imageURL = DEFAULT_IMAGE_URL;
     }
+
+    /**
+
+     Creates a copy of this Recipe object.
+
+     @return a new Recipe object with the same properties as this one
+     */
+    public Recipe copy(){
+        Recipe copy = new Recipe(getName(), getBrewtime(), getAmountOfBeans(), getAmountOfMilk(), getWaterPressure(), getImageURL());
+        copy.setId(getId());
+        return copy;
+    }
 }
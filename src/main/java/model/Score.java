@@ -1,7 +1,5 @@
 package model;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 /**
 
  The Score class represents a highscore in the game.
@@ -15,11 +13,6 @@ public class Score {
         this.highscore = highscore;
     }
 
-    public Score(ResultSet resultSet) throws SQLException {
-        this.id = resultSet.getInt("idScore");
-        this.highscore = resultSet.getInt("highscore");
-    }
-
     public int getId() {
         return id;
     }
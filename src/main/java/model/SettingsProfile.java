@@ -1,7 +1,5 @@
 package model;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 /**
 
  The SettingsProfile class represents a user's settings profile, which includes properties such as name, whether the user
@@ -22,21 +20,6 @@ public class SettingsProfile {
         this.fontSize = fontSize;
         this.fontFamily = fontFamily;
     }
-    /**
-     * Creates a new SettingsProfile object based on the specified ResultSet.
-     *
-     * @param resultSet the ResultSet object to create the SettingsProfile from
-     */
-    public SettingsProfile(ResultSet resultSet){
-        try {
-            this.name = resultSet.getString("name");
-            this.inDarkMode = convertIntToBoolean(resultSet.getInt("inDarkMode"));
-            this.fontSize = resultSet.getInt("font_size");
-            this.fontFamily = convertStringToFontFamily(resultSet.getString("font_family"));
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-    }
     /**
      * Creates a new SettingsProfile object with default values.
      */
@@ -77,10 +60,6 @@ public class SettingsProfile {
         }
     }
 
-    private boolean convertIntToBoolean(int integer){
-        return integer != 0;
-    }
-
     public void setInDarkMode(boolean inDarkMode) {
         this.inDarkMode = inDarkMode;
     }
@@ -106,7 +85,7 @@ public class SettingsProfile {
      @param string the string representation of the font family to convert
      @return the FontFamily enum value corresponding to the input string, or Arial if the string is not recognized
      */
-    public FontFamily convertStringToFontFamily(String string){
+    public static FontFamily convertStringToFontFamily(String string){
         switch (string){
             case "ComicSansMS": return FontFamily.ComicSansMS;
             case "TimesNewRoman": return FontFamily.TimesNewRoman;
@@ -0,0 +1,117 @@
+package model;
+
+import model.databaseManager.DatabaseExecutor;
+import model.databaseManager.QueryAccounting;
+import model.databaseManager.SettingsProfileDatabaseManager;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+/**
+
+ The SettingsStore class keeps all settings profiles in memory. It reads every row of the settings table with a single
+ query when the user logs in, and from then on serves the profiles without touching the database, so applying the
+ settings on every pane switch costs no I/O. Saved profiles are updated in memory at once and written to the database
+ in the background, one after another in the order they were saved.
+ <p>
+ Every profile returned by the store is a copy, so callers can change it freely without affecting the store.
+ */
+public class SettingsStore {
+    public static final String CURRENT_PROFILE = "Current";
+    public static final String DEFAULT_PROFILE = "Default";
+
+    private final static SettingsStore instance = new SettingsStore();
+
+    private final SettingsProfileDatabaseManager profileDatabaseManager = new SettingsProfileDatabaseManager();
+    private final Map<String, SettingsProfile> profiles = new LinkedHashMap<>();
+    private boolean loaded;
+    private CompletableFuture<Void> pendingWrites = CompletableFuture.completedFuture(null);
+
+    private SettingsStore() {}
+
+    public static SettingsStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reads all settings profiles from the database and replaces the profiles in memory with them.
+     *
+     * @throws SQLException if there is an error accessing the database
+     */
+    public synchronized void load() throws SQLException {
+        Map<String, SettingsProfile> loadedProfiles = new LinkedHashMap<>();
+        for (SettingsProfile profile : profileDatabaseManager.getAllFromProperty()) {
+            loadedProfiles.put(profile.getName(), profile);
+        }
+        profiles.clear();
+        profiles.putAll(loadedProfiles);
+        loaded = true;
+    }
+
+    /**
+     * Returns a copy of the profile with the given name. The profiles are read from the database only if they were
+     * not loaded yet.
+     *
+     * @param name the name of the profile
+     * @return an Optional containing the profile, or an empty Optional if there is no profile with this name
+     */
+    public synchronized Optional<SettingsProfile> getProfile(String name) {
+        if (!loaded) {
+            try {
+                load();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        return Optional.ofNullable(profiles.get(name)).map(SettingsProfile::copy);
+    }
+
+    /**
+     * Returns a copy of the profile with the settings that are currently applied.
+     *
+     * @return an Optional containing the current settings
+     */
+    public Optional<SettingsProfile> getCurrentSettings() {
+        return getProfile(CURRENT_PROFILE);
+    }
+
+    /**
+     * Returns a copy of the profile with the default settings.
+     *
+     * @return an Optional containing the default settings
+     */
+    public Optional<SettingsProfile> getDefaultSettings() {
+        return getProfile(DEFAULT_PROFILE);
+    }
+
+    /**
+     * Saves the given profile under its name. The profile is updated in memory at once and written to the database in
+     * the background after all profiles saved before it. If the write fails, the error is printed and the profile
+     * stays changed in memory. The write is counted into the {@link QueryAccounting} action that saved the profile.
+     *
+     * @param profile the profile to save
+     * @return a future that completes when the profile is written to the database
+     */
+    public synchronized CompletableFuture<Void> save(SettingsProfile profile) {
+        SettingsProfile savedProfile = profile.copy();
+        profiles.put(savedProfile.getName(), savedProfile);
+        SettingsProfile writtenProfile = savedProfile.copy();
+        QueryAccounting.Action action = QueryAccounting.currentAction();
+        CompletableFuture<Void> write = pendingWrites
+                .handle((result, throwable) -> null)
+                // the previous write can complete on an I/O thread that still runs under the action of that write
+                .thenCompose(ignored -> DatabaseExecutor.runAsync(() -> QueryAccounting.callAs(action, () -> {
+                    profileDatabaseManager.updatePropertyInDB(writtenProfile);
+                    return null;
+                })));
+        write.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                throwable.printStackTrace();
+            }
+        });
+        pendingWrites = write;
+        return write;
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import java.util.Locale;
+/**
+
+ The StartupMetrics class measures how long the application takes from the moment the user logs in until the menu
+ can be used, and until all panes are loaded in the background. The times of the last login are kept behind getters;
+ with the system property {@value #REPORT_PROPERTY} set to {@code true} they are printed when the application exits,
+ together with the restyle times of the {@link ThemeEngine}.
+ */
+public final class StartupMetrics {
+    /**
+     * The system property that prints the times of the last login and of the restyles when the application exits.
+     */
+    public static final String REPORT_PROPERTY = "authoringtool.startupMetrics";
+
+    private static volatile long loginStartedNanos;
+    private static volatile double loginToInteractiveMillis = -1;
+    private static volatile double loginToPanesPreloadedMillis = -1;
+
+    static {
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(StartupMetrics::printReport, "startup-metrics-report"));
+        }
+    }
+
+    private StartupMetrics() {}
+
+    /**
+     * Starts the measurement when the user clicks the login button.
+     */
+    public static void markLoginStarted() {
+        loginStartedNanos = System.nanoTime();
+        loginToInteractiveMillis = -1;
+        loginToPanesPreloadedMillis = -1;
+    }
+
+    /**
+     * Records that the menu is shown and reacts to input.
+     */
+    public static void markInteractive() {
+        if (loginStartedNanos == 0) {
+            return;
+        }
+        loginToInteractiveMillis = millisSinceLogin();
+    }
+
+    /**
+     * Records that all panes of the menu were loaded in the background.
+     */
+    public static void markPanesPreloaded() {
+        if (loginStartedNanos == 0) {
+            return;
+        }
+        loginToPanesPreloadedMillis = millisSinceLogin();
+    }
+
+    /**
+     * Returns the time from the last login until the menu was interactive.
+     *
+     * @return the time in milliseconds, or -1 if it is not known yet
+     */
+    public static double getLoginToInteractiveMillis() {
+        return loginToInteractiveMillis;
+    }
+
+    /**
+     * Returns the time from the last login until all panes of the menu were loaded.
+     *
+     * @return the time in milliseconds, or -1 if it is not known yet
+     */
+    public static double getLoginToPanesPreloadedMillis() {
+        return loginToPanesPreloadedMillis;
+    }
+
+    /**
+     * Prints the times of the last login, or "-1" for the ones that are not known, the time of the last restyle and
+     * the number of restyles that took longer than a frame.
+     */
+    public static void printReport() {
+        System.out.printf(Locale.ROOT, "Login to interactive: %.1f ms%n", loginToInteractiveMillis);
+        System.out.printf(Locale.ROOT, "Login to all panes preloaded: %.1f ms%n", loginToPanesPreloadedMillis);
+        System.out.printf(Locale.ROOT, "Last restyle: %.1f ms, restyles slower than %.1f ms: %d%n",
+                ThemeEngine.getLastRestyleMillis(), ThemeEngine.FRAME_BUDGET_MILLIS, ThemeEngine.getSlowRestyleCount());
+    }
+
+    private static double millisSinceLogin() {
+        return (System.nanoTime() - loginStartedNanos) / 1_000_000.0;
+    }
+}
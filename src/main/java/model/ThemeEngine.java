@@ -0,0 +1,113 @@
+package model;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Parent;
+
+import java.util.EnumMap;
+import java.util.Map;
+/**
+
+ The ThemeEngine class switches the theme, the font family and the font size of a scene without rebuilding its styles
+ from scratch. The light and the dark stylesheet are resolved once; JavaFX parses a stylesheet only the first time its
+ URL is used and reuses it afterwards, so the stylesheet of the root is only replaced when the theme really changes.
+ The font family and the three font sizes of the settings are switched by exchanging a single style class on the
+ root, which the stylesheets define, instead of clearing all style classes and parsing an inline style every time.
+ <p>
+ The time each switch takes to restyle the scene is measured and can be read with {@link #getLastRestyleMillis()};
+ switches that take longer than one frame are counted. Both are part of the report of the {@link StartupMetrics}.
+ The engine has to be used on the JavaFX application thread.
+ */
+public final class ThemeEngine {
+    /**
+     * A restyle that takes longer than this many milliseconds delays a frame and is counted as slow.
+     */
+    public static final double FRAME_BUDGET_MILLIS = 16.7;
+
+    private static final String LIGHT_STYLESHEET = ThemeEngine.class.getResource("/css/stylesheet.css").toExternalForm();
+    private static final String DARK_STYLESHEET = ThemeEngine.class.getResource("/css/darkMode.css").toExternalForm();
+    private static final Map<FontFamily, String> FONT_FAMILY_STYLE_CLASSES = new EnumMap<>(FontFamily.class);
+    private static final Map<Integer, String> FONT_SIZE_STYLE_CLASSES = Map.of(
+            SettingsProfile.SMALL_FONT_SIZE, "rootSmallFontSize",
+            SettingsProfile.MEDIUM_FONT_SIZE, "rootMediumFontSize",
+            SettingsProfile.BIG_FONT_SIZE, "rootBigFontSize");
+
+    static {
+        for (FontFamily fontFamily : FontFamily.values()) {
+            FONT_FAMILY_STYLE_CLASSES.put(fontFamily, "root" + fontFamily);
+        }
+    }
+
+    // read by the report of the StartupMetrics when the application exits
+    private static volatile double lastRestyleMillis;
+    private static volatile int slowRestyleCount;
+
+    private ThemeEngine() {}
+
+    /**
+     * Applies the theme, the font family and the font size of the given profile to the given root and restyles it at
+     * once, so the time the restyle takes can be measured.
+     *
+     * @param root    the root of the scene
+     * @param profile the settings to apply
+     */
+    public static void apply(Parent root, SettingsProfile profile) {
+        long start = System.nanoTime();
+        setStylesheet(root, profile.isInDarkMode() ? DARK_STYLESHEET : LIGHT_STYLESHEET);
+        ObservableList<String> styleClasses = root.getStyleClass();
+        if (!styleClasses.contains("root")) {
+            styleClasses.add("root");
+        }
+        setStyleClass(styleClasses, FONT_FAMILY_STYLE_CLASSES.values(), FONT_FAMILY_STYLE_CLASSES.get(profile.getFontFamily()));
+        String fontSizeStyleClass = FONT_SIZE_STYLE_CLASSES.get(profile.getFontSize());
+        setStyleClass(styleClasses, FONT_SIZE_STYLE_CLASSES.values(), fontSizeStyleClass);
+        // only font sizes without a style class need an inline style
+        String style = fontSizeStyleClass == null ? "-fx-font-size: " + profile.getFontSize() : "";
+        if (!style.equals(root.getStyle())) {
+            root.setStyle(style);
+        }
+        root.applyCss();
+        lastRestyleMillis = (System.nanoTime() - start) / 1_000_000.0;
+        if (lastRestyleMillis > FRAME_BUDGET_MILLIS) {
+            slowRestyleCount++;
+        }
+    }
+
+    /**
+     * Returns how long the last call of {@link #apply(Parent, SettingsProfile)} took to restyle the scene.
+     *
+     * @return the time in milliseconds, or 0 if no theme was applied yet
+     */
+    public static double getLastRestyleMillis() {
+        return lastRestyleMillis;
+    }
+
+    /**
+     * Returns how many calls of {@link #apply(Parent, SettingsProfile)} took longer than {@link #FRAME_BUDGET_MILLIS}.
+     *
+     * @return the number of slow restyles
+     */
+    public static int getSlowRestyleCount() {
+        return slowRestyleCount;
+    }
+
+    private static void setStylesheet(Parent root, String stylesheet) {
+        ObservableList<String> stylesheets = root.getStylesheets();
+        if (stylesheets.size() != 1 || !stylesheets.get(0).equals(stylesheet)) {
+            stylesheets.setAll(stylesheet);
+        }
+    }
+
+    /**
+     * Makes the given style class the only one of its group on the root, without touching the list if it is already.
+     */
+    private static void setStyleClass(ObservableList<String> styleClasses, Iterable<String> group, String styleClass) {
+        for (String other : group) {
+            if (!other.equals(styleClass)) {
+                styleClasses.remove(other);
+            }
+        }
+        if (styleClass != null && !styleClasses.contains(styleClass)) {
+            styleClasses.add(styleClass);
+        }
+    }
+}
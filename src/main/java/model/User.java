@@ -2,7 +2,6 @@ package model;
 
 import model.databaseManager.ScoreDatabaseManager;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Optional;
 
@@ -16,7 +15,7 @@ public class User {
     private int score_id;
     private int highscore = 0;
 
-    private final ScoreDatabaseManager scoreDatabaseManager = new ScoreDatabaseManager();
+    private static final ScoreDatabaseManager scoreDatabaseManager = new ScoreDatabaseManager();
 
     public User(int id, String username, String mail, String password) {
         this.id = id;
@@ -25,12 +24,10 @@ public class User {
         this.password = password;
     }
 
-    public User(ResultSet rs) throws SQLException {
-        this.id = rs.getInt("idUser");
-        this.username = rs.getString("name");
-        this.mail = rs.getString("mail");
-        this.score_id = rs.getInt("Score_idScore");
-        this.password = rs.getString("password");
+    public User(int id, String username, String mail, String password, int score_id, int highscore) {
+        this(id, username, mail, password);
+        this.score_id = score_id;
+        this.highscore = highscore;
     }
 
     public int getId() {
@@ -45,6 +42,10 @@ public class User {
         return score_id;
     }
 
+    public void setScore_id(int score_id) {
+        this.score_id = score_id;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -69,17 +70,33 @@ public class User {
         this.password = password;
     }
 
-    public int getHighscore() throws SQLException {
-        return getHighscoreFromDB();
+    /**
+     * Returns the highscore that was loaded together with the user. It does not access the database, so the table
+     * view can render it for every row; use {@link #refreshHighscore()} to reload it.
+     * @return the cached highscore of the user
+     */
+    public int getHighscore() {
+        return highscore;
     }
 
-    public int getHighscoreFromDB() throws SQLException {
+    /**
+     * Reloads the highscore of the user from the database and caches it.
+     * @return the current highscore of the user, 0 if the user has no score
+     * @throws SQLException if there is an error accessing the database
+     */
+    public int refreshHighscore() throws SQLException {
         Optional<Score> score = scoreDatabaseManager.getScoreById(getScore_id());
-        if (score.isPresent()) {
-            return score.get().getHighscore();
-        } else {
-            return 0;
-        }
+        highscore = score.map(Score::getHighscore).orElse(0);
+        return highscore;
     }
 
+    /**
+
+     Creates a copy of this User object.
+
+     @return a new User object with the same properties as this one
+     */
+    public User copy(){
+        return new User(getId(), getUsername(), getMail(), getPassword(), getScore_id(), highscore);
+    }
 }
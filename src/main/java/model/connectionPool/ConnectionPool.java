@@ -0,0 +1,374 @@
+package model.connectionPool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+
+ A bounded pool of JDBC connections. Connections are leased per operation with {@link #getConnection()} and go back
+ into the pool when the caller closes them. Idle connections are validated before they are handed out again, evicted
+ after {@code idleTimeoutMillis} without use and retired once they are older than {@code maxLifetimeMillis}.
+ Every pooled connection keeps its own cache of prepared statements.
+ The pool also records how long callers had to wait for a connection and how well the statement caches hit.
+ */
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_MAXIMUM_POOL_SIZE = 8;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600_000;
+    public static final long DEFAULT_MAX_LIFETIME_MILLIS = 1_800_000;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    /**
+     * Timeout handed to {@link Connection#isValid(int)} when a connection is validated on borrow.
+     */
+    public static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    /**
+     * Connections that were in use within this window are handed out again without a validation round trip.
+     */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final long EVICTION_INTERVAL_MILLIS = 30_000;
+
+    private final String url, username, password;
+    private final int maximumPoolSize, statementCacheSize;
+    private final long borrowTimeoutMillis, idleTimeoutMillis, maxLifetimeMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionReturned = lock.newCondition();
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private int totalConnections;
+    private boolean closed;
+
+    private final ScheduledExecutorService evictor;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeoutCount = new LongAdder();
+    private final LongAdder totalBorrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    /**
+     * Creates a pool with the default size and timeouts.
+     *
+     * @param url      the JDBC url of the database
+     * @param username the database user
+     * @param password the password of the database user
+     */
+    public ConnectionPool(String url, String username, String password) {
+        this(url, username, password, DEFAULT_MAXIMUM_POOL_SIZE, DEFAULT_BORROW_TIMEOUT_MILLIS,
+                DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_MAX_LIFETIME_MILLIS, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a pool. No connection is opened until the first one is borrowed.
+     *
+     * @param url                 the JDBC url of the database
+     * @param username            the database user
+     * @param password            the password of the database user
+     * @param maximumPoolSize     the maximum number of open connections, leased and idle together
+     * @param borrowTimeoutMillis how long {@link #getConnection()} waits for a free connection before it fails
+     * @param idleTimeoutMillis   how long a connection may stay unused before it is closed
+     * @param maxLifetimeMillis   how long a connection may live before it is retired
+     * @param statementCacheSize  how many prepared statements each connection keeps cached
+     */
+    public ConnectionPool(String url, String username, String password, int maximumPoolSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+                          int statementCacheSize) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("The pool needs room for at least one connection");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maximumPoolSize = maximumPoolSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leases a connection from the pool. Closing the returned connection hands it back to the pool.
+     * If every connection is in use, the call waits up to {@code borrowTimeoutMillis} for one to be returned.
+     *
+     * @return a validated connection that belongs to the caller until it is closed
+     * @throws SQLException if no connection could be opened or the wait timed out
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        try {
+            while (true) {
+                PooledConnection candidate = takeIdleConnectionOrReserveSlot(deadline);
+                if (candidate == null) {
+                    return openConnection().lease();
+                }
+                if (isUsable(candidate)) {
+                    return candidate.lease();
+                }
+                discard(candidate);
+            }
+        } finally {
+            recordBorrowWait(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the most recently used idle connection, or {@code null} if the caller may open a new one.
+     * Blocks while the pool is exhausted.
+     */
+    private PooledConnection takeIdleConnectionOrReserveSlot(long deadline) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("The connection pool has been closed");
+                }
+                PooledConnection idleConnection = idleConnections.pollFirst();
+                if (idleConnection != null) {
+                    return idleConnection;
+                }
+                if (totalConnections < maximumPoolSize) {
+                    totalConnections++;
+                    return null;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    borrowTimeoutCount.increment();
+                    throw new SQLTransientConnectionException("No database connection became available within "
+                            + borrowTimeoutMillis + " ms (pool size " + maximumPoolSize + ")");
+                }
+                connectionReturned.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", interruptedException);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a new physical connection for a slot that has already been reserved.
+     */
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            return new PooledConnection(this, DriverManager.getConnection(url, username, password), statementCacheSize);
+        } catch (SQLException | RuntimeException exception) {
+            releaseSlot();
+            throw exception;
+        }
+    }
+
+    private boolean isUsable(PooledConnection connection) {
+        long now = System.currentTimeMillis();
+        if (isExpired(connection, now)) {
+            return false;
+        }
+        if (now - connection.getLastUsedMillis() < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return connection.getPhysicalConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException sqlException) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection connection, long now) {
+        return now - connection.getCreatedMillis() >= maxLifetimeMillis
+                || now - connection.getLastUsedMillis() >= idleTimeoutMillis;
+    }
+
+    /**
+     * Called by {@link PooledConnection} when a lease is closed. Puts the connection back into the idle queue or
+     * closes it if it cannot be reused.
+     */
+    void release(PooledConnection connection) {
+        if (!connection.resetForReuse()) {
+            discard(connection);
+            return;
+        }
+        lock.lock();
+        try {
+            if (!closed && System.currentTimeMillis() - connection.getCreatedMillis() < maxLifetimeMillis) {
+                idleConnections.addFirst(connection);
+                connectionReturned.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(connection);
+    }
+
+    private void discard(PooledConnection connection) {
+        connection.closePhysicalConnection();
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes idle connections that were unused for longer than the idle timeout or outlived the maximum lifetime.
+     */
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> iterator = idleConnections.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection connection = iterator.next();
+                if (isExpired(connection, now)) {
+                    iterator.remove();
+                    evicted.add(connection);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::discard);
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.increment();
+        totalBorrowWaitNanos.add(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void recordStatementCacheHit() {
+        statementCacheHits.increment();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.increment();
+    }
+
+    void recordStatementCacheEviction() {
+        statementCacheEvictions.increment();
+    }
+
+    /**
+     * Closes all idle connections and rejects further borrows. Leased connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> idle;
+        lock.lock();
+        try {
+            closed = true;
+            idle = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        idle.forEach(this::discard);
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveConnections() {
+        lock.lock();
+        try {
+            return totalConnections - idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getBorrowTimeoutCount() {
+        return borrowTimeoutCount.sum();
+    }
+
+    /**
+     * Returns the average time callers of {@link #getConnection()} spent waiting, including validation and connect time.
+     *
+     * @return the average borrow wait in milliseconds
+     */
+    public double getAverageBorrowWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0 : totalBorrowWaitNanos.sum() / (borrows * 1_000_000.0);
+    }
+
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, max=%d, borrows=%d, timeouts=%d, avgWait=%.2fms, maxWait=%.2fms, "
+                        + "statementCacheHits=%d, statementCacheMisses=%d]",
+                getActiveConnections(), getIdleConnections(), maximumPoolSize, getBorrowCount(),
+                getBorrowTimeoutCount(), getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(),
+                getStatementCacheHits(), getStatementCacheMisses());
+    }
+}
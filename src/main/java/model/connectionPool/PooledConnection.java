@@ -0,0 +1,158 @@
+package model.connectionPool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+
+ A physical connection owned by a {@link ConnectionPool}. Every borrow hands out a fresh {@link Connection} proxy
+ around the physical connection. Closing that proxy closes the statements the borrower left open and returns the
+ physical connection to the pool instead of closing it. Prepared statements are served from a
+ {@link StatementCache} that lives as long as the physical connection.
+ */
+class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physicalConnection;
+    private final long createdMillis;
+    private volatile long lastUsedMillis;
+
+    /**
+     * Statements created through the current lease, closed when the lease ends.
+     */
+    private final List<Statement> openStatements = new ArrayList<>();
+    private final StatementCache statementCache;
+
+    PooledConnection(ConnectionPool pool, Connection physicalConnection, int statementCacheSize) {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.statementCache = new StatementCache(pool, physicalConnection, statementCacheSize);
+        this.createdMillis = System.currentTimeMillis();
+        this.lastUsedMillis = createdMillis;
+    }
+
+    Connection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    /**
+     * Creates the connection handle given to a borrower.
+     *
+     * @return a connection proxy that returns this connection to the pool when it is closed
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease());
+    }
+
+    /**
+     * Brings the physical connection back to a clean state after a lease: closes left-over statements (cached ones
+     * are checked back into the statement cache) and rolls back
+     * an unfinished transaction.
+     *
+     * @return true if the connection can be handed out again
+     */
+    boolean resetForReuse() {
+        lastUsedMillis = System.currentTimeMillis();
+        try {
+            for (Statement statement : openStatements) {
+                statement.close();
+            }
+            openStatements.clear();
+            if (physicalConnection.isClosed()) {
+                return false;
+            }
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException sqlException) {
+            return false;
+        }
+    }
+
+    void closePhysicalConnection() {
+        statementCache.closeAll();
+        try {
+            physicalConnection.close();
+        } catch (SQLException sqlException) {
+            sqlException.printStackTrace();
+        }
+    }
+
+    /**
+     * The handler behind one borrowed {@link Connection}. After {@code close()} the handle is dead, so a caller that
+     * keeps a reference cannot use a connection that already belongs to someone else.
+     */
+    private class Lease implements InvocationHandler {
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physicalConnection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + physicalConnection;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("The connection has already been returned to the pool");
+            }
+            if (isCacheablePrepare(method, args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                PreparedStatement statement = statementCache.checkout((String) args[0], autoGeneratedKeys);
+                openStatements.add(statement);
+                return statement;
+            }
+            Object result;
+            try {
+                result = method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException invocationTargetException) {
+                throw invocationTargetException.getCause();
+            }
+            if (result instanceof Statement) {
+                openStatements.add((Statement) result);
+            }
+            return result;
+        }
+
+        /**
+         * Only the plain {@code prepareStatement(sql)} and {@code prepareStatement(sql, autoGeneratedKeys)} variants
+         * are cached. Statements with a custom result set type or concurrency are prepared fresh every time.
+         */
+        private boolean isCacheablePrepare(Method method, Object[] args) {
+            if (!method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            return args.length == 1 || (args.length == 2 && method.getParameterTypes()[1] == int.class);
+        }
+    }
+}
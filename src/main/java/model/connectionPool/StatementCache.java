@@ -0,0 +1,169 @@
+package model.connectionPool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+
+ An LRU cache of prepared statements that belongs to one physical connection. Statements are keyed by their SQL text
+ (and whether generated keys were requested), so a manager that prepares the same SQL again gets the already parsed
+ statement back. Closing a statement handed out by the cache only checks it back in; the physical statement stays
+ open until it is evicted or the connection is closed.
+ */
+class StatementCache {
+    private static final String GENERATED_KEYS_SUFFIX = "\u0000RETURN_GENERATED_KEYS";
+
+    private final ConnectionPool pool;
+    private final Connection physicalConnection;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(ConnectionPool pool, Connection physicalConnection, int maximumSize) {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > maximumSize) {
+                    eldest.getValue().evict();
+                    pool.recordStatementCacheEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one if it is not in use.
+     *
+     * @param sql               the SQL text of the statement
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     * @return a statement handle whose {@code close()} checks the statement back into the cache
+     * @throws SQLException if the statement could not be prepared
+     */
+    PreparedStatement checkout(String sql, int autoGeneratedKeys) throws SQLException {
+        boolean returnGeneratedKeys = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS;
+        String key = returnGeneratedKeys ? sql + GENERATED_KEYS_SUFFIX : sql;
+        CachedStatement cachedStatement = statements.get(key);
+        if (cachedStatement != null && !cachedStatement.inUse) {
+            pool.recordStatementCacheHit();
+            return cachedStatement.checkout();
+        }
+        pool.recordStatementCacheMiss();
+        PreparedStatement physicalStatement = returnGeneratedKeys
+                ? physicalConnection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : physicalConnection.prepareStatement(sql);
+        if (cachedStatement != null) {
+            // the cached one is still open in the current operation, so this one is not cached
+            return physicalStatement;
+        }
+        cachedStatement = new CachedStatement(physicalStatement);
+        statements.put(key, cachedStatement);
+        return cachedStatement.checkout();
+    }
+
+    /**
+     * Closes every cached statement. Called before the physical connection is closed.
+     */
+    void closeAll() {
+        for (CachedStatement cachedStatement : new ArrayList<>(statements.values())) {
+            cachedStatement.evict();
+        }
+        statements.clear();
+    }
+
+    /**
+     * A physical statement in the cache together with its checkout state.
+     */
+    private static class CachedStatement {
+        private final PreparedStatement physicalStatement;
+        private boolean inUse, evicted;
+
+        CachedStatement(PreparedStatement physicalStatement) {
+            this.physicalStatement = physicalStatement;
+        }
+
+        PreparedStatement checkout() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Checkout());
+        }
+
+        void checkin() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                physicalStatement.clearParameters();
+                physicalStatement.clearBatch();
+            } catch (SQLException sqlException) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physicalStatement.close();
+            } catch (SQLException sqlException) {
+                sqlException.printStackTrace();
+            }
+        }
+
+        /**
+         * The handler behind one checkout of a cached statement. Like a connection lease, the handle is dead once it
+         * has been closed.
+         */
+        private class Checkout implements InvocationHandler {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            checkin();
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || physicalStatement.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Cached " + physicalStatement;
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("The statement has already been closed");
+                }
+                try {
+                    return method.invoke(physicalStatement, args);
+                } catch (InvocationTargetException invocationTargetException) {
+                    throw invocationTargetException.getCause();
+                }
+            }
+        }
+    }
+}
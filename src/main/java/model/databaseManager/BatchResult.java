@@ -0,0 +1,74 @@
+package model.databaseManager;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+
+ The outcome of a batch operation of a database manager. A batch runs in a single transaction: it is committed if
+ every row succeeded and rolled back otherwise. In the second case the failures name every row that was rejected by
+ the database together with the reason.
+ @param <T> the type of the properties in the batch
+ */
+public class BatchResult<T> {
+    private final int size;
+    private final boolean committed;
+    private final List<Failure<T>> failures;
+
+    BatchResult(int size, List<Failure<T>> failures) {
+        this.size = size;
+        this.committed = failures.isEmpty();
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Returns the number of properties in the batch.
+     * @return the number of properties in the batch
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns whether the transaction of the batch was committed.
+     * @return true if every row succeeded and the changes were committed, false if they were rolled back
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Returns the number of rows that were written to the database.
+     * @return the size of the batch if it was committed, 0 otherwise
+     */
+    public int getSucceededCount() {
+        return committed ? size : 0;
+    }
+
+    public List<Failure<T>> getFailures() {
+        return failures;
+    }
+
+    /**
+     * A single row of a batch that the database rejected.
+     * @param <T> the type of the property
+     */
+    public static class Failure<T> {
+        private final T property;
+        private final SQLException cause;
+
+        Failure(T property, SQLException cause) {
+            this.property = property;
+            this.cause = cause;
+        }
+
+        public T getProperty() {
+            return property;
+        }
+
+        public SQLException getCause() {
+            return cause;
+        }
+    }
+}
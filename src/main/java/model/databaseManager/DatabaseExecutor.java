@@ -0,0 +1,88 @@
+package model.databaseManager;
+
+import model.connectionPool.ConnectionPool;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+
+ The dedicated I/O executor that runs the asynchronous operations of the database managers, so SQL never runs on the
+ JavaFX application thread. It has as many threads as the connection pool has connections and uses daemon threads,
+ so a pending query never keeps the application alive. An {@link SQLException} thrown by an operation completes the
+ returned future exceptionally. Every operation runs under the {@link QueryAccounting.Action} that was current when it
+ was submitted, so its queries are counted into the action of the user interface that started it.
+ */
+public final class DatabaseExecutor {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(ConnectionPool.DEFAULT_MAXIMUM_POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "database-io-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DatabaseExecutor() {}
+
+    /**
+     * A database operation that produces a result.
+     *
+     * @param <R> the type of the result
+     */
+    @FunctionalInterface
+    public interface Query<R> {
+        R get() throws SQLException;
+    }
+
+    /**
+     * A database operation without a result.
+     */
+    @FunctionalInterface
+    public interface Update {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Runs the given query on the I/O executor.
+     *
+     * @param query the query to run
+     * @param <R>   the type of the query result
+     * @return a future that completes with the result of the query
+     */
+    public static <R> CompletableFuture<R> supplyAsync(Query<R> query) {
+        QueryAccounting.Action action = QueryAccounting.currentAction();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return QueryAccounting.callAs(action, query);
+            } catch (SQLException sqlException) {
+                throw new CompletionException(sqlException);
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs the given update on the I/O executor.
+     *
+     * @param update the update to run
+     * @return a future that completes when the update is done
+     */
+    public static CompletableFuture<Void> runAsync(Update update) {
+        return supplyAsync(() -> {
+            update.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task of a database manager on the I/O executor that handles its errors itself.
+     *
+     * @param task the task to run
+     */
+    static void execute(Runnable task) {
+        QueryAccounting.Action action = QueryAccounting.currentAction();
+        executor.execute(() -> QueryAccounting.runAs(action, task));
+    }
+}
@@ -1,67 +1,118 @@
 package model.databaseManager;
 
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import model.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
 
  An abstract class that provides a common interface for managing a specific type of object
 
- in a database. The class uses a {@link Connection} object to communicate with the database,
+ in a database. The class leases a {@link Connection} from the connection pool for every operation,
 
  and defines a common set of methods for retrieving and manipulating data.
 
+ Every operation prepares its own statement and closes it together with its result set, and a manager keeps no state
+ of a single operation, so one manager can be used by any number of threads at once.
+
  @param <T> the type of object that is managed by this {@code DatabaseManager}
  */
  public abstract class DatabaseManager<T> {
- /**
-  The connection object used to communicate with the database.
+/**
+ The number of rows the driver fetches from the database at once while a stream is read, if no other fetch size is given.
  */
-private final Connection connection;
+public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
 
 /**
- The prepared statement object used to execute queries against the database.
+ The SQL states of the errors MySQL and H2 report if a table does not exist.
  */
-private PreparedStatement stmt;
+private static final Set<String> TABLE_NOT_FOUND_SQL_STATES = Set.of("42S02", "42S04");
 
 /**
- Constructs a new {@code DatabaseManager} object with a connection to the database.
- The connection is retrieved from a {@link Database} object.
+ The error code MySQL and the SQL state H2 report if a row would duplicate the value of a unique index.
  */
-public DatabaseManager() {
-        this.connection = Database.getInstance().conn;
-        }
+private static final int DUPLICATE_KEY_ERROR_CODE = 1062;
+private static final String DUPLICATE_KEY_SQL_STATE = "23505";
 
 /**
- Returns the {@link Connection} object used by this {@code DatabaseManager} to communicate
- with the database.
- @return the {@code Connection} object
+ Leases a {@link Connection} from the connection pool of the {@link Database}. Every operation of a
+ {@code DatabaseManager} leases its own connection and closes it when it is done, which hands the
+ connection back to the pool. While the {@link QueryAccounting} is turned on, the connection counts its queries into
+ the current action.
+ @return the leased {@code Connection}
+ @throws SQLException if no connection could be leased from the pool
  */
-protected Connection getConnection() {
-        return connection;
+protected Connection getConnection() throws SQLException {
+        return QueryAccounting.instrument(Database.getInstance().getConnection());
         }
 
 /**
- Returns the {@link PreparedStatement} object used by this {@code DatabaseManager} to execute
- queries against the database.
- @return the {@code PreparedStatement} object
+ Leases a {@link Connection} that may run several statements separated by semicolons in one query, see
+ {@link Database#getMultiStatementConnection()}. Only fixed SQL with parameters may be run on it.
+ @return the leased {@code Connection}
+ @throws SQLException if the database does not support it or no connection could be leased
  */
-protected PreparedStatement getStmt() {
-        return stmt;
+protected Connection getMultiStatementConnection() throws SQLException {
+        return QueryAccounting.instrument(Database.getInstance().getMultiStatementConnection());
         }
 
 /**
- Sets the {@link PreparedStatement} object used by this {@code DatabaseManager} to execute
- queries against the database.
- @param stmt the {@code PreparedStatement} object to set
+ Returns the SQL query that selects all objects of type {@code T} from the database.
+ @return the SQL query
  */
-protected void setStmt(PreparedStatement stmt) {
-        this.stmt = stmt;
-        }
+    protected abstract String getSelectAllStatement();
+
+/**
+ Returns the mapper that creates objects of type {@code T} from the rows of the {@link #getSelectAllStatement()} query.
+ It is compiled for every result set, so the columns are read by index.
+ @return the row mapper
+ */
+    protected abstract IndexedRowMapper<T> getRowMapper();
+
+/**
+ Returns the query the table views read their pages of objects with. It selects only the columns a table shows, the
+ key column and the columns of the filters, so a page does not transfer the columns only an edit needs. By default it
+ is the {@link #getSelectAllStatement()} query.
+ @return the SQL query
+ */
+    protected String getListSelectStatement() {
+        return getSelectAllStatement();
+    }
+
+/**
+ Returns the mapper for the rows of the {@link #getListSelectStatement()} query. The objects it creates lack the
+ columns the query does not select.
+ @return the row mapper
+ */
+    protected IndexedRowMapper<T> getListRowMapper() {
+        return getRowMapper();
+    }
+
+/**
+ Returns the SQL expression of a unique column of the {@link #getSelectAllStatement()} query. Pages of rows are
+ ordered by it and start after the key of the last row of the page before.
+ @return the SQL expression of the key column
+ */
+    protected abstract String getKeyColumn();
+
+/**
+ Returns the value of the key column of the given object.
+ @param property the object
+ @return the value of the key column
+ */
+    protected abstract Object getKey(T property);
 
 /**
  Retrieves all objects of type {@code T} from the database and returns them as an
@@ -69,5 +120,399 @@ protected void setStmt(PreparedStatement stmt) {
  @return an {@code ObservableList} of all objects of type {@code T} in the database
  @throws SQLException if an error occurs while communicating with the database
  */
-    public abstract ObservableList<T> getAllFromProperty() throws SQLException;
+    public ObservableList<T> getAllFromProperty() throws SQLException {
+        ObservableList<T> properties = FXCollections.observableArrayList();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(getSelectAllStatement())) {
+            try (ResultSet rs = statement.executeQuery()) {
+                RowMapper<T> rowMapper = getRowMapper().compile(rs);
+                while (rs.next()) {
+                    properties.add(rowMapper.mapRow(rs));
+                }
+                return properties;
+            }
+        }
+    }
+
+/**
+ Retrieves all objects of type {@code T} on the {@link DatabaseExecutor} instead of the calling thread.
+ @return a future that completes with an {@code ObservableList} of all objects of type {@code T} in the database
+ */
+    public CompletableFuture<ObservableList<T>> getAllFromPropertyAsync() {
+        return DatabaseExecutor.supplyAsync(this::getAllFromProperty);
+    }
+
+/**
+ Streams all objects of type {@code T} from the database, fetching {@link #DEFAULT_STREAM_FETCH_SIZE} rows at a time.
+ @return a publisher of all objects of type {@code T} in the database
+ @see #streamAllFromProperty(int)
+ */
+    public Flow.Publisher<T> streamAllFromProperty() {
+        return streamAllFromProperty(DEFAULT_STREAM_FETCH_SIZE);
+    }
+
+/**
+ Streams all objects of type {@code T} from the database. Unlike {@link #getAllFromProperty()} the rows are not
+ collected in a list: every subscriber reads them from its own result set while it has outstanding demand, so a
+ stream can process tables of any size in constant heap. Each subscription holds a pooled connection until the stream
+ completes, fails or is cancelled.
+ @param fetchSize the number of rows the driver fetches from the database at once; with MySQL
+ {@link Integer#MIN_VALUE} streams the rows one by one over the connection instead of using a server-side cursor
+ @return a publisher of all objects of type {@code T} in the database
+ */
+    public Flow.Publisher<T> streamAllFromProperty(int fetchSize) {
+        if (fetchSize < 0 && fetchSize != Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("The fetch size has to be positive or Integer.MIN_VALUE");
+        }
+        return new ResultSetPublisher<>(this::getConnection, getSelectAllStatement(), fetchSize, getRowMapper());
+    }
+
+/**
+ Returns the columns the objects of type {@code T} can be sorted by in the database.
+ @return the sortable columns; empty if the objects can only be read in the order of the key column
+ */
+    public List<PageQuery.SortColumn<T>> getSortColumns() {
+        return List.of();
+    }
+
+/**
+ Returns the filters the objects of type {@code T} can be read with.
+ @return the filters; empty if the objects cannot be filtered
+ */
+    public List<PageQuery.Filter> getFilters() {
+        return List.of();
+    }
+
+/**
+ Returns the tables the {@link #getSelectAllStatement()} query reads. Their entries in the {@code Table_Version}
+ table tell whether the objects of type {@code T} changed, see {@link #getVersion()}.
+ @return the tables; empty if the objects have no version and are always read again
+ */
+    protected List<String> getVersionedTables() {
+        return List.of();
+    }
+
+/**
+ Reads the version of the objects of type {@code T}, which consists of the versions of all
+ {@link #getVersionedTables() tables} they are read from. Triggers in the database increase the version of a table
+ with every written row, so as long as the version stays equal, the objects have not changed. Reading it is a lookup
+ of one row per table, which is much cheaper than reading the objects again.
+ @return the version, or null if it is unknown because the manager has no versioned tables or the database has no
+ {@code Table_Version} table
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public List<Long> getVersion() throws SQLException {
+        List<String> tables = getVersionedTables();
+        if (tables.isEmpty()) {
+            return null;
+        }
+        String sql = "SELECT `table_name`, `version` FROM Table_Version WHERE `table_name` IN ("
+                + String.join(", ", Collections.nCopies(tables.size(), "?")) + ")";
+        // a table without a row was never written since the triggers were created
+        List<Long> version = new ArrayList<>(Collections.nCopies(tables.size(), 0L));
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < tables.size(); i++) {
+                statement.setString(i + 1, tables.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    version.set(tables.indexOf(rs.getString(1)), rs.getLong(2));
+                }
+            }
+        } catch (SQLException sqlException) {
+            if (TABLE_NOT_FOUND_SQL_STATES.contains(sqlException.getSQLState())) {
+                return null;
+            }
+            throw sqlException;
+        }
+        return version;
+    }
+
+/**
+ Reads the version of the objects of type {@code T} on the {@link DatabaseExecutor}, see {@link #getVersion()}.
+ @return a future that completes with the version, or with null if it is unknown
+ */
+    public CompletableFuture<List<Long>> getVersionAsync() {
+        return DatabaseExecutor.supplyAsync(this::getVersion);
+    }
+
+/**
+ Checks whether a write failed because a unique index of the database rejected it, for example because the name of
+ a recipe is already taken. The managers do not look a name up before they write it but rely on the unique indexes,
+ so this is how a duplicate name is detected. The causes of the given error are checked as well, so the error of an
+ asynchronous write can be passed as it is.
+ @param throwable the error of the failed write
+ @return true if the write would have duplicated the value of a unique index
+ */
+    public static boolean isDuplicateKey(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (sqlException.getErrorCode() == DUPLICATE_KEY_ERROR_CODE || DUPLICATE_KEY_SQL_STATE.equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+/**
+ Counts the objects of type {@code T} in the database.
+ @return the number of objects of type {@code T} in the database
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public int countAll() throws SQLException {
+        return countAll(PageQuery.all());
+    }
+
+/**
+ Counts the objects of type {@code T} in the database that match the filter of the given query.
+ @param query the query whose filter is applied
+ @return the number of matching objects
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public int countAll(PageQuery<T> query) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM (" + getListSelectStatement()
+                + (query.getFilter() == null ? "" : " WHERE " + query.getFilter().getCondition())
+                + ") AS counted";
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (query.getFilter() != null) {
+                statement.setObject(1, query.getFilterParameter());
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                int count = rs.getInt(1);
+                return count;
+            }
+        }
+    }
+
+/**
+ Retrieves one page of the objects of type {@code T} that match the filter of the given query, in the order of the
+ query. The order always ends with the {@link #getKeyColumn() key column}, so it is unique and a page can start right
+ after the last object of the page before.
+ @param query the order and the filter of the objects
+ @param afterKeyset the page starts after the object with this keyset, see {@link #getKeyset(PageQuery, Object)};
+ null to start at the first object
+ @param offset the number of objects after the start that are skipped; 0 for pure keyset pagination
+ @param pageSize the maximum number of objects in the page
+ @return the objects of the page
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public List<T> getPage(PageQuery<T> query, Object[] afterKeyset, int offset, int pageSize) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        addOrderColumns(query, columns, descending);
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (query.getFilter() != null) {
+            conditions.add(query.getFilter().getCondition());
+            parameters.add(query.getFilterParameter());
+        }
+        if (afterKeyset != null) {
+            conditions.add(createKeysetCondition(columns, descending, afterKeyset, parameters));
+        }
+
+        StringBuilder sql = new StringBuilder(getListSelectStatement());
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i)).append(descending.get(i) ? " DESC" : " ASC");
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        parameters.add(pageSize);
+        parameters.add(offset);
+
+        List<T> page = new ArrayList<>(pageSize);
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                RowMapper<T> rowMapper = getListRowMapper().compile(rs);
+                while (rs.next()) {
+                    page.add(rowMapper.mapRow(rs));
+                }
+                return page;
+            }
+        }
+    }
+
+/**
+ Reads the given object again by its key, for example after it was written, if it matches the filter of the given
+ query. Like a page, it is read with the {@link #getListSelectStatement()} query.
+ @param query the query whose filter the object has to match
+ @param property the object
+ @return an Optional containing the object as it is stored in the database, or an empty Optional if it does not
+ exist or does not match the filter
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public Optional<T> rereadProperty(PageQuery<T> query, T property) throws SQLException {
+        String sql = getListSelectStatement() + " WHERE "
+                + (query.getFilter() == null ? "" : query.getFilter().getCondition() + " AND ")
+                + getKeyColumn() + " = ?";
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (query.getFilter() != null) {
+                statement.setObject(index++, query.getFilterParameter());
+            }
+            statement.setObject(index, getKey(property));
+            try (ResultSet rs = statement.executeQuery()) {
+                Optional<T> reread = rs.next() ? Optional.of(getListRowMapper().compile(rs).mapRow(rs)) : Optional.empty();
+                return reread;
+            }
+        }
+    }
+
+/**
+ Reads all columns of the given object by its key, for example to edit an object a table view read with the
+ {@link #getListSelectStatement()} query. If the table views read all columns anyway, the given object is returned
+ without a query.
+ @param property the object
+ @return an Optional containing the object with all its columns, or an empty Optional if it does not exist
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public Optional<T> getFullProperty(T property) throws SQLException {
+        if (getListSelectStatement().equals(getSelectAllStatement())) {
+            return Optional.of(property);
+        }
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(getSelectAllStatement() + " WHERE " + getKeyColumn() + " = ?")) {
+            statement.setObject(1, getKey(property));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(getRowMapper().compile(rs).mapRow(rs)) : Optional.empty();
+            }
+        }
+    }
+
+/**
+ Reads all columns of the given object on the {@link DatabaseExecutor}, see {@link #getFullProperty(Object)}.
+ @param property the object
+ @return a future that completes with the object with all its columns, or with an empty Optional if it does not exist
+ */
+    public CompletableFuture<Optional<T>> getFullPropertyAsync(T property) {
+        return DatabaseExecutor.supplyAsync(() -> getFullProperty(property));
+    }
+
+/**
+ Returns the position of the given object among the objects that match the filter of the given query, in the order of
+ the query, by counting the objects that come before it. The count can use the same indexes as a page.
+ @param query the order and the filter of the objects
+ @param property the object, which has to match the filter
+ @return the index of the object, or -1 if it cannot be determined because one of its sort values is null
+ @throws SQLException if an error occurs while communicating with the database
+ */
+    public int getPosition(PageQuery<T> query, T property) throws SQLException {
+        Object[] keyset = getKeyset(query, property);
+        if (keyset == null) {
+            return -1;
+        }
+        List<String> columns = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        addOrderColumns(query, columns, descending);
+        // the objects before it are the ones that would come after it in the reversed order
+        List<Boolean> reversed = new ArrayList<>();
+        for (Boolean columnDescending : descending) {
+            reversed.add(!columnDescending);
+        }
+
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM (").append(getListSelectStatement()).append(" WHERE ");
+        if (query.getFilter() != null) {
+            sql.append(query.getFilter().getCondition()).append(" AND ");
+            parameters.add(query.getFilterParameter());
+        }
+        sql.append(createKeysetCondition(columns, reversed, keyset, parameters)).append(") AS counted");
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                int position = rs.getInt(1);
+                return position;
+            }
+        }
+    }
+
+/**
+ Adds the columns of the order of the given query and their directions to the given lists, followed by the key column.
+ */
+    private void addOrderColumns(PageQuery<T> query, List<String> columns, List<Boolean> descending) {
+        for (PageQuery.Order<T> order : query.getOrders()) {
+            columns.add(order.getColumn().getSqlExpression());
+            descending.add(order.isDescending());
+        }
+        // the key follows the direction of the first column, so an index on both can be scanned in one direction
+        columns.add(getKeyColumn());
+        descending.add(!descending.isEmpty() && descending.get(0));
+    }
+
+/**
+ Returns the values of the order of the given query for one object, which a following page can start after.
+ @param query the query the object was read with
+ @param property the object
+ @return the values of the sort columns followed by the key, or null if one of them is null, because SQL cannot
+ compare with null; a page after such an object has to be read with an offset
+ */
+    public Object[] getKeyset(PageQuery<T> query, T property) {
+        List<PageQuery.Order<T>> orders = query.getOrders();
+        Object[] keyset = new Object[orders.size() + 1];
+        for (int i = 0; i < orders.size(); i++) {
+            keyset[i] = orders.get(i).getColumn().getValue(property);
+        }
+        keyset[orders.size()] = getKey(property);
+        for (Object value : keyset) {
+            if (value == null) {
+                return null;
+            }
+        }
+        return keyset;
+    }
+
+/**
+ Creates the condition for the objects that come after the given keyset in the given order, for example
+ {@code (a > ? OR (a = ? AND b > ?))}.
+ */
+    private String createKeysetCondition(List<String> columns, List<Boolean> descending, Object[] keyset, List<Object> parameters) {
+        List<String> alternatives = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            List<String> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(columns.get(j) + " = ?");
+                parameters.add(keyset[j]);
+            }
+            terms.add(columns.get(i) + (descending.get(i) ? " < ?" : " > ?"));
+            parameters.add(keyset[i]);
+            alternatives.add(terms.size() == 1 ? terms.get(0) : "(" + String.join(" AND ", terms) + ")");
+        }
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+/**
+ Retrieves all objects of type {@code T} as a {@link PagedObservableList} that only loads the rows that are shown.
+ Counting the objects and loading the first page runs on the {@link DatabaseExecutor}.
+ @return a future that completes with the paged list
+ */
+    public CompletableFuture<PagedObservableList<T>> getAllFromPropertyPagedAsync() {
+        return getAllFromPropertyPagedAsync(PageQuery.all());
+    }
+
+/**
+ Retrieves the objects of type {@code T} that match the filter of the given query, in the order of the query, as a
+ {@link PagedObservableList} that only loads the rows that are shown.
+ @param query the order and the filter of the objects
+ @return a future that completes with the paged list
+ */
+    public CompletableFuture<PagedObservableList<T>> getAllFromPropertyPagedAsync(PageQuery<T> query) {
+        return PagedObservableList.load(this, query, PagedObservableList.DEFAULT_PAGE_SIZE, PagedObservableList.DEFAULT_MAXIMUM_CACHED_PAGES);
+    }
 }
@@ -1,15 +1,51 @@
 package model.databaseManager;
 
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
 
  An abstract class representing a Database Manager with Edit capabilities for a specific type of object T.
  This class extends the DatabaseManager abstract class and adds an abstract method for editing a property in the database.
- Subclasses must implement the updatePropertyInDB method to handle the update operation for a specific property.
+ Subclasses must implement the updatePropertyInDB method to handle the update operation for a specific property,
+ and the updateAll method to update many properties with one JDBC batch.
  @param <T> The type of object that this DatabaseManagerWithEdit manages.
  */
  public abstract class DatabaseManagerWithEdit<T> extends DatabaseManager<T>{
+ /**
+ The number of rows sent to the database per JDBC batch if no other batch size is set.
+ */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+ /**
+ Binds the values of one property to the parameters of a prepared statement.
+ @param <T> The type of the property.
+ */
+    @FunctionalInterface
+    protected interface ParameterSetter<T> {
+        void setParameters(PreparedStatement statement, T property) throws SQLException;
+    }
+
+ /**
+ The statements of one batch operation, executed on a connection inside the batch transaction.
+ @param <T> The type of the properties in the batch.
+ */
+    @FunctionalInterface
+    protected interface BatchWork<T> {
+        List<BatchResult.Failure<T>> execute(Connection connection) throws SQLException;
+    }
 
  /**
  An abstract method that updates a specific property in the database.
@@ -19,4 +55,162 @@ import java.sql.SQLException;
  */
     public abstract void updatePropertyInDB(T updatedProperty) throws SQLException;
 
+ /**
+ Updates a specific property in the database on the {@link DatabaseExecutor} instead of the calling thread.
+ @param updatedProperty The updated version of the property to be updated in the database.
+ @return a future that completes when the update is done, or exceptionally if it failed.
+ */
+    public CompletableFuture<Void> updatePropertyInDBAsync(T updatedProperty) {
+        return DatabaseExecutor.runAsync(() -> updatePropertyInDB(updatedProperty));
+    }
+
+ /**
+ Updates all given properties with JDBC batches of {@link #getBatchSize()} rows inside a single transaction.
+ If any row fails, the whole transaction is rolled back and the result names the failed rows.
+ @param updatedProperties The updated versions of the properties to be updated in the database.
+ @return the result of the batch.
+ @throws SQLException If the transaction itself could not be run.
+ */
+    public abstract BatchResult<T> updateAll(Collection<T> updatedProperties) throws SQLException;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size has to be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+ /**
+ Runs one statement as JDBC batches for all given properties inside a single transaction.
+ @param sql The SQL of the statement.
+ @param properties The properties to execute the statement for.
+ @param parameterSetter Binds the values of one property to the statement.
+ @return the result of the batch.
+ @throws SQLException If the transaction itself could not be run.
+ */
+    protected BatchResult<T> executeBatch(String sql, Collection<T> properties, ParameterSetter<T> parameterSetter) throws SQLException {
+        List<T> rows = new ArrayList<>(properties);
+        return executeInTransaction(rows, connection -> executeBatch(connection, sql, rows, parameterSetter, null));
+    }
+
+ /**
+ Leases a connection, runs the given work in a transaction on it and commits the transaction if no row failed.
+ Otherwise the transaction is rolled back.
+ @param rows The properties of the batch.
+ @param work The statements of the batch.
+ @return the result of the batch.
+ @throws SQLException If the transaction itself could not be run.
+ */
+    protected BatchResult<T> executeInTransaction(List<T> rows, BatchWork<T> work) throws SQLException {
+        return executeInTransaction(rows, work, null);
+    }
+
+ /**
+ Leases a connection, runs the given work in a transaction on it and commits the transaction if no row failed.
+ Otherwise the transaction is rolled back. The generated keys the work collected are only handed to the properties
+ by {@code afterCommit}, so no property carries the key of a row that was rolled back.
+ @param rows The properties of the batch.
+ @param work The statements of the batch.
+ @param afterCommit Runs once the transaction is committed, or null if there is nothing to do then.
+ @return the result of the batch.
+ @throws SQLException If the transaction itself could not be run.
+ */
+    protected BatchResult<T> executeInTransaction(List<T> rows, BatchWork<T> work, Runnable afterCommit) throws SQLException {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<BatchResult.Failure<T>> failures = work.execute(connection);
+                if (failures.isEmpty()) {
+                    connection.commit();
+                    if (afterCommit != null) {
+                        afterCommit.run();
+                    }
+                } else {
+                    connection.rollback();
+                }
+                return new BatchResult<>(rows.size(), failures);
+            } catch (SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+ /**
+ Executes one statement for all given rows in batches of {@link #getBatchSize()} on a connection whose transaction is
+ managed by the caller. If a batch fails, it is rolled back to a savepoint and repeated row by row, so every failing
+ row is reported, no matter whether the driver stops at the first error or not.
+ @param connection The connection of the surrounding transaction.
+ @param sql The SQL of the statement.
+ @param rows The properties to execute the statement for.
+ @param parameterSetter Binds the values of one property to the statement.
+ @param generatedKeys Receives the generated key of every inserted row by its property, or null if no keys are needed.
+ The keys belong to the open transaction; they are set on the properties once it is committed, see
+ {@link #executeInTransaction(List, BatchWork, Runnable)}.
+ @return the failed rows; empty if all rows succeeded.
+ @throws SQLException If the statement could not be prepared.
+ */
+    protected List<BatchResult.Failure<T>> executeBatch(Connection connection, String sql, List<T> rows,
+                                                        ParameterSetter<T> parameterSetter,
+                                                        Map<T, Integer> generatedKeys) throws SQLException {
+        List<BatchResult.Failure<T>> failures = new ArrayList<>();
+        int autoGeneratedKeys = generatedKeys == null ? Statement.NO_GENERATED_KEYS : Statement.RETURN_GENERATED_KEYS;
+        try (PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys)) {
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                List<T> chunk = rows.subList(start, Math.min(start + batchSize, rows.size()));
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    for (T row : chunk) {
+                        parameterSetter.setParameters(statement, row);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    if (generatedKeys != null) {
+                        readGeneratedKeys(statement, chunk, generatedKeys);
+                    }
+                } catch (BatchUpdateException batchUpdateException) {
+                    statement.clearBatch();
+                    connection.rollback(savepoint);
+                    failures.addAll(executeRowByRow(statement, chunk, parameterSetter, generatedKeys));
+                }
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+        return failures;
+    }
+
+    private List<BatchResult.Failure<T>> executeRowByRow(PreparedStatement statement, List<T> rows,
+                                                         ParameterSetter<T> parameterSetter,
+                                                         Map<T, Integer> generatedKeys) throws SQLException {
+        List<BatchResult.Failure<T>> failures = new ArrayList<>();
+        for (T row : rows) {
+            try {
+                parameterSetter.setParameters(statement, row);
+                statement.executeUpdate();
+                if (generatedKeys != null) {
+                    readGeneratedKeys(statement, List.of(row), generatedKeys);
+                }
+            } catch (SQLException sqlException) {
+                failures.add(new BatchResult.Failure<>(row, sqlException));
+            }
+        }
+        return failures;
+    }
+
+    private void readGeneratedKeys(PreparedStatement statement, List<T> rows, Map<T, Integer> generatedKeys) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            for (T row : rows) {
+                if (!keys.next()) {
+                    throw new SQLException("The database returned fewer generated keys than rows were inserted");
+                }
+                generatedKeys.put(row, keys.getInt(1));
+            }
+        }
+    }
 }
@@ -1,12 +1,14 @@
 package model.databaseManager;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
 
  This abstract class extends DatabaseManagerWithEdit and adds functionality for creating and deleting entries in the database.
  It declares two abstract methods: createNewPropertyInDB and deletePropertyFromDB which are implemented by its subclasses to
- create and delete entries in the database respectively.
+ create and delete entries in the database respectively, and their batch counterparts createAll and deleteAll.
  @param <T> the type of the property being managed by this database manager.
  */
 public abstract class DatabaseManagerWithEditAndCreateAndDelete<T> extends DatabaseManagerWithEdit<T> {
@@ -24,4 +26,40 @@ public abstract class DatabaseManagerWithEditAndCreateAndDelete<T> extends Datab
      @throws SQLException if an error occurs while accessing the database.
      */
     public abstract void deletePropertyFromDB(T propertyToDelete) throws SQLException;
+
+    /**
+     Creates entries for all given properties with JDBC batches inside a single transaction.
+     If any row fails, the whole transaction is rolled back and the result names the failed rows.
+     @param newProperties the new properties to be added to the database.
+     @return the result of the batch.
+     @throws SQLException if the transaction itself could not be run.
+     */
+    public abstract BatchResult<T> createAll(Collection<T> newProperties) throws SQLException;
+
+    /**
+     Deletes all given properties with JDBC batches inside a single transaction.
+     If any row fails, the whole transaction is rolled back and the result names the failed rows.
+     @param propertiesToDelete the properties to be deleted from the database.
+     @return the result of the batch.
+     @throws SQLException if the transaction itself could not be run.
+     */
+    public abstract BatchResult<T> deleteAll(Collection<T> propertiesToDelete) throws SQLException;
+
+    /**
+     Creates a new entry for the specified property on the {@link DatabaseExecutor} instead of the calling thread.
+     @param newProperty the new property to be added to the database.
+     @return a future that completes when the entry is created, or exceptionally if it failed.
+     */
+    public CompletableFuture<Void> createNewPropertyInDBAsync(T newProperty) {
+        return DatabaseExecutor.runAsync(() -> createNewPropertyInDB(newProperty));
+    }
+
+    /**
+     Deletes the specified property on the {@link DatabaseExecutor} instead of the calling thread.
+     @param propertyToDelete the property to be deleted from the database.
+     @return a future that completes when the entry is deleted, or exceptionally if it failed.
+     */
+    public CompletableFuture<Void> deletePropertyFromDBAsync(T propertyToDelete) {
+        return DatabaseExecutor.runAsync(() -> deletePropertyFromDB(propertyToDelete));
+    }
 }
@@ -0,0 +1,198 @@
+package model.databaseManager;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+
+ A cache for the entities a database manager looks up by their identity, for example a settings profile by its name.
+ It holds at most a fixed number of entries and drops the least recently used one first; every entry also expires
+ after a fixed time, so changes made by other clients become visible eventually. Lookups that found nothing are not
+ cached, so an entity that another client creates is found by the next lookup.
+ <p>
+ The cache does not write entities itself: the manager invalidates the affected entries whenever it writes to the
+ database. A lookup that was running while an entry was invalidated does not put its possibly outdated result into
+ the cache. The cache can be used from several threads, and the database is never queried while it is locked.
+ @param <K> the type of the identity
+ @param <V> the type of the entities
+ */
+public class EntityCache<K, V> {
+    /**
+     * The number of entities kept if no other maximum is given.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+    /**
+     * The time after which an entry expires if no other time is given.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60_000;
+
+    /**
+     * Looks an entity up in the database when it is not in the cache.
+     *
+     * @param <V> the type of the entity
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        Optional<V> load() throws SQLException;
+    }
+
+    private final long timeToLiveMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private boolean enabled = true;
+    /**
+     * Counts the invalidations, so a lookup can tell whether an entry was invalidated while it was running.
+     */
+    private long invalidationCount;
+    private long hitCount, missCount, evictionCount;
+
+    public EntityCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    public EntityCache(int maximumSize, long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached entity with the given identity, or looks it up with the loader and caches it if it was found.
+     *
+     * @param key    the identity of the entity
+     * @param loader looks the entity up in the database
+     * @return the entity, or an empty Optional if there is none with this identity
+     * @throws SQLException if the lookup failed
+     */
+    public Optional<V> get(K key, Loader<V> loader) throws SQLException {
+        boolean cacheResult;
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            cacheResult = enabled;
+            invalidationsBeforeLoad = invalidationCount;
+            if (enabled) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expiresAtMillis > System.currentTimeMillis()) {
+                    hitCount++;
+                    return Optional.of(entry.value);
+                }
+                if (entry != null) {
+                    entries.remove(key);
+                    evictionCount++;
+                }
+            }
+            missCount++;
+        }
+        Optional<V> loaded = loader.load();
+        if (cacheResult && loaded.isPresent()) {
+            synchronized (this) {
+                if (enabled && invalidationCount == invalidationsBeforeLoad) {
+                    entries.put(key, new Entry<>(loaded.get(), System.currentTimeMillis() + timeToLiveMillis));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes the entry with the given identity.
+     *
+     * @param key the identity of the entity that was written
+     */
+    public synchronized void invalidate(K key) {
+        invalidationCount++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every cached entity that matches the given condition, for example the entity with a certain id when it
+     * is cached by its name.
+     *
+     * @param condition the condition for the entities that were written
+     */
+    public synchronized void invalidateIf(Predicate<V> condition) {
+        invalidationCount++;
+        entries.values().removeIf(entry -> condition.test(entry.value));
+    }
+
+    /**
+     * Removes all entries, for example after a batch wrote many entities.
+     */
+    public synchronized void invalidateAll() {
+        invalidationCount++;
+        entries.clear();
+    }
+
+    /**
+     * Turns the cache on or off. While it is off, every lookup goes to the database.
+     *
+     * @param enabled true to cache lookups
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries dropped because the cache was full or the entry had expired.
+     *
+     * @return the number of evicted entries
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the share of lookups that were served from memory.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there was no lookup yet
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EntityCache[size=" + entries.size() + ", hits=" + hitCount + ", misses=" + missCount
+                + ", evictions=" + evictionCount + "]";
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package model.databaseManager;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+
+ Maps the rows of a query to objects of type {@code T} by the indexes of their columns. Reading a column by its label
+ makes the driver compare the label with the labels of the result set for every row and every column; this mapper
+ declares the labels of the columns it reads, looks them up once per query in the {@link ResultSetMetaData}, and then
+ reads every row by index.
+ <p>
+ The factory reads the columns of a row by their position in the declared list, so the columns and the factory are
+ declared next to each other. A mapper holds no state of a query and can be shared by any number of threads; the
+ {@link RowMapper} returned by {@link #compile(ResultSet)} belongs to a single result set and rejects any other.
+ @param <T> the type of object created from a row
+ */
+public final class IndexedRowMapper<T> {
+
+    /**
+     * Creates one object from the current row.
+     *
+     * @param <T> the type of the object
+     */
+    @FunctionalInterface
+    public interface RowFactory<T> {
+        T create(Row row) throws SQLException;
+    }
+
+    private final List<String> columns;
+    private final RowFactory<T> factory;
+
+    /**
+     * Creates a mapper that reads the given columns.
+     *
+     * @param columns the labels of the columns the factory reads, in the order of their positions
+     * @param factory creates an object from the declared columns of a row
+     */
+    public IndexedRowMapper(List<String> columns, RowFactory<T> factory) {
+        this.columns = List.copyOf(columns);
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the labels of the columns the mapper reads.
+     *
+     * @return the labels in the order of their positions
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Looks the declared columns up in the given result set and returns a mapper for its rows that reads them by
+     * index. The indexes only hold for this result set, so the returned mapper throws an SQLException if it is given
+     * another one.
+     *
+     * @param resultSet the result set whose rows are mapped
+     * @return a mapper for the rows of the given result set
+     * @throws SQLException if the result set lacks a declared column
+     */
+    public RowMapper<T> compile(ResultSet resultSet) throws SQLException {
+        Row row = new Row(resultSet, resolveIndexes(resultSet.getMetaData()));
+        return rs -> {
+            if (rs != resultSet) {
+                throw new SQLException("The row mapper was compiled for another result set");
+            }
+            return factory.create(row);
+        };
+    }
+
+    private int[] resolveIndexes(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> indexesByLabel = new HashMap<>();
+        for (int index = metaData.getColumnCount(); index >= 1; index--) {
+            // like the driver, the first of several columns with the same label wins
+            indexesByLabel.put(metaData.getColumnLabel(index).toLowerCase(Locale.ROOT), index);
+        }
+        int[] indexes = new int[columns.size()];
+        for (int position = 0; position < indexes.length; position++) {
+            Integer index = indexesByLabel.get(columns.get(position).toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("The query has no column " + columns.get(position));
+            }
+            indexes[position] = index;
+        }
+        return indexes;
+    }
+
+    /**
+     * The current row of a result set, whose declared columns are read by their position.
+     */
+    public static final class Row {
+        private final ResultSet resultSet;
+        private final int[] indexes;
+
+        private Row(ResultSet resultSet, int[] indexes) {
+            this.resultSet = resultSet;
+            this.indexes = indexes;
+        }
+
+        public int getInt(int position) throws SQLException {
+            return resultSet.getInt(indexes[position]);
+        }
+
+        public String getString(int position) throws SQLException {
+            return resultSet.getString(indexes[position]);
+        }
+    }
+}
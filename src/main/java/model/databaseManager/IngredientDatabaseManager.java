@@ -1,39 +1,90 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Ingredient;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 
 /**
  This class represents the database manager for the Ingredient objects.
- It extends the abstract class DatabaseManagerWithEdit and overrides its getAllFromProperty and updatePropertyInDB methods.
- The getAllFromProperty method retrieves all ingredients from the Ingredient table in the database and returns them as an ObservableList of Ingredient objects.
+ It extends the abstract class DatabaseManagerWithEdit and provides the query and the row mapping used to retrieve all ingredients from the Ingredient table,
+ and overrides its updatePropertyInDB method.
  The updatePropertyInDB method updates the description of an ingredient in the database.
  */
 public class IngredientDatabaseManager extends DatabaseManagerWithEdit<Ingredient> {
+    private static final String SELECT_STATEMENT = "SELECT `name`, `description`, `unit` FROM Ingredient";
+    private static final IndexedRowMapper<Ingredient> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("name", "description", "unit"),
+            row -> new Ingredient(row.getString(0), row.getString(1), row.getString(2)));
+    private static final String UPDATE_STATEMENT = "UPDATE Ingredient SET `description` = ?, `unit` = ? WHERE `name` = ? ";
+    private static final List<PageQuery.SortColumn<Ingredient>> SORT_COLUMNS = List.of(
+            new PageQuery.SortColumn<>("name", "`name`", Ingredient::getName),
+            new PageQuery.SortColumn<>("unit", "`unit`", Ingredient::getUnit));
+    private static final List<PageQuery.Filter> FILTERS = List.of(
+            PageQuery.Filter.startsWith("Name starts with", "`name`"));
 
     @Override
     public void updatePropertyInDB(Ingredient updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE Ingredient SET `description` = ?, `unit` = ? WHERE `name` = ? "));
-        getStmt().setString(1, updatedProperty.getDescription());
-        getStmt().setString(2, updatedProperty.getUnit());
-        getStmt().setString(3, updatedProperty.getName());
-        getStmt().executeUpdate();
-        getStmt().close();
-    }
-
-    @Override
-    public ObservableList<Ingredient> getAllFromProperty() throws SQLException {
-        ObservableList<Ingredient> ingredients = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM Ingredient"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            Ingredient ingredient = new Ingredient(rs);
-            ingredients.add(ingredient);
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
         }
-        getStmt().close();
-        return ingredients;
+    }
+
+    /**
+     * Updates all given ingredient objects in the database with JDBC batches inside a single transaction.
+     *
+     * @param updatedProperties the ingredient objects to update in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<Ingredient> updateAll(Collection<Ingredient> updatedProperties) throws SQLException {
+        return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
+    }
+
+    @Override
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<Ingredient> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        return List.of("Ingredient");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "`name`";
+    }
+
+    @Override
+    protected Object getKey(Ingredient property) {
+        return property.getName();
+    }
+
+    @Override
+    public List<PageQuery.SortColumn<Ingredient>> getSortColumns() {
+        return SORT_COLUMNS;
+    }
+
+    @Override
+    public List<PageQuery.Filter> getFilters() {
+        return FILTERS;
+    }
+
+    private void setUpdateParameters(PreparedStatement statement, Ingredient ingredient) throws SQLException {
+        statement.setString(1, ingredient.getDescription());
+        statement.setString(2, ingredient.getUnit());
+        statement.setString(3, ingredient.getName());
     }
 }
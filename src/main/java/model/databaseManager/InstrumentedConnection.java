@@ -0,0 +1,282 @@
+package model.databaseManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Date;
+/**
+
+ The proxies {@link QueryAccounting} puts around a leased {@link Connection}, its statements and their result sets
+ to count what they send to and read from the database into an {@link QueryAccounting.Action}. Everything else is
+ passed through unchanged.
+ */
+final class InstrumentedConnection {
+    private InstrumentedConnection() {}
+
+    /**
+     * Wraps the given connection so it counts into the given action.
+     *
+     * @param connection the leased connection
+     * @param action     the action the queries of the connection are counted into
+     * @return the connection proxy
+     */
+    static Connection wrap(Connection connection, QueryAccounting.Action action) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, action));
+    }
+
+    /**
+     * Counts the statements of a SQL string that can hold several statements separated by semicolons. Semicolons in
+     * string literals are counted as separators as well.
+     */
+    static int countStatements(String sql) {
+        if (sql == null) {
+            return 1;
+        }
+        int statements = 0;
+        for (String segment : sql.split(";")) {
+            if (!segment.isBlank()) {
+                statements++;
+            }
+        }
+        return Math.max(statements, 1);
+    }
+
+    /**
+     * Estimates the size of a value sent or read: a string one byte per character, a number its size in Java.
+     */
+    static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof Boolean || value instanceof Byte) {
+            return 1;
+        }
+        if (value instanceof Short) {
+            return 2;
+        }
+        if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Date) {
+            return 8;
+        }
+        return value.toString().length();
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException invocationTargetException) {
+            throw invocationTargetException.getCause();
+        }
+    }
+
+    /**
+     * Counts every transaction control call as a round trip and wraps the statements the connection creates.
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final QueryAccounting.Action action;
+
+        ConnectionHandler(Connection connection, QueryAccounting.Action action) {
+            this.connection = connection;
+            this.action = action;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented " + connection;
+                case "commit":
+                case "rollback":
+                case "setAutoCommit":
+                case "setSavepoint":
+                case "releaseSavepoint":
+                    action.recordRoundTrip();
+                    break;
+                default:
+                    break;
+            }
+            Object result = forward(connection, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String preparedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                        new StatementHandler((Statement) result, (Connection) proxy, action, preparedSql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Counts every execution as a round trip with as many statements as its SQL holds, and a batch as one round trip
+     * with the statements of all its rows. The values of the parameters count as the bytes sent by a prepared
+     * statement, the SQL as the bytes sent by a plain one.
+     */
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        private final QueryAccounting.Action action;
+        private final String preparedSql;
+        private final int preparedStatementCount;
+        private long parameterBytes;
+        private int batchStatements;
+        private long batchBytes;
+        private int fetchSize;
+
+        StatementHandler(Statement statement, Connection connection, QueryAccounting.Action action, String preparedSql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.action = action;
+            this.preparedSql = preparedSql;
+            this.preparedStatementCount = countStatements(preparedSql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented " + statement;
+                case "getConnection":
+                    return connection;
+                case "setFetchSize":
+                    fetchSize = (Integer) args[0];
+                    break;
+                case "clearParameters":
+                    parameterBytes = 0;
+                    break;
+                case "addBatch":
+                    if (args == null) {
+                        batchStatements += preparedStatementCount;
+                        batchBytes += parameterBytes;
+                        parameterBytes = 0;
+                    } else {
+                        batchStatements += countStatements((String) args[0]);
+                        batchBytes += sizeOf(args[0]);
+                    }
+                    break;
+                case "clearBatch":
+                    batchStatements = 0;
+                    batchBytes = 0;
+                    break;
+                case "executeBatch":
+                case "executeLargeBatch":
+                    action.recordExecution(preparedSql == null ? "batch" : preparedSql, batchStatements, batchBytes);
+                    batchStatements = 0;
+                    batchBytes = 0;
+                    Object counts = forward(statement, method, args);
+                    recordBatchCounts(counts);
+                    return counts;
+                case "execute":
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    if (args != null && args.length > 0 && args[0] instanceof String) {
+                        String sql = (String) args[0];
+                        action.recordExecution(sql, countStatements(sql), sizeOf(sql));
+                    } else {
+                        action.recordExecution(preparedSql, preparedStatementCount, parameterBytes);
+                    }
+                    break;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameterBytes += sizeOf(args[1]);
+                    }
+                    break;
+            }
+            Object result = forward(statement, method, args);
+            if (result instanceof ResultSet && method.getReturnType() == ResultSet.class) {
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler((ResultSet) result, proxy, action, fetchSize));
+            }
+            if (result instanceof Number && (name.equals("executeUpdate") || name.equals("executeLargeUpdate"))) {
+                action.recordRowsWritten(Math.max(((Number) result).longValue(), 0));
+            }
+            return result;
+        }
+
+        private void recordBatchCounts(Object counts) {
+            long rows = 0;
+            if (counts instanceof int[]) {
+                for (int count : (int[]) counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (counts instanceof long[]) {
+                for (long count : (long[]) counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            action.recordRowsWritten(rows);
+        }
+    }
+
+    /**
+     * Counts the rows read and the size of the column values read. If the statement was given a fetch size, every
+     * further block of rows counts as another round trip.
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Object statement;
+        private final QueryAccounting.Action action;
+        private final int fetchSize;
+        private long rows;
+
+        ResultSetHandler(ResultSet resultSet, Object statement, QueryAccounting.Action action, int fetchSize) {
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.action = action;
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented " + resultSet;
+                case "getStatement":
+                    return statement;
+                default:
+                    break;
+            }
+            Object result = forward(resultSet, method, args);
+            if (name.equals("next")) {
+                if ((Boolean) result) {
+                    rows++;
+                    action.recordRowRead();
+                    if (fetchSize > 0 && rows > 1 && (rows - 1) % fetchSize == 0) {
+                        action.recordRoundTrip();
+                    }
+                }
+            } else if (name.startsWith("get") && args != null && args.length > 0
+                    && (args[0] instanceof Integer || args[0] instanceof String)) {
+                action.recordBytesReceived(sizeOf(result));
+            }
+            return result;
+        }
+    }
+}
@@ -1,38 +1,90 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Ingredient;
 import model.Machine;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 /**
  This class represents the database manager for the Machine objects.
- It extends the abstract class DatabaseManagerWithEdit and overrides its getAllFromProperty and updatePropertyInDB methods.
- The getAllFromProperty method retrieves all machines from the Machine table in the database and returns them as an ObservableList of Machine objects.
- The updatePropertyInDB method updates the description of a machine in the database.
+ It extends the abstract class DatabaseManagerWithEdit and provides the query and the row mapping used to retrieve all machines from the Machine table,
+ and overrides its updatePropertyInDB method.
+ The updatePropertyInDB method updates the description of a machine in the database, which is found by its id.
  */
 public class MachineDatabaseManager extends DatabaseManagerWithEdit<Machine> {
+    private static final String SELECT_STATEMENT = "SELECT `idMachine`, `name`, `decription` FROM Machine";
+    private static final IndexedRowMapper<Machine> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idMachine", "name", "decription"),
+            row -> new Machine(row.getInt(0), row.getString(1), row.getString(2)));
+    private static final String UPDATE_STATEMENT = "UPDATE Machine SET `decription` = ? WHERE `idMachine` = ?";
+    private static final List<PageQuery.SortColumn<Machine>> SORT_COLUMNS = List.of(
+            new PageQuery.SortColumn<>("id", "`idMachine`", Machine::getId),
+            new PageQuery.SortColumn<>("name", "`name`", Machine::getName));
+    private static final List<PageQuery.Filter> FILTERS = List.of(
+            PageQuery.Filter.startsWith("Name starts with", "`name`"));
+
     @Override
-    public ObservableList<Machine> getAllFromProperty() throws SQLException {
-        ObservableList<Machine> machines = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM Machine"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            Machine machine = new Machine(rs);
-            machines.add(machine);
-        }
-        getStmt().close();
-        return machines;
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<Machine> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        return List.of("Machine");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "`idMachine`";
+    }
+
+    @Override
+    protected Object getKey(Machine property) {
+        return property.getId();
+    }
+
+    @Override
+    public List<PageQuery.SortColumn<Machine>> getSortColumns() {
+        return SORT_COLUMNS;
+    }
+
+    @Override
+    public List<PageQuery.Filter> getFilters() {
+        return FILTERS;
     }
 
     @Override
     public void updatePropertyInDB(Machine updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE Machine SET `decription` = ? WHERE `name` = ? "));
-        getStmt().setString(1, updatedProperty.getDescription());
-        getStmt().setString(2, updatedProperty.getName());
-        getStmt().executeUpdate();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Updates all given machine objects in the database with JDBC batches inside a single transaction.
+     *
+     * @param updatedProperties the machine objects to update in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<Machine> updateAll(Collection<Machine> updatedProperties) throws SQLException {
+        return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
+    }
+
+    private void setUpdateParameters(PreparedStatement statement, Machine machine) throws SQLException {
+        statement.setString(1, machine.getDescription());
+        statement.setInt(2, machine.getId());
     }
 }
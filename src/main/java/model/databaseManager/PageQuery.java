@@ -0,0 +1,219 @@
+package model.databaseManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+
+ Describes in which order and with which filter the rows of a database manager are read page by page. The order and the
+ filter are translated into the ORDER BY and WHERE clauses of the query, so sorting and filtering happen in the
+ database. The columns a manager can be sorted by and the filters it supports are defined by the manager itself, see
+ {@link DatabaseManager#getSortColumns()} and {@link DatabaseManager#getFilters()}.
+ @param <T> the type of the rows
+ */
+public final class PageQuery<T> {
+    private final List<Order<T>> orders;
+    private final Filter filter;
+    private final Object filterParameter;
+
+    private PageQuery(List<Order<T>> orders, Filter filter, Object filterParameter) {
+        this.orders = Collections.unmodifiableList(new ArrayList<>(orders));
+        this.filter = filter;
+        this.filterParameter = filterParameter;
+    }
+
+    /**
+     * Returns a query for all rows, ordered only by the key column of the manager.
+     *
+     * @param <T> the type of the rows
+     * @return the query
+     */
+    public static <T> PageQuery<T> all() {
+        return new PageQuery<>(List.of(), null, null);
+    }
+
+    /**
+     * Returns a copy of this query with another order.
+     *
+     * @param orders the columns to sort by, most significant first
+     * @return the new query
+     */
+    public PageQuery<T> orderedBy(List<Order<T>> orders) {
+        return new PageQuery<>(orders, filter, filterParameter);
+    }
+
+    /**
+     * Returns a copy of this query with another filter.
+     *
+     * @param filter the filter, or null for all rows
+     * @param text   the value the user entered for the filter
+     * @return the new query
+     * @throws IllegalArgumentException if the text is not a valid value for the filter
+     */
+    public PageQuery<T> filteredBy(Filter filter, String text) {
+        if (filter == null) {
+            return new PageQuery<>(orders, null, null);
+        }
+        return new PageQuery<>(orders, filter, filter.parameterParser.apply(text));
+    }
+
+    public List<Order<T>> getOrders() {
+        return orders;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public Object getFilterParameter() {
+        return filterParameter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageQuery<?> pageQuery = (PageQuery<?>) o;
+        return orders.equals(pageQuery.orders) && filter == pageQuery.filter && Objects.equals(filterParameter, pageQuery.filterParameter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orders, filter, filterParameter);
+    }
+
+    /**
+     * A column of a manager that the rows can be sorted by.
+     *
+     * @param <T> the type of the rows
+     */
+    public static final class SortColumn<T> {
+        private final String property;
+        private final String sqlExpression;
+        private final Function<T, Object> valueGetter;
+
+        /**
+         * @param property      the name of the property shown in the column, as used by a {@code PropertyValueFactory}
+         * @param sqlExpression the SQL expression of the column in the select query of the manager; it should be
+         *                      indexed together with the key column
+         * @param valueGetter   reads the value of the column from a row
+         */
+        public SortColumn(String property, String sqlExpression, Function<T, Object> valueGetter) {
+            this.property = property;
+            this.sqlExpression = sqlExpression;
+            this.valueGetter = valueGetter;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public String getSqlExpression() {
+            return sqlExpression;
+        }
+
+        public Object getValue(T row) {
+            return valueGetter.apply(row);
+        }
+    }
+
+    /**
+     * One column of the sort order together with its direction.
+     *
+     * @param <T> the type of the rows
+     */
+    public static final class Order<T> {
+        private final SortColumn<T> column;
+        private final boolean descending;
+
+        public Order(SortColumn<T> column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+
+        public SortColumn<T> getColumn() {
+            return column;
+        }
+
+        public boolean isDescending() {
+            return descending;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Order<?> order = (Order<?>) o;
+            return column == order.column && descending == order.descending;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(column, descending);
+        }
+    }
+
+    /**
+     * A condition of a manager that the user can filter the rows with, for example "name starts with".
+     */
+    public static final class Filter {
+        private final String label;
+        private final String condition;
+        private final Function<String, Object> parameterParser;
+
+        /**
+         * @param label           the name of the filter shown to the user
+         * @param condition       the SQL condition with one parameter for the value of the filter
+         * @param parameterParser turns the text the user entered into the value of the parameter; throws an
+         *                        {@link IllegalArgumentException} if the text is not valid
+         */
+        public Filter(String label, String condition, Function<String, Object> parameterParser) {
+            this.label = label;
+            this.condition = condition;
+            this.parameterParser = parameterParser;
+        }
+
+        /**
+         * Creates a filter for the rows whose column starts with the entered text. The condition is a prefix
+         * {@code LIKE}, which can use an index on the column.
+         *
+         * @param label         the name of the filter shown to the user
+         * @param sqlExpression the SQL expression of the column
+         * @return the filter
+         */
+        public static Filter startsWith(String label, String sqlExpression) {
+            return new Filter(label, sqlExpression + " LIKE ?", text -> escapeLikePattern(text) + "%");
+        }
+
+        /**
+         * Creates a filter for the rows whose column is at most the entered number.
+         *
+         * @param label         the name of the filter shown to the user
+         * @param sqlExpression the SQL expression of the column
+         * @return the filter
+         */
+        public static Filter atMost(String label, String sqlExpression) {
+            return new Filter(label, sqlExpression + " <= ?", text -> Integer.parseInt(text.trim()));
+        }
+
+        private static String escapeLikePattern(String text) {
+            return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package model.databaseManager;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+
+ A read-only {@link javafx.collections.ObservableList} over the rows of a database manager that match a
+ {@link PageQuery}, in the order of the query, that only keeps a few pages of rows in memory. The list knows the total number of rows from the start, so a TableView can show its full length,
+ but a row is only loaded when it is shown. Until then {@link #get(int)} returns null and requests the page of the
+ row in the background; once the page arrives, the list reports its rows as replaced so the TableView shows them.
+ Whenever a page is shown, the next page is prefetched.
+ <p>
+ Pages are loaded with keyset pagination: a page starts after the sort values and the key of the last row of the page
+ before it. If that page was never loaded, for example because the scroll bar was dragged, the page is loaded from the nearest page
+ before it whose last key is known, skipping the rows in between with an offset.
+ <p>
+ At most a fixed number of pages is cached; the least recently shown page is dropped first and reloaded when it is
+ shown again.
+ <p>
+ A row that was created, edited or deleted can be applied to the list in place with {@link #refreshRow(Object)} and
+ {@link #removeRow(Object)}, which needs at most two small queries instead of reloading the list. Changes that are not
+ written yet can be shown with {@link #replaceRow(Object, Object)} and {@link #insertRow(int, Object)}. The list reports
+ the change as an added, removed or replaced row, so a TableView keeps its selection and scroll position. The cached
+ pages behind the changed row are shifted by one row; a page that is left incomplete is dropped and reloaded. A row
+ that was inserted is pending until it is refreshed or removed; as its key is not known yet, it is only ever found by
+ identity.
+ The list has to be used on the JavaFX application thread.
+ @param <T> the type of the rows
+ */
+public class PagedObservableList<T> extends ObservableListBase<T> {
+    /**
+     * The number of rows loaded with one query if no other page size is given.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /**
+     * The number of pages kept in memory if no other limit is given.
+     */
+    public static final int DEFAULT_MAXIMUM_CACHED_PAGES = 20;
+
+    private final DatabaseManager<T> databaseManager;
+    private final PageQuery<T> query;
+    private int size;
+    private final int pageSize;
+    private final LinkedHashMap<Integer, List<T>> pages;
+    /**
+     * The keyset of the last row of every page loaded so far. It outlives the cached pages, so a dropped page can be
+     * reloaded with keyset pagination.
+     */
+    private final TreeMap<Integer, Object[]> lastKeysets = new TreeMap<>();
+    private final Set<Integer> loadingPages = new HashSet<>();
+    /**
+     * The rows inserted with {@link #insertRow(int, Object)} that were not refreshed or removed since. They have no key
+     * yet, or one that is not in the database, so they are never matched by key.
+     */
+    private final Set<T> pendingRows = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Counts the rows added or removed in place. A page that was requested before one of these changes starts at the
+     * wrong row and is not used.
+     */
+    private int structuralChangeCount;
+    /**
+     * The controller of the {@link QueryAccounting} action that loaded the list. The pages loaded while the user
+     * scrolls are counted as actions of this controller.
+     */
+    private final String controller;
+
+    private PagedObservableList(DatabaseManager<T> databaseManager, PageQuery<T> query, int size, int pageSize, int maximumCachedPages, List<T> firstPage) {
+        QueryAccounting.Action action = QueryAccounting.currentAction();
+        this.controller = action == null ? QueryAccounting.UNATTRIBUTED : action.getController();
+        this.databaseManager = databaseManager;
+        this.query = query;
+        this.size = size;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maximumCachedPages;
+            }
+        };
+        putPage(0, firstPage);
+    }
+
+    /**
+     * Counts the rows of the given database manager that match the query and loads the first page in the background.
+     *
+     * @param databaseManager    the database manager whose rows the list shows
+     * @param query              the order and the filter of the rows
+     * @param pageSize           the number of rows loaded with one query
+     * @param maximumCachedPages the number of pages kept in memory
+     * @param <T>                the type of the rows
+     * @return a future that completes with the list once its size and its first page are known
+     */
+    static <T> CompletableFuture<PagedObservableList<T>> load(DatabaseManager<T> databaseManager, PageQuery<T> query, int pageSize, int maximumCachedPages) {
+        if (pageSize < 1 || maximumCachedPages < 2) {
+            throw new IllegalArgumentException("A paged list needs pages of at least one row and room for at least two pages");
+        }
+        return DatabaseExecutor.supplyAsync(() -> {
+            int size = databaseManager.countAll(query);
+            List<T> firstPage = databaseManager.getPage(query, null, 0, pageSize);
+            return new PagedObservableList<>(databaseManager, query, size, pageSize, maximumCachedPages, firstPage);
+        });
+    }
+
+    /**
+     * Returns the row at the given index, or null if its page is not loaded yet. In that case the page is requested
+     * in the background.
+     *
+     * @param index the index of the row
+     * @return the row, or null while it is loading
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int pageIndex = index / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            loadPage(pageIndex);
+            return null;
+        }
+        loadPage(pageIndex + 1);
+        int indexInPage = index % pageSize;
+        // the table can have shrunk since it was counted
+        return indexInPage < page.size() ? page.get(indexInPage) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public PageQuery<T> getQuery() {
+        return query;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns whether the row at the given index is in memory, without requesting its page.
+     *
+     * @param index the index of the row
+     * @return true if the page of the row is cached
+     */
+    public boolean isLoaded(int index) {
+        return pages.containsKey(index / pageSize);
+    }
+
+    /**
+     * Reads the given row again after it was created or edited and moves it to its position in the order of the
+     * query. If the row is cached, it is replaced, or moved if its position changed; if it no longer matches the
+     * filter, it is removed. A row that was created is added. The row is found among the cached rows by identity, so
+     * it is found even if its key was changed by the edit, or else by the key it has in the database.
+     *
+     * @param row the row that was created or edited
+     * @return a future that completes on the JavaFX application thread with true once the change is applied, or with
+     * false if it could not be applied and the list has to be reloaded
+     */
+    public CompletableFuture<Boolean> refreshRow(T row) {
+        CompletableFuture<Boolean> applied = new CompletableFuture<>();
+        DatabaseExecutor.supplyAsync(() -> {
+            Optional<T> reread = databaseManager.rereadProperty(query, row);
+            int position = reread.isPresent() ? databaseManager.getPosition(query, reread.get()) : -1;
+            return new RereadRow<>(reread, position);
+        }).whenCompleteAsync((rereadRow, throwable) -> {
+            if (throwable != null) {
+                throwable.printStackTrace();
+                applied.complete(false);
+                return;
+            }
+            pendingRows.remove(row);
+            int index = indexOfCached(row);
+            if (index < 0 && rereadRow.row.isPresent()) {
+                index = indexOfCachedKey(databaseManager.getKey(rereadRow.row.get()));
+            }
+            if (rereadRow.row.isEmpty()) {
+                if (index >= 0) {
+                    removeAt(index);
+                }
+                applied.complete(true);
+                return;
+            }
+            int position = rereadRow.position;
+            if (position < 0 || position > (index >= 0 ? size - 1 : size)) {
+                applied.complete(false);
+                return;
+            }
+            if (index == position) {
+                replaceAt(index, rereadRow.row.get());
+            } else {
+                if (index >= 0) {
+                    removeAt(index);
+                }
+                insertAt(position, rereadRow.row.get());
+            }
+            applied.complete(true);
+        }, Platform::runLater);
+        return applied;
+    }
+
+    /**
+     * Removes the given row after it was deleted. No query is needed.
+     *
+     * @param row the row that was deleted
+     * @return true if the row was removed, false if it is not cached and the list has to be reloaded
+     */
+    public boolean removeRow(T row) {
+        pendingRows.remove(row);
+        int index = indexOfCached(row);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Replaces a cached row, for example to show an edit before it is written or to undo it after the write failed.
+     * No query is needed, and the row keeps its position. The row is found by identity, or else by its key, for
+     * example if it was read again with all its columns for an edit. A pending row, see
+     * {@link #insertRow(int, Object)}, is only found by identity, and its replacement is pending in its place.
+     *
+     * @param row         the cached row
+     * @param replacement the row shown instead; can be the same row if it was changed
+     * @return true if the row was replaced, false if it is not cached
+     */
+    public boolean replaceRow(T row, T replacement) {
+        boolean pending = pendingRows.contains(row);
+        int index = indexOfCached(row);
+        if (index < 0 && !pending) {
+            index = indexOfCachedKey(databaseManager.getKey(row));
+        }
+        if (index < 0) {
+            return false;
+        }
+        if (pending) {
+            pendingRows.remove(row);
+            pendingRows.add(replacement);
+        }
+        replaceAt(index, replacement);
+        return true;
+    }
+
+    /**
+     * Inserts a row at the given index without a query, for example to show a created row before it is written.
+     * Use {@link #refreshRow(Object)} to move it to its position once it is written, or {@link #removeRow(Object)} if
+     * the write failed. Until then the row is pending and only found by identity.
+     *
+     * @param index the index of the new row
+     * @param row   the new row
+     */
+    public void insertRow(int index, T row) {
+        Objects.checkIndex(index, size + 1);
+        insertAt(index, row);
+        pendingRows.add(row);
+    }
+
+    /**
+     * Returns the index of the given row among the cached rows, compared by identity.
+     */
+    private int indexOfCached(T row) {
+        for (Map.Entry<Integer, List<T>> page : pages.entrySet()) {
+            List<T> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i) == row) {
+                    return page.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the cached row with the given key. Pending rows are skipped.
+     */
+    private int indexOfCachedKey(Object key) {
+        for (Map.Entry<Integer, List<T>> page : pages.entrySet()) {
+            List<T> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (!pendingRows.contains(rows.get(i)) && Objects.equals(databaseManager.getKey(rows.get(i)), key)) {
+                    return page.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void replaceAt(int index, T row) {
+        int pageIndex = index / pageSize;
+        List<T> page = new ArrayList<>(pages.get(pageIndex));
+        T replaced = page.set(index % pageSize, row);
+        putPage(pageIndex, page);
+        beginChange();
+        nextSet(index, replaced);
+        endChange();
+    }
+
+    private void removeAt(int index) {
+        T removed = pages.get(index / pageSize).get(index % pageSize);
+        shiftPages(index, rows -> rows.remove(index % pageSize));
+        size--;
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    private void insertAt(int index, T row) {
+        shiftPages(index, rows -> rows.add(index % pageSize, row));
+        size++;
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    /**
+     * Applies a change of the given row to the cached pages. The pages before the page of the row stay as they are.
+     * The cached pages that follow the page of the row without a gap are joined, changed and split into pages again;
+     * all other pages after it are dropped, because their rows have moved.
+     */
+    private void shiftPages(int index, Consumer<List<T>> change) {
+        int firstPageIndex = index / pageSize;
+        List<T> rows = new ArrayList<>();
+        boolean firstPageCached = pages.containsKey(firstPageIndex);
+        for (int pageIndex = firstPageIndex; pages.containsKey(pageIndex); pageIndex++) {
+            List<T> page = pages.get(pageIndex);
+            rows.addAll(page);
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        boolean reachesEnd = firstPageIndex * (long) pageSize + rows.size() >= size;
+        pages.keySet().removeIf(pageIndex -> pageIndex >= firstPageIndex);
+        lastKeysets.tailMap(firstPageIndex).clear();
+        structuralChangeCount++;
+        if (!firstPageCached) {
+            return;
+        }
+        change.accept(rows);
+        for (int from = 0, pageIndex = firstPageIndex; from < rows.size(); from += pageSize, pageIndex++) {
+            List<T> page = new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + pageSize)));
+            // an incomplete page in the middle of the list is missing rows that are not cached
+            if (page.size() == pageSize || reachesEnd) {
+                putPage(pageIndex, page);
+            }
+        }
+    }
+
+    private void loadPage(int pageIndex) {
+        if (pageIndex * (long) pageSize >= size || pages.containsKey(pageIndex) || !loadingPages.add(pageIndex)) {
+            return;
+        }
+        Map.Entry<Integer, Object[]> start = lastKeysets.floorEntry(pageIndex - 1);
+        Object[] afterKeyset = start == null ? null : start.getValue();
+        int skippedPages = start == null ? pageIndex : pageIndex - 1 - start.getKey();
+        int requestedAtChange = structuralChangeCount;
+        CompletableFuture<List<T>> loadedRows = QueryAccounting.call(controller, "load page",
+                () -> DatabaseExecutor.supplyAsync(() -> databaseManager.getPage(query, afterKeyset, skippedPages * pageSize, pageSize)));
+        loadedRows.whenCompleteAsync((rows, throwable) -> {
+            loadingPages.remove(pageIndex);
+            if (throwable != null) {
+                throwable.printStackTrace();
+                return;
+            }
+            if (requestedAtChange == structuralChangeCount) {
+                putPage(pageIndex, rows);
+            }
+            // if rows were added or removed meanwhile, the rows are requested again when they are shown
+            fireRowsReplaced(pageIndex);
+        }, Platform::runLater);
+    }
+
+    private void putPage(int pageIndex, List<T> rows) {
+        pages.put(pageIndex, rows);
+        Object[] lastKeyset = rows.isEmpty() ? null : databaseManager.getKeyset(query, rows.get(rows.size() - 1));
+        if (lastKeyset != null) {
+            lastKeysets.put(pageIndex, lastKeyset);
+        }
+    }
+
+    private void fireRowsReplaced(int pageIndex) {
+        int from = pageIndex * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from >= to) {
+            return;
+        }
+        beginChange();
+        for (int index = from; index < to; index++) {
+            nextSet(index, null);
+        }
+        endChange();
+    }
+
+    private static class RereadRow<T> {
+        private final Optional<T> row;
+        private final int position;
+
+        RereadRow(Optional<T> row, int position) {
+            this.row = row;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package model.databaseManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+/**
+
+ Counts the database work every action of the user interface causes, so a screen that quietly sends dozens of
+ queries shows up. A controller runs its work as an {@link Action} with {@link #run(String, String, Runnable)}, for
+ example {@code run("RecipeController", "open pane", this::refresh)}, and every connection a {@link DatabaseManager}
+ leases while the action is current counts its statements, round trips, rows and bytes into the action. The
+ {@link DatabaseExecutor} runs a task under the action that was current when the task was submitted, so the queries
+ an action sends in the background are counted into it as well. Queries without an action are counted as
+ {@value #UNATTRIBUTED}.
+ <p>
+ The accounting is turned off by default and costs nothing then. It is turned on with the system property
+ {@value #ENABLED_PROPERTY}, which also prints a report of all actions when the application exits, or with
+ {@link #setEnabled(boolean)}. An action that exceeds the budget given with {@link #setBudget(String, String,
+ QueryBudget)} prints a warning once.
+ <p>
+ Tests measure an action with {@link #measure(String, String, DatabaseExecutor.Update)} and check the result with
+ {@link QueryStats#assertWithin(QueryBudget)}, so a change that sends more queries fails the build. A measurement
+ counts its queries whether the accounting is turned on or not, without turning it on for other threads.
+ <p>
+ The counts are taken at the JDBC interface, so the bytes are estimates: a string counts one byte per character, a
+ number its size in Java, and a prepared statement only the values of its parameters, because the driver keeps the
+ prepared SQL on the server. A result set read with a fetch size counts one more round trip for every further block
+ of rows.
+ */
+public final class QueryAccounting {
+    /**
+     * The system property that turns the accounting on when it is set to {@code true}.
+     */
+    public static final String ENABLED_PROPERTY = "authoringtool.queryAccounting";
+    /**
+     * The controller and the name of the action queries without an action are counted as.
+     */
+    public static final String UNATTRIBUTED = "(unattributed)";
+
+    private static final Map<String, QueryStats> totals = new ConcurrentHashMap<>();
+    private static final Map<String, QueryBudget> budgets = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Action> currentAction = new ThreadLocal<>();
+    private static final Action INACTIVE = new Action("", "", new QueryStats(), null, null, false);
+    private static final Action unattributedAction;
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    static {
+        QueryStats unattributedStats = totalsOf(UNATTRIBUTED, UNATTRIBUTED);
+        unattributedAction = new Action(UNATTRIBUTED, UNATTRIBUTED, unattributedStats, unattributedStats, null, false);
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(QueryAccounting::printReport, "query-accounting-report"));
+        }
+    }
+
+    private QueryAccounting() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the accounting on or off. Connections that are already leased keep counting until they are closed, and
+     * running measurements keep counting until they are done.
+     *
+     * @param enabled true to count the queries of the connections leased from now on
+     */
+    public static void setEnabled(boolean enabled) {
+        QueryAccounting.enabled = enabled;
+    }
+
+    /**
+     * Starts an action on the current thread. It stays current until it is closed, which makes the action that was
+     * current before it current again. Work that does not need the action itself is best run with
+     * {@link #run(String, String, Runnable)} or {@link #call(String, String, Supplier)}, which close it.
+     *
+     * @param controller the simple name of the controller the action belongs to
+     * @param name       the name of the action, for example "open pane" or "save"
+     * @return the action; an inactive one that counts nothing if the accounting is turned off, or if a measurement is
+     * current, which counts the queries itself
+     */
+    public static Action begin(String controller, String name) {
+        Action current = currentAction.get();
+        if (!enabled || current != null && current.measurement) {
+            return INACTIVE;
+        }
+        return start(controller, name, false);
+    }
+
+    private static Action start(String controller, String name, boolean measurement) {
+        Action action = new Action(controller, name, new QueryStats(), totalsOf(controller, name), currentAction.get(), measurement);
+        action.stats.recordAction();
+        action.totals.recordAction();
+        currentAction.set(action);
+        return action;
+    }
+
+    /**
+     * Runs the given work as an action on the current thread. The action is closed when the work returns, but the
+     * work it started in the background, for example through the {@link DatabaseExecutor}, keeps counting into it.
+     *
+     * @param controller the simple name of the controller the action belongs to
+     * @param name       the name of the action, for example "open pane" or "save"
+     * @param work       the work of the action
+     */
+    public static void run(String controller, String name, Runnable work) {
+        Action action = begin(controller, name);
+        try {
+            work.run();
+        } finally {
+            action.close();
+        }
+    }
+
+    /**
+     * Runs the given work as an action on the current thread and returns its result, for example the future of a
+     * query it started in the background, see {@link #run(String, String, Runnable)}.
+     *
+     * @param controller the simple name of the controller the action belongs to
+     * @param name       the name of the action
+     * @param work       the work of the action
+     * @param <R>        the type of the result
+     * @return the result of the work
+     */
+    public static <R> R call(String controller, String name, Supplier<R> work) {
+        Action action = begin(controller, name);
+        try {
+            return work.get();
+        } finally {
+            action.close();
+        }
+    }
+
+    /**
+     * Returns the action of the current thread, to run work on another thread under it.
+     *
+     * @return the current action, or null if there is none
+     */
+    public static Action currentAction() {
+        return currentAction.get();
+    }
+
+    /**
+     * Runs the given query under the given action, for example on another thread than the one that started it.
+     *
+     * @param action the action, or null to run the query under the action of the current thread
+     * @param query  the query to run
+     * @param <R>    the type of the result
+     * @return the result of the query
+     * @throws SQLException if the query fails
+     */
+    public static <R> R callAs(Action action, DatabaseExecutor.Query<R> query) throws SQLException {
+        if (action == null || action == currentAction.get()) {
+            return query.get();
+        }
+        Action previous = currentAction.get();
+        currentAction.set(action);
+        try {
+            return query.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs the given task under the given action, for example on another thread than the one that started it.
+     *
+     * @param action the action, or null to run the task under the action of the current thread
+     * @param task   the task to run
+     */
+    public static void runAs(Action action, Runnable task) {
+        if (action == null || action == currentAction.get()) {
+            task.run();
+            return;
+        }
+        Action previous = currentAction.get();
+        currentAction.set(action);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Wraps a leased connection so it counts its queries into the current action. If the accounting is turned off
+     * and no measurement is current, the connection is returned as it is.
+     *
+     * @param connection the leased connection
+     * @return the connection that counts its queries
+     */
+    static Connection instrument(Connection connection) {
+        Action action = currentAction.get();
+        if (!enabled && (action == null || !action.measurement)) {
+            return connection;
+        }
+        return InstrumentedConnection.wrap(connection, action == null || action == INACTIVE ? unattributedAction : action);
+    }
+
+    /**
+     * Sets the budget of all actions with the given controller and name. Every action that exceeds it prints a
+     * warning once.
+     *
+     * @param controller the simple name of the controller
+     * @param name       the name of the action
+     * @param budget     the budget, or null to remove it
+     */
+    public static void setBudget(String controller, String name, QueryBudget budget) {
+        if (budget == null) {
+            budgets.remove(key(controller, name));
+        } else {
+            budgets.put(key(controller, name), budget);
+        }
+    }
+
+    /**
+     * Runs the given work as an action on the current thread and returns what it sent to the database. The queries
+     * are counted even if the accounting is turned off; actions the work begins are counted into the measurement.
+     *
+     * @param controller the simple name of the controller the action belongs to
+     * @param name       the name of the action
+     * @param work       the work of the action
+     * @return the stats of the action
+     * @throws SQLException if the work fails
+     */
+    public static QueryStats measure(String controller, String name, DatabaseExecutor.Update work) throws SQLException {
+        try (Action action = start(controller, name, true)) {
+            work.run();
+            return action.getStats();
+        }
+    }
+
+    /**
+     * Starts the given asynchronous work as an action, waits until it is done and returns what it sent to the
+     * database, see {@link #measure(String, String, DatabaseExecutor.Update)}.
+     *
+     * @param controller the simple name of the controller the action belongs to
+     * @param name       the name of the action
+     * @param work       starts the work of the action, for example through the {@link DatabaseExecutor}
+     * @return the stats of the action
+     * @throws java.util.concurrent.CompletionException if the work fails
+     */
+    public static QueryStats measureAsync(String controller, String name, Supplier<CompletableFuture<?>> work) {
+        try (Action action = start(controller, name, true)) {
+            work.get().join();
+            return action.getStats();
+        }
+    }
+
+    /**
+     * Returns the stats of all actions with the given controller and name since the last {@link #reset()}.
+     *
+     * @param controller the simple name of the controller
+     * @param name       the name of the action
+     * @return the stats, which are zero if there was no such action
+     */
+    public static QueryStats getTotals(String controller, String name) {
+        return totalsOf(controller, name);
+    }
+
+    /**
+     * Sets the stats of all actions back to zero. Budgets are kept.
+     */
+    public static void reset() {
+        totals.values().forEach(QueryStats::reset);
+    }
+
+    /**
+     * Prints the stats of all actions, sorted by controller and name, with the average work of one action.
+     */
+    public static void printReport() {
+        String format = "%-40s %8s %10s %10s %10s %10s %12s%n";
+        System.out.printf(Locale.ROOT, format, "Action", "Count", "Stmts/act", "Trips/act", "Rows/act", "Written", "Bytes recv");
+        new TreeMap<>(totals).forEach((key, stats) -> {
+            long actions = Math.max(stats.getActions(), 1);
+            if (stats.getRoundTrips() == 0) {
+                return;
+            }
+            // the unattributed queries belong to no action
+            System.out.printf(Locale.ROOT, format, key, stats.getActions() == 0 ? "-" : String.valueOf(stats.getActions()),
+                    String.format(Locale.ROOT, "%.1f", stats.getStatements() / (double) actions),
+                    String.format(Locale.ROOT, "%.1f", stats.getRoundTrips() / (double) actions),
+                    String.format(Locale.ROOT, "%.1f", stats.getRowsRead() / (double) actions),
+                    stats.getRowsWritten(), stats.getBytesReceived());
+        });
+    }
+
+    private static QueryStats totalsOf(String controller, String name) {
+        return totals.computeIfAbsent(key(controller, name), ignored -> new QueryStats());
+    }
+
+    private static String key(String controller, String name) {
+        return controller + ": " + name;
+    }
+
+    private static void restore(Action previous) {
+        if (previous == null) {
+            currentAction.remove();
+        } else {
+            currentAction.set(previous);
+        }
+    }
+
+    /**
+     * One action of the user interface, for example opening a pane or saving an edit. Its stats grow as long as work
+     * that was started under it sends queries, also after it was closed.
+     */
+    public static final class Action implements AutoCloseable {
+        private final String controller;
+        private final String name;
+        private final QueryStats stats;
+        private final QueryStats totals;
+        private final Action previous;
+        /**
+         * Whether the action was started by a measurement, which counts its queries even if the accounting is off.
+         */
+        private final boolean measurement;
+        private volatile boolean budgetExceeded;
+
+        private Action(String controller, String name, QueryStats stats, QueryStats totals, Action previous, boolean measurement) {
+            this.controller = controller;
+            this.name = name;
+            this.stats = stats;
+            this.totals = totals;
+            this.previous = previous;
+            this.measurement = measurement;
+        }
+
+        public String getController() {
+            return controller;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns what the action has sent to the database so far.
+         *
+         * @return the stats of this action
+         */
+        public QueryStats getStats() {
+            return stats;
+        }
+
+        void recordExecution(String sql, int statementCount, long sentBytes) {
+            stats.recordExecution(sql, statementCount, sentBytes);
+            if (totals != stats) {
+                totals.recordExecution(sql, statementCount, sentBytes);
+            }
+            checkBudget();
+        }
+
+        void recordRoundTrip() {
+            stats.recordRoundTrip();
+            if (totals != stats) {
+                totals.recordRoundTrip();
+            }
+            checkBudget();
+        }
+
+        void recordRowRead() {
+            stats.recordRowRead();
+            if (totals != stats) {
+                totals.recordRowRead();
+            }
+            checkBudget();
+        }
+
+        void recordRowsWritten(long rows) {
+            stats.recordRowsWritten(rows);
+            if (totals != stats) {
+                totals.recordRowsWritten(rows);
+            }
+        }
+
+        void recordBytesReceived(long bytes) {
+            stats.recordBytesReceived(bytes);
+            if (totals != stats) {
+                totals.recordBytesReceived(bytes);
+            }
+            checkBudget();
+        }
+
+        /**
+         * Prints a warning the first time the action exceeds its budget.
+         */
+        private void checkBudget() {
+            if (budgetExceeded || totals == stats) {
+                return;
+            }
+            QueryBudget budget = budgets.get(key(controller, name));
+            if (budget == null) {
+                return;
+            }
+            List<String> exceededLimits = budget.getExceededLimits(stats);
+            if (!exceededLimits.isEmpty()) {
+                budgetExceeded = true;
+                System.err.printf("%s exceeded its query budget: %s%n", this, String.join(", ", exceededLimits));
+            }
+        }
+
+        /**
+         * Makes the action that was current before this one current again. Work that was started under this action
+         * keeps counting into it.
+         */
+        @Override
+        public void close() {
+            if (this != INACTIVE && currentAction.get() == this) {
+                restore(previous);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return key(controller, name);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package model.databaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+/**
+
+ The most database work one action of the user interface may cause, see {@link QueryAccounting}. A budget is
+ immutable; every limit starts out unlimited and is set with one of the {@code with} methods, for example
+ {@code QueryBudget.unlimited().withStatements(3).withRoundTrips(3)}.
+ */
+public final class QueryBudget {
+    private static final long UNLIMITED = -1;
+    private static final QueryBudget UNLIMITED_BUDGET = new QueryBudget(UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED);
+
+    private final long statements;
+    private final long roundTrips;
+    private final long rowsRead;
+    private final long bytesReceived;
+
+    private QueryBudget(long statements, long roundTrips, long rowsRead, long bytesReceived) {
+        this.statements = statements;
+        this.roundTrips = roundTrips;
+        this.rowsRead = rowsRead;
+        this.bytesReceived = bytesReceived;
+    }
+
+    /**
+     * Returns a budget without limits.
+     *
+     * @return the budget
+     */
+    public static QueryBudget unlimited() {
+        return UNLIMITED_BUDGET;
+    }
+
+    public QueryBudget withStatements(long statements) {
+        return new QueryBudget(statements, roundTrips, rowsRead, bytesReceived);
+    }
+
+    public QueryBudget withRoundTrips(long roundTrips) {
+        return new QueryBudget(statements, roundTrips, rowsRead, bytesReceived);
+    }
+
+    public QueryBudget withRowsRead(long rowsRead) {
+        return new QueryBudget(statements, roundTrips, rowsRead, bytesReceived);
+    }
+
+    public QueryBudget withBytesReceived(long bytesReceived) {
+        return new QueryBudget(statements, roundTrips, rowsRead, bytesReceived);
+    }
+
+    /**
+     * Returns the limits of this budget the given stats exceed.
+     *
+     * @param stats the stats of an action
+     * @return a description of every exceeded limit, for example "4 statements (budget 3)"; empty if the stats are
+     * within the budget
+     */
+    public List<String> getExceededLimits(QueryStats stats) {
+        List<String> exceededLimits = new ArrayList<>();
+        addIfExceeded(exceededLimits, "statements", stats.getStatements(), statements);
+        addIfExceeded(exceededLimits, "round trips", stats.getRoundTrips(), roundTrips);
+        addIfExceeded(exceededLimits, "rows read", stats.getRowsRead(), rowsRead);
+        addIfExceeded(exceededLimits, "bytes received", stats.getBytesReceived(), bytesReceived);
+        return exceededLimits;
+    }
+
+    private static void addIfExceeded(List<String> exceededLimits, String name, long value, long limit) {
+        if (limit != UNLIMITED && value > limit) {
+            exceededLimits.add(value + " " + name + " (budget " + limit + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QueryBudget{" +
+                "statements=" + statements +
+                ", roundTrips=" + roundTrips +
+                ", rowsRead=" + rowsRead +
+                ", bytesReceived=" + bytesReceived +
+                '}';
+    }
+}
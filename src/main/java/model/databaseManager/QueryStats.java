@@ -0,0 +1,166 @@
+package model.databaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+/**
+
+ The statements, round trips, rows and bytes counted by {@link QueryAccounting}, either for one action of the user
+ interface or for all actions with the same controller and name. The counters can be updated by any number of
+ threads at once. The SQL of the first statements is kept, so a report can show which statements an action sent.
+ */
+public final class QueryStats {
+    /**
+     * The number of statements whose SQL is kept.
+     */
+    public static final int MAXIMUM_RECORDED_SQL = 50;
+
+    private final LongAdder actions = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder roundTrips = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final List<String> recordedSql = new ArrayList<>();
+
+    void recordAction() {
+        actions.increment();
+    }
+
+    void recordExecution(String sql, int statementCount, long sentBytes) {
+        statements.add(statementCount);
+        roundTrips.increment();
+        bytesSent.add(sentBytes);
+        synchronized (recordedSql) {
+            if (recordedSql.size() < MAXIMUM_RECORDED_SQL) {
+                recordedSql.add(sql);
+            }
+        }
+    }
+
+    void recordRoundTrip() {
+        roundTrips.increment();
+    }
+
+    void recordRowRead() {
+        rowsRead.increment();
+    }
+
+    void recordRowsWritten(long rows) {
+        rowsWritten.add(rows);
+    }
+
+    void recordBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * Sets all counters back to zero and forgets the recorded SQL.
+     */
+    void reset() {
+        actions.reset();
+        statements.reset();
+        roundTrips.reset();
+        rowsRead.reset();
+        rowsWritten.reset();
+        bytesSent.reset();
+        bytesReceived.reset();
+        synchronized (recordedSql) {
+            recordedSql.clear();
+        }
+    }
+
+    /**
+     * Returns the number of actions counted into these stats; 1 for the stats of a single action.
+     *
+     * @return the number of actions
+     */
+    public long getActions() {
+        return actions.sum();
+    }
+
+    /**
+     * Returns the number of SQL statements, where a batch counts every statement it holds and a multi-statement
+     * query every statement separated by a semicolon.
+     *
+     * @return the number of statements
+     */
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    /**
+     * Returns the number of times the driver waited for the database: one for every execution, batch and
+     * transaction control call, and one for every further block of a result set read with a fetch size.
+     *
+     * @return the number of round trips
+     */
+    public long getRoundTrips() {
+        return roundTrips.sum();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+
+    /**
+     * Returns the estimated size of the SQL and the parameters sent to the database, see {@link QueryAccounting}.
+     *
+     * @return the number of bytes
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Returns the estimated size of the column values read from result sets, see {@link QueryAccounting}.
+     *
+     * @return the number of bytes
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Returns the SQL of the first {@link #MAXIMUM_RECORDED_SQL} executions, in the order they were sent.
+     *
+     * @return a copy of the recorded SQL
+     */
+    public List<String> getRecordedSql() {
+        synchronized (recordedSql) {
+            return new ArrayList<>(recordedSql);
+        }
+    }
+
+    /**
+     * Checks that these stats are within the given budget, so a test fails if an action sends more queries than it
+     * should.
+     *
+     * @param budget the budget of the action
+     * @throws AssertionError if a limit of the budget is exceeded; the message lists the exceeded limits and the SQL
+     * that was sent
+     */
+    public void assertWithin(QueryBudget budget) {
+        List<String> exceededLimits = budget.getExceededLimits(this);
+        if (exceededLimits.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("The query budget is exceeded: ").append(String.join(", ", exceededLimits));
+        for (String sql : getRecordedSql()) {
+            message.append(System.lineSeparator()).append("  ").append(sql);
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    @Override
+    public String toString() {
+        return getStatements() + " statements, " + getRoundTrips() + " round trips, " + getRowsRead() + " rows read, "
+                + getRowsWritten() + " rows written, " + getBytesSent() + " bytes sent, " + getBytesReceived()
+                + " bytes received";
+    }
+}
@@ -1,12 +1,15 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Database;
 import model.Recipe;
 import model.User;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 /**
 
@@ -14,63 +17,118 @@ import java.util.Optional;
  which allows it to create, read, update, and delete recipe objects in the database. It also includes a method to find a recipe by their name in the database.
  */
 public class RecipeDatabaseManager extends DatabaseManagerWithEditAndCreateAndDelete<Recipe> {
+    private static final String SELECT_STATEMENT = "SELECT `idRecipe`, `name`, `brewtime`, `amount_beans`, `amount_added_milk`, `water_pressure`, `image` FROM Recipe";
     /**
-     * Returns an observable list of all the recipes in the database.
-     *
-     * @return an observable list of all the recipes in the database
-     * @throws SQLException if there is a problem with the database connection or the SQL query
+     * Reads the columns the recipe table shows, without the image.
      */
+    private static final String LIST_SELECT_STATEMENT = "SELECT `idRecipe`, `name`, `brewtime`, `amount_beans`, `amount_added_milk`, `water_pressure` FROM Recipe";
+    private static final IndexedRowMapper<Recipe> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idRecipe", "name", "brewtime", "amount_beans", "amount_added_milk", "water_pressure", "image"),
+            row -> {
+                Recipe recipe = new Recipe(row.getString(1), row.getInt(2), row.getInt(3), row.getInt(4), row.getInt(5), row.getString(6));
+                recipe.setId(row.getInt(0));
+                return recipe;
+            });
+    private static final IndexedRowMapper<Recipe> LIST_ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idRecipe", "name", "brewtime", "amount_beans", "amount_added_milk", "water_pressure"),
+            row -> {
+                Recipe recipe = new Recipe(row.getString(1), row.getInt(2), row.getInt(3), row.getInt(4), row.getInt(5), null);
+                recipe.setId(row.getInt(0));
+                return recipe;
+            });
+    private static final String UPDATE_STATEMENT = "UPDATE Recipe SET `name` = ?, `brewtime` = ?, `amount_beans` = ?, `amount_added_water` = ?, `amount_added_milk` = ?, `water_pressure` = ?, `image` = ? WHERE `idRecipe` = ?";
+    private static final String INSERT_STATEMENT = "INSERT INTO Recipe (`name`, `brewtime`, `amount_beans`, `amount_added_water`, `amount_added_milk`, `water_pressure`, `filling_capacity`, `water_temperature`, `Spoon_idspoon`, `Cup_idcup`, `image`) VALUES (?, ?, ?, ?, ?, ?, 25, 90, 2, 2, ?)";
+    private static final String DELETE_STATEMENT = "DELETE FROM Recipe WHERE `idRecipe` = ?";
+    private static final List<PageQuery.SortColumn<Recipe>> SORT_COLUMNS = List.of(
+            new PageQuery.SortColumn<>("name", "`name`", Recipe::getName),
+            new PageQuery.SortColumn<>("brewtime", "`brewtime`", Recipe::getBrewtime),
+            new PageQuery.SortColumn<>("amountOfBeans", "`amount_beans`", Recipe::getAmountOfBeans),
+            new PageQuery.SortColumn<>("amountOfMilk", "`amount_added_milk`", Recipe::getAmountOfMilk),
+            new PageQuery.SortColumn<>("waterPressure", "`water_pressure`", Recipe::getWaterPressure));
+    private static final List<PageQuery.Filter> FILTERS = List.of(
+            PageQuery.Filter.startsWith("Name starts with", "`name`"),
+            PageQuery.Filter.atMost("Brewtime at most (s)", "`brewtime`"));
+
     @Override
-    public ObservableList<Recipe> getAllFromProperty() throws SQLException {
-        ObservableList<Recipe> recipes = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM Recipe"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            Recipe recipe = new Recipe(rs);
-            recipes.add(recipe);
-        }
-        getStmt().close();
-        return recipes;
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<Recipe> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected String getListSelectStatement() {
+        return LIST_SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<Recipe> getListRowMapper() {
+        return LIST_ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        return List.of("Recipe");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "`idRecipe`";
+    }
+
+    @Override
+    protected Object getKey(Recipe property) {
+        return property.getId();
+    }
+
+    @Override
+    public List<PageQuery.SortColumn<Recipe>> getSortColumns() {
+        return SORT_COLUMNS;
+    }
+
+    @Override
+    public List<PageQuery.Filter> getFilters() {
+        return FILTERS;
     }
     /**
-     * Updates the given recipe object in the database.
+     * Updates the given recipe object in the database, which is found by its id, so it can be renamed. If another
+     * recipe already has the new name, the unique index on the name rejects the update, see
+     * {@link DatabaseManager#isDuplicateKey(Throwable)}.
      *
      * @param updatedProperty the recipe object to update in the database
      * @throws SQLException if there is a problem with the database connection or the SQL query
      */
     @Override
     public void updatePropertyInDB(Recipe updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE Recipe SET `name` = ?, `brewtime` = ?, `amount_beans` = ?, `amount_added_water` = ?, `amount_added_milk` = ?, `water_pressure` = ?, `image` = ? WHERE `name` = ?"));
-        getStmt().setString(1, updatedProperty.getName());
-        getStmt().setInt(2, updatedProperty.getBrewtime());
-        getStmt().setInt(3, updatedProperty.getAmountOfBeans());
-        getStmt().setInt(4, 0);
-        getStmt().setInt(5, updatedProperty.getAmountOfMilk());
-        getStmt().setInt(6, updatedProperty.getWaterPressure());
-        getStmt().setString(7, updatedProperty.getImageURL());
-        getStmt().setString(8, updatedProperty.getFormerName());
-        getStmt().executeUpdate();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
+        }
     }
     /**
-     * Creates a new recipe object in the database.
+     * Creates a new recipe object in the database. If a recipe with the same name already exists, the unique index on
+     * the name rejects the insert, see {@link DatabaseManager#isDuplicateKey(Throwable)}. The generated id is set as
+     * the id of the recipe.
      *
      * @param newProperty the recipe object to create in the database
      * @throws SQLException if there is a problem with the database connection or the SQL query
      */
     @Override
     public void createNewPropertyInDB(Recipe newProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("INSERT INTO Recipe (`name`, `brewtime`, `amount_beans`, `amount_added_water`, `amount_added_milk`, `water_pressure`, `filling_capacity`, `water_temperature`, `Spoon_idspoon`, `Cup_idcup`, `image`) VALUES (?, ?, ?, ?, ?, ?, 25, 90, 2, 2, ?)"));
-        getStmt().setString(1, newProperty.getName());
-        getStmt().setInt(2, newProperty.getBrewtime());
-        getStmt().setInt(3, newProperty.getAmountOfBeans());
-        getStmt().setInt(4, 0);
-        getStmt().setInt(5, newProperty.getAmountOfMilk());
-        getStmt().setInt(6, newProperty.getWaterPressure());
-        getStmt().setString(7, newProperty.getImageURL());
-
-        getStmt().executeUpdate();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_STATEMENT, Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(statement, newProperty);
+            statement.executeUpdate();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    newProperty.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
     }
     /**
      * Deletes the given recipe object from the database.
@@ -80,10 +138,48 @@ public class RecipeDatabaseManager extends DatabaseManagerWithEditAndCreateAndDe
      */
     @Override
     public void deletePropertyFromDB(Recipe propertyToDelete) throws SQLException {
-        setStmt(getConnection().prepareStatement("DELETE FROM Recipe WHERE `name` = ?"));
-        getStmt().setString(1, propertyToDelete.getName());
-        getStmt().execute();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_STATEMENT)) {
+            setDeleteParameters(statement, propertyToDelete);
+            statement.execute();
+        }
+    }
+    /**
+     * Updates all given recipe objects in the database with JDBC batches inside a single transaction.
+     *
+     * @param updatedProperties the recipe objects to update in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<Recipe> updateAll(Collection<Recipe> updatedProperties) throws SQLException {
+        return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
+    }
+    /**
+     * Creates all given recipe objects in the database with JDBC batches inside a single transaction. Once it is
+     * committed, the generated ids are set as the ids of the recipes; if it is rolled back, the recipes keep their ids.
+     *
+     * @param newProperties the recipe objects to create in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<Recipe> createAll(Collection<Recipe> newProperties) throws SQLException {
+        List<Recipe> recipes = new ArrayList<>(newProperties);
+        Map<Recipe, Integer> ids = new IdentityHashMap<>();
+        return executeInTransaction(recipes, connection -> executeBatch(connection, INSERT_STATEMENT, recipes, this::setInsertParameters, ids),
+                () -> ids.forEach(Recipe::setId));
+    }
+    /**
+     * Deletes all given recipe objects from the database with JDBC batches inside a single transaction.
+     *
+     * @param propertiesToDelete the recipe objects to delete from the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<Recipe> deleteAll(Collection<Recipe> propertiesToDelete) throws SQLException {
+        return executeBatch(DELETE_STATEMENT, propertiesToDelete, this::setDeleteParameters);
     }
     /**
 
@@ -93,13 +189,41 @@ public class RecipeDatabaseManager extends DatabaseManagerWithEditAndCreateAndDe
      @throws SQLException if there is an error accessing the database
      */
     public Optional<Recipe> findRecipeByName(String name) throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM Recipe WHERE `name` = ?"));
-        getStmt().setString(1, name);
-        ResultSet rs = getStmt().executeQuery();
-        if (!rs.next()){
-            return Optional.empty();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STATEMENT + " WHERE `name` = ?")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()){
+                    return Optional.empty();
+                }
+
+                return Optional.of(ROW_MAPPER.compile(rs).mapRow(rs));
+            }
         }
+    }
+
+    private void setUpdateParameters(PreparedStatement statement, Recipe recipe) throws SQLException {
+        statement.setString(1, recipe.getName());
+        statement.setInt(2, recipe.getBrewtime());
+        statement.setInt(3, recipe.getAmountOfBeans());
+        statement.setInt(4, 0);
+        statement.setInt(5, recipe.getAmountOfMilk());
+        statement.setInt(6, recipe.getWaterPressure());
+        statement.setString(7, recipe.getImageURL());
+        statement.setInt(8, recipe.getId());
+    }
+
+    private void setInsertParameters(PreparedStatement statement, Recipe recipe) throws SQLException {
+        statement.setString(1, recipe.getName());
+        statement.setInt(2, recipe.getBrewtime());
+        statement.setInt(3, recipe.getAmountOfBeans());
+        statement.setInt(4, 0);
+        statement.setInt(5, recipe.getAmountOfMilk());
+        statement.setInt(6, recipe.getWaterPressure());
+        statement.setString(7, recipe.getImageURL());
+    }
 
-        return Optional.ofNullable(new Recipe(rs));
+    private void setDeleteParameters(PreparedStatement statement, Recipe recipe) throws SQLException {
+        statement.setInt(1, recipe.getId());
     }
 }
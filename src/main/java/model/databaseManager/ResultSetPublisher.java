@@ -0,0 +1,161 @@
+package model.databaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+
+ A {@link Flow.Publisher} that streams the rows of one query to its subscribers. Every subscriber gets its own
+ connection, statement and result set. They are opened when the first row is requested and closed when the stream
+ completes, fails or is cancelled. Rows are only read from the result set while the subscriber has outstanding demand,
+ and the driver fetches them from the database in chunks of the fetch size, so the heap used by a stream does not
+ grow with the size of the table. Rows are emitted on the threads of the {@link DatabaseExecutor}, but never by two
+ threads at once.
+ @param <T> the type of object created from every row
+ */
+class ResultSetPublisher<T> implements Flow.Publisher<T> {
+    private final DatabaseExecutor.Query<Connection> connectionSource;
+    private final String sql;
+    private final int fetchSize;
+    private final IndexedRowMapper<T> rowMapper;
+
+    ResultSetPublisher(DatabaseExecutor.Query<Connection> connectionSource, String sql, int fetchSize, IndexedRowMapper<T> rowMapper) {
+        this.connectionSource = connectionSource;
+        this.sql = sql;
+        this.fetchSize = fetchSize;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    /**
+     * The state of one stream. Everything except the demand, the pending work and the cancel flag is only touched by
+     * the drain loop, which runs on one executor thread at a time.
+     */
+    private class RowSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingWork = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        private boolean done;
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private RowMapper<T> compiledRowMapper;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of requested rows has to be positive, but was " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (pendingWork.getAndIncrement() == 0) {
+                DatabaseExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = pendingWork.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            try {
+                long requested = demand.get();
+                while (true) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    if (invalidRequest != null) {
+                        finish();
+                        subscriber.onError(invalidRequest);
+                        return;
+                    }
+                    if (requested == 0) {
+                        return;
+                    }
+                    if (resultSet == null) {
+                        open();
+                    }
+                    if (!resultSet.next()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(compiledRowMapper.mapRow(resultSet));
+                    requested = requested == Long.MAX_VALUE ? requested : demand.decrementAndGet();
+                }
+            } catch (SQLException sqlException) {
+                finish();
+                subscriber.onError(sqlException);
+            } catch (RuntimeException runtimeException) {
+                // a subscriber that throws has broken the stream, so it is treated as cancelled
+                finish();
+                runtimeException.printStackTrace();
+            }
+        }
+
+        private void open() throws SQLException {
+            connection = connectionSource.get();
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+            compiledRowMapper = rowMapper.compile(resultSet);
+        }
+
+        private void finish() {
+            done = true;
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(connection);
+            resultSet = null;
+            compiledRowMapper = null;
+            statement = null;
+            connection = null;
+        }
+
+        private void closeQuietly(AutoCloseable resource) {
+            if (resource == null) {
+                return;
+            }
+            try {
+                resource.close();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package model.databaseManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+
+ Creates one object of type {@code T} from the current row of a {@link ResultSet}.
+ The mapper must not move the cursor of the result set.
+ @param <T> the type of object created from a row
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
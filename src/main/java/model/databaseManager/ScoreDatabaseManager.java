@@ -1,12 +1,14 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Score;
 import model.User;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 /**
 
@@ -16,35 +18,60 @@ import java.util.Optional;
  and get a score by its ID.
  */
 public class ScoreDatabaseManager extends DatabaseManagerWithEdit<Score> {
+    private static final String SELECT_STATEMENT = "SELECT `idScore`, `highscore` FROM Score";
+    private static final IndexedRowMapper<Score> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idScore", "highscore"),
+            row -> new Score(row.getInt(0), row.getInt(1)));
+    private static final String UPDATE_STATEMENT = "UPDATE Score SET `highscore` = ? WHERE `idScore` = ?";
+
+    @Override
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<Score> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        return List.of("Score");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "`idScore`";
+    }
+
+    @Override
+    protected Object getKey(Score property) {
+        return property.getId();
+    }
+
     /**
-     * Returns an ObservableList of all Score objects in the Score table.
-     * @return an ObservableList of all Score objects in the Score table.
+     * Updates a Score object in the Score table.
+     * @param updatedProperty the Score object to update.
      * @throws SQLException if there is an error accessing the database.
      */
     @Override
-    public ObservableList<Score> getAllFromProperty() throws SQLException {
-        ObservableList<Score> scores = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM Score"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            scores.add(new Score(rs));
+    public void updatePropertyInDB(Score updatedProperty) throws SQLException {
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
         }
-        getStmt().close();
-        return scores;
     }
 
     /**
-     * Updates a Score object in the Score table.
-     * @param updatedProperty the Score object to update.
+     * Updates all given Score objects in the Score table with JDBC batches inside a single transaction.
+     * @param updatedProperties the Score objects to update.
+     * @return the result of the batch.
      * @throws SQLException if there is an error accessing the database.
      */
     @Override
-    public void updatePropertyInDB(Score updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE Score SET `highscore` = ? WHERE `idScore` = ?"));
-        getStmt().setInt(1, updatedProperty.getHighscore());
-        getStmt().setInt(2, updatedProperty.getId());
-        getStmt().executeUpdate();
-        getStmt().close();
+    public BatchResult<Score> updateAll(Collection<Score> updatedProperties) throws SQLException {
+        return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
     }
 
     /**
@@ -54,13 +81,21 @@ public class ScoreDatabaseManager extends DatabaseManagerWithEdit<Score> {
      * @throws SQLException if there is an error accessing the database.
      */
     public Optional<Score> getScoreById(int id) throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM Score WHERE `idScore` = ?"));
-        getStmt().setInt(1, id);
-        ResultSet rs = getStmt().executeQuery();
-        if (!rs.next()){
-            return Optional.empty();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STATEMENT + " WHERE `idScore` = ?")) {
+            statement.setInt(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()){
+                    return Optional.empty();
+                }
+
+                return Optional.of(ROW_MAPPER.compile(rs).mapRow(rs));
+            }
         }
+    }
 
-        return Optional.ofNullable(new Score(rs));
+    private void setUpdateParameters(PreparedStatement statement, Score score) throws SQLException {
+        statement.setInt(1, score.getHighscore());
+        statement.setInt(2, score.getId());
     }
 }
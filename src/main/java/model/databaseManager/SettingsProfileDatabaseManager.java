@@ -1,11 +1,14 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.SettingsProfile;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 /**
 
@@ -13,22 +16,43 @@ import java.util.Optional;
  The class extends the abstract class DatabaseManagerWithEdit and overrides its methods to handle SettingsProfile objects.
  */
 public class SettingsProfileDatabaseManager extends DatabaseManagerWithEdit<SettingsProfile> {
+    private static final String SELECT_STATEMENT = "SELECT `name`, `inDarkMode`, `font_size`, `font_family` FROM Setting_Profiles_Authoringtool";
+    private static final IndexedRowMapper<SettingsProfile> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("name", "inDarkMode", "font_size", "font_family"),
+            row -> new SettingsProfile(row.getString(0), row.getInt(1) != 0, row.getInt(2),
+                    SettingsProfile.convertStringToFontFamily(row.getString(3))));
+    private static final String UPDATE_STATEMENT = "UPDATE Setting_Profiles_Authoringtool SET `inDarkMode` = ?, `font_size` = ?, `font_family` = ? WHERE `name` = ?";
+    private static final String SELECT_BY_NAME_STATEMENT = SELECT_STATEMENT + " WHERE `name` = ?";
     /**
-     * This method returns an ObservableList containing all the SettingsProfile objects stored in the database.
-     * It executes a SELECT statement and then iterates over the ResultSet to create SettingsProfile objects.
-     * @return an ObservableList containing all the SettingsProfile objects stored in the database
-     * @throws SQLException if a database access error occurs or this method is called on a closed Statement
+     * The profiles looked up by their name. It is shared by all profile managers, so a write through any of them
+     * invalidates the profiles the others have cached. Callers only get copies of the cached profiles, because they
+     * change the profiles they get.
      */
+    private static final EntityCache<String, SettingsProfile> PROFILES_BY_NAME = new EntityCache<>();
+
     @Override
-    public ObservableList<SettingsProfile> getAllFromProperty() throws SQLException {
-        ObservableList<SettingsProfile> settingProfiles = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM Setting_Profiles_Authoringtool"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            settingProfiles.add(new SettingsProfile(rs));
-        }
-        getStmt().close();
-        return settingProfiles;
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<SettingsProfile> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        return List.of("Setting_Profiles_Authoringtool");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "`name`";
+    }
+
+    @Override
+    protected Object getKey(SettingsProfile property) {
+        return property.getName();
     }
 
     /**
@@ -39,64 +63,97 @@ public class SettingsProfileDatabaseManager extends DatabaseManagerWithEdit<Sett
      */
     @Override
     public void updatePropertyInDB(SettingsProfile updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE Setting_Profiles_Authoringtool SET `inDarkMode` = ?, `font_size` = ?, `font_family` = ? WHERE `name` = ?"));
-        getStmt().setInt(1, (int) updatedProperty.isInDarkModeAsInt());
-        getStmt().setInt(2, updatedProperty.getFontSize());
-        getStmt().setString(3, updatedProperty.getFontFamily().toString());
-        getStmt().setString(4, updatedProperty.getName());
-        getStmt().executeUpdate();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
+        } finally {
+            if (updatedProperty.getName() != null) {
+                PROFILES_BY_NAME.invalidate(cacheKey(updatedProperty.getName()));
+            }
+        }
+    }
+
+    /**
+     * This method updates all SettingsProfile objects specified in the argument with JDBC batches inside a single transaction.
+     * @param updatedProperties the SettingsProfile objects to be updated in the database
+     * @return the result of the batch
+     * @throws SQLException if a database access error occurs or the transaction could not be run
+     */
+    @Override
+    public BatchResult<SettingsProfile> updateAll(Collection<SettingsProfile> updatedProperties) throws SQLException {
+        try {
+            return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
+        } finally {
+            PROFILES_BY_NAME.invalidateAll();
+        }
     }
 
     /**
      * This method returns an Optional containing the SettingsProfile object that represents the current settings configuration.
-     * It executes a SELECT statement with the name "Current" and returns an Optional containing the SettingsProfile object created from the ResultSet.
+     * It returns a copy of the cached profile with the name "Current", see {@link #getProfileByName(String)}.
      * @return an Optional containing the SettingsProfile object that represents the current settings configuration, or an empty Optional if no result is returned from the database
      * @throws SQLException if a database access error occurs or this method is called on a closed Statement
      */
     public Optional<SettingsProfile> getCurrentSettings() throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM Setting_Profiles_Authoringtool WHERE `name` = ?"));
-        getStmt().setString(1, "Current");
-        ResultSet rs = getStmt().executeQuery();
-        if (!rs.next()){
-            return Optional.empty();
-        }
-        return Optional.ofNullable(new SettingsProfile(rs));
+        return getProfileByName("Current");
     }
 
 /**
  * This method returns an Optional containing the SettingsProfile object that represents the default settings configuration.
- * It executes a SELECT statement with the name "Default" and returns an Optional containing the SettingsProfile object created from the ResultSet.
+ * It returns a copy of the cached profile with the name "Default", see {@link #getProfileByName(String)}.
  * @return an Optional containing the SettingsProfile object that represents the default settings configuration,
  * @throws SQLException if a database access error occurs or this method is called on a closed Statement
  */
     public Optional<SettingsProfile> getDefaultSettings() throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM Setting_Profiles_Authoringtool WHERE `name` = ?"));
-        getStmt().setString(1, "Default");
-        ResultSet rs = getStmt().executeQuery();
-        if (!rs.next()){
-            return Optional.empty();
-        }
-
-        return Optional.ofNullable(new SettingsProfile(rs));
+        return getProfileByName("Default");
     }
     /**
 
      Retrieves a SettingsProfile object with the given name from the database, if it exists.
      If no matching profile is found, returns an empty Optional.
+     The profile is cached, so it is only read from the database the first time; every caller gets its own copy.
      @param name the name of the SettingsProfile to retrieve
      @return an Optional containing the retrieved SettingsProfile object, or an empty Optional if no matching profile is found
      @throws SQLException if there is an error accessing the database
      */
     public Optional<SettingsProfile> getProfileByName(String name) throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM Setting_Profiles_Authoringtool WHERE `name` = ?"));
-        getStmt().setString(1, name);
-        ResultSet rs = getStmt().executeQuery();
+        return PROFILES_BY_NAME.get(cacheKey(name), () -> loadProfileByName(name)).map(SettingsProfile::copy);
+    }
 
-        if (!rs.next()){
-            return Optional.empty();
+    /**
+     * Returns the cache of the profiles looked up by their name, for example to read its statistics.
+     *
+     * @return the cache shared by all profile managers
+     */
+    public static EntityCache<String, SettingsProfile> getEntityCache() {
+        return PROFILES_BY_NAME;
+    }
+
+    private Optional<SettingsProfile> loadProfileByName(String name) throws SQLException {
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_NAME_STATEMENT)) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+
+                if (!rs.next()){
+                    return Optional.empty();
+                }
+
+                return Optional.of(ROW_MAPPER.compile(rs).mapRow(rs));
+            }
         }
+    }
+
+    // names are compared case-insensitively by the collation of the database
+    private static String cacheKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
 
-        return Optional.ofNullable(new SettingsProfile(rs));
+    private void setUpdateParameters(PreparedStatement statement, SettingsProfile settingsProfile) throws SQLException {
+        statement.setInt(1, (int) settingsProfile.isInDarkModeAsInt());
+        statement.setInt(2, settingsProfile.getFontSize());
+        statement.setString(3, settingsProfile.getFontFamily().toString());
+        statement.setString(4, settingsProfile.getName());
     }
 }
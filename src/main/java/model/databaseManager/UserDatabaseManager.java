@@ -1,10 +1,14 @@
 package model.databaseManager;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import model.Database;
 import model.User;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 /**
 
@@ -12,91 +16,210 @@ import java.util.Optional;
  */
 public class UserDatabaseManager extends DatabaseManagerWithEditAndCreateAndDelete<User> {
     /**
-     * Returns an observable list of all the users in the database.
-     *
-     * @return an observable list of all the users in the database
-     * @throws SQLException if there is a problem with the database connection or the SQL query
+     * Loads the users together with their highscore, so showing the highscores needs no query per user.
+     */
+    private static final String SELECT_STATEMENT = "SELECT u.`idUser`, u.`name`, u.`mail`, u.`password`, u.`Score_idScore`, s.`highscore` FROM User u LEFT JOIN Score s ON u.`Score_idScore` = s.`idScore`";
+    /**
+     * Reads the columns the user table shows, without the id of the score.
+     */
+    private static final String LIST_SELECT_STATEMENT = "SELECT u.`idUser`, u.`name`, u.`mail`, u.`password`, s.`highscore` FROM User u LEFT JOIN Score s ON u.`Score_idScore` = s.`idScore`";
+    private static final IndexedRowMapper<User> ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idUser", "name", "mail", "password", "Score_idScore", "highscore"),
+            row -> new User(row.getInt(0), row.getString(1), row.getString(2), row.getString(3), row.getInt(4), row.getInt(5)));
+    private static final IndexedRowMapper<User> LIST_ROW_MAPPER = new IndexedRowMapper<>(
+            List.of("idUser", "name", "mail", "password", "highscore"),
+            row -> new User(row.getInt(0), row.getString(1), row.getString(2), row.getString(3), 0, row.getInt(4)));
+    private static final String UPDATE_STATEMENT = "UPDATE User SET `name` = ?, `password` = ?, `mail` = ? WHERE `idUser` = ?";
+    private static final String INSERT_SCORE_STATEMENT = "INSERT INTO Score (`highscore`) VALUES (?)";
+    private static final String INSERT_STATEMENT = "INSERT INTO User (`name`, `password`, `mail`, `Score_idScore`) VALUES (?, ?, ?, ?)";
+    /**
+     * Deletes the score of a user, which is found through the user. The user is deleted with
+     * {@link #DELETE_STATEMENT} afterwards, so no user is left behind whether or not the foreign key of the database
+     * cascades.
      */
+    private static final String DELETE_SCORE_STATEMENT = "DELETE FROM Score WHERE `idScore` = (SELECT `Score_idScore` FROM User WHERE `idUser` = ?)";
+    private static final String DELETE_STATEMENT = "DELETE FROM User WHERE `idUser` = ?";
+    /**
+     * Creates the score and the user of one new user as a single transaction, sent to MySQL in one round trip, and
+     * returns the ids of the new user and its score. The transactions start with BEGIN, which MySQL and H2 both
+     * understand.
+     */
+    private static final String CREATE_UNIT_OF_WORK = "BEGIN; "
+            + "INSERT INTO Score (`highscore`) VALUES (0); "
+            + "SET @idScore = LAST_INSERT_ID(); "
+            + "INSERT INTO User (`name`, `password`, `mail`, `Score_idScore`) VALUES (?, ?, ?, @idScore); "
+            + "SELECT LAST_INSERT_ID(), @idScore; "
+            + "COMMIT";
+    /**
+     * Deletes the score and the user of one user as a single transaction, sent in one round trip.
+     */
+    private static final String DELETE_UNIT_OF_WORK = "BEGIN; " + DELETE_SCORE_STATEMENT + "; " + DELETE_STATEMENT + "; COMMIT";
+    private static final List<PageQuery.SortColumn<User>> SORT_COLUMNS = List.of(
+            new PageQuery.SortColumn<>("id", "u.`idUser`", User::getId),
+            new PageQuery.SortColumn<>("username", "u.`name`", User::getUsername),
+            new PageQuery.SortColumn<>("mail", "u.`mail`", User::getMail),
+            new PageQuery.SortColumn<>("highscore", "s.`highscore`", User::getHighscore));
+    private static final List<PageQuery.Filter> FILTERS = List.of(
+            PageQuery.Filter.startsWith("Username starts with", "u.`name`"),
+            // matches the functional index on the domain of the mail address
+            new PageQuery.Filter("Mail domain", "SUBSTRING_INDEX(u.`mail`, '@', -1) = ?", text -> text.trim().replaceFirst("^@", "")));
+
     @Override
-    public ObservableList<User> getAllFromProperty() throws SQLException {
-        ObservableList<User> users = FXCollections.observableArrayList();
-        setStmt(getConnection().prepareStatement("SELECT * FROM User"));
-        ResultSet rs = getStmt().executeQuery();
-        while (rs.next()) {
-            User user = new User(rs);
-            users.add(user);
-        }
-        getStmt().close();
-        return users;
+    protected String getSelectAllStatement() {
+        return SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<User> getRowMapper() {
+        return ROW_MAPPER;
+    }
+
+    @Override
+    protected String getListSelectStatement() {
+        return LIST_SELECT_STATEMENT;
+    }
+
+    @Override
+    protected IndexedRowMapper<User> getListRowMapper() {
+        return LIST_ROW_MAPPER;
+    }
+
+    @Override
+    protected List<String> getVersionedTables() {
+        // the highscores are read from the Score table
+        return List.of("User", "Score");
+    }
+
+    @Override
+    protected String getKeyColumn() {
+        return "u.`idUser`";
+    }
+
+    @Override
+    protected Object getKey(User property) {
+        return property.getId();
+    }
+
+    @Override
+    public List<PageQuery.SortColumn<User>> getSortColumns() {
+        return SORT_COLUMNS;
+    }
+
+    @Override
+    public List<PageQuery.Filter> getFilters() {
+        return FILTERS;
     }
 
     /**
-     * Updates the given user object in the database.
+     * Updates the given user object in the database. If another user already has the new name, the unique index on
+     * the name rejects the update, see {@link DatabaseManager#isDuplicateKey(Throwable)}.
      *
      * @param updatedProperty the user object to update in the database
      * @throws SQLException if there is a problem with the database connection or the SQL query
      */
     @Override
     public void updatePropertyInDB(User updatedProperty) throws SQLException {
-        setStmt(getConnection().prepareStatement("UPDATE User SET `name` = ?, `password` = ?, `mail` = ? WHERE `idUser` = ?"));
-        getStmt().setString(1, updatedProperty.getUsername());
-        getStmt().setString(2, updatedProperty.getPassword());
-        getStmt().setString(3, updatedProperty.getMail());
-        getStmt().setInt(4, updatedProperty.getId());
-        getStmt().executeUpdate();
-        getStmt().close();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE_STATEMENT)) {
+            setUpdateParameters(statement, updatedProperty);
+            statement.executeUpdate();
+        }
     }
 
     /**
-     * Creates a new user object in the database.
+     * Creates a new user object and its score in the database. Both rows are inserted in one transaction, so no score
+     * is left behind if the user cannot be inserted, for example because the unique index on the name rejects it.
+     * On MySQL the transaction is sent in a single round trip, see {@link Database#getMultiStatementConnection()};
+     * other databases run it as a JDBC transaction. The generated ids are set as the id and score id of the user once
+     * the transaction is committed.
      *
      * @param newProperty the user object to create in the database
      * @throws SQLException if there is a problem with the database connection or the SQL query
      */
     @Override
     public void createNewPropertyInDB(User newProperty) throws SQLException {
-        String sql_Score = "INSERT INTO Score (`highscore`) VALUES (?)";
-        PreparedStatement stmt_Score = getConnection().prepareStatement(sql_Score, Statement.RETURN_GENERATED_KEYS);
-        stmt_Score.setInt(1, 0);
-        stmt_Score.executeUpdate();
-        ResultSet rs_score = stmt_Score.getGeneratedKeys();
-        int score_id = -1;
-        if (rs_score.next()) {
-            score_id = rs_score.getInt(1);
+        if (Database.getInstance().supportsMultiStatements()) {
+            createInOneRoundTrip(newProperty);
+        } else {
+            createInTransaction(newProperty);
         }
-        stmt_Score.close();
-        setStmt(getConnection().prepareStatement("INSERT INTO User (`name`, `password`, `mail`, `Score_idScore`) VALUES (?, ?, ?, ?)"));
-        getStmt().setString(1, newProperty.getUsername());
-        getStmt().setString(2, newProperty.getPassword());
-        getStmt().setString(3, newProperty.getMail());
-        getStmt().setInt(4, score_id);
-        getStmt().execute();
-        getStmt().close();
     }
 
     /**
-     * Deletes the given user object from the database.
+     * Deletes the given user object and its score from the database. Both rows are deleted in one transaction; like
+     * a create, it is sent in a single round trip if the database supports multi-statement queries, and run as a
+     * JDBC transaction otherwise.
      *
      * @param propertyToDelete the user object to delete from the database
      * @throws SQLException if there is a problem with the database connection or the SQL query
      */
     @Override
     public void deletePropertyFromDB(User propertyToDelete) throws SQLException {
-        PreparedStatement scoreStatement = getConnection().prepareStatement("SELECT Score_idScore FROM User WHERE `idUser` = ?");
-        scoreStatement.setInt(1, propertyToDelete.getId());
-        ResultSet rs = scoreStatement.executeQuery();
-        rs.next();
-        int scoreId = rs.getInt(1);
-        PreparedStatement scoreDelete = getConnection().prepareStatement("DELETE FROM Score WHERE `idScore` = ?");
-        scoreDelete.setInt(1, scoreId);
-        scoreDelete.execute();
-        setStmt(getConnection().prepareStatement("DELETE FROM User WHERE `idUser` = ?"));
-        getStmt().setInt(1, propertyToDelete.getId());
-        getStmt().execute();
+        if (Database.getInstance().supportsMultiStatements()) {
+            deleteInOneRoundTrip(propertyToDelete);
+        } else {
+            deleteInTransaction(propertyToDelete);
+        }
+    }
+
+    /**
+     * Updates all given user objects in the database with JDBC batches inside a single transaction.
+     *
+     * @param updatedProperties the user objects to update in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<User> updateAll(Collection<User> updatedProperties) throws SQLException {
+        return executeBatch(UPDATE_STATEMENT, updatedProperties, this::setUpdateParameters);
+    }
+
+    /**
+     * Creates all given user objects in the database inside a single transaction. First the scores of all users are
+     * inserted as one batch, then the users themselves are inserted with the generated ids of their scores as a second
+     * batch. Once the transaction is committed, the generated ids are set as the ids and score ids of the users. If
+     * any row fails, nothing is committed and the users keep their ids.
+     *
+     * @param newProperties the user objects to create in the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<User> createAll(Collection<User> newProperties) throws SQLException {
+        List<User> users = new ArrayList<>(newProperties);
+        Map<User, Integer> scoreIds = new IdentityHashMap<>();
+        Map<User, Integer> ids = new IdentityHashMap<>();
+        return executeInTransaction(users, connection -> {
+            List<BatchResult.Failure<User>> failures = executeBatch(connection, INSERT_SCORE_STATEMENT, users, this::setScoreInsertParameters, scoreIds);
+            if (!failures.isEmpty()) {
+                return failures;
+            }
+            return executeBatch(connection, INSERT_STATEMENT, users,
+                    (statement, user) -> setInsertParameters(statement, user, scoreIds.get(user)), ids);
+        }, () -> {
+            scoreIds.forEach(User::setScore_id);
+            ids.forEach(User::setId);
+        });
+    }
 
-        scoreStatement.close();
-        scoreDelete.close();
-        getStmt().close();
+    /**
+     * Deletes all given user objects and their scores from the database inside a single transaction. First the
+     * scores of all users are deleted as one batch, then the users themselves as a second batch.
+     *
+     * @param propertiesToDelete the user objects to delete from the database
+     * @return the result of the batch
+     * @throws SQLException if there is a problem with the database connection or the transaction
+     */
+    @Override
+    public BatchResult<User> deleteAll(Collection<User> propertiesToDelete) throws SQLException {
+        List<User> users = new ArrayList<>(propertiesToDelete);
+        return executeInTransaction(users, connection -> {
+            List<BatchResult.Failure<User>> failures = executeBatch(connection, DELETE_SCORE_STATEMENT, users, this::setDeleteParameters, null);
+            if (!failures.isEmpty()) {
+                return failures;
+            }
+            return executeBatch(connection, DELETE_STATEMENT, users, this::setDeleteParameters, null);
+        });
     }
     /**
 
@@ -106,13 +229,163 @@ public class UserDatabaseManager extends DatabaseManagerWithEditAndCreateAndDele
      @throws SQLException if there is an error accessing the database
      */
     public Optional<User> findUserByName(String name) throws SQLException {
-        setStmt(getConnection().prepareStatement("SELECT * FROM User WHERE `name` = ?"));
-        getStmt().setString(1, name);
-        ResultSet rs = getStmt().executeQuery();
-        if (!rs.next()){
-            return Optional.empty();
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STATEMENT + " WHERE u.`name` = ?")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()){
+                    return Optional.empty();
+                }
+
+                return Optional.of(ROW_MAPPER.compile(rs).mapRow(rs));
+            }
         }
+    }
+
+    private void setUpdateParameters(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getUsername());
+        statement.setString(2, user.getPassword());
+        statement.setString(3, user.getMail());
+        statement.setInt(4, user.getId());
+    }
 
-        return Optional.ofNullable(new User(rs));
+    private void setScoreInsertParameters(PreparedStatement statement, User user) throws SQLException {
+        statement.setInt(1, 0);
+    }
+
+    private void setInsertParameters(PreparedStatement statement, User user, int scoreId) throws SQLException {
+        statement.setString(1, user.getUsername());
+        statement.setString(2, user.getPassword());
+        statement.setString(3, user.getMail());
+        statement.setInt(4, scoreId);
+    }
+
+    private void setDeleteParameters(PreparedStatement statement, User user) throws SQLException {
+        statement.setInt(1, user.getId());
+    }
+
+    private void setCreateUnitOfWorkParameters(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getUsername());
+        statement.setString(2, user.getPassword());
+        statement.setString(3, user.getMail());
+    }
+
+    /**
+     * Sends {@link #CREATE_UNIT_OF_WORK} in one round trip on a multi-statement connection. MySQL stops at the first
+     * failing statement and leaves the transaction open, so in that case it is rolled back before the error is
+     * rethrown.
+     */
+    private void createInOneRoundTrip(User user) throws SQLException {
+        try (Connection connection = getMultiStatementConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(CREATE_UNIT_OF_WORK)) {
+                setCreateUnitOfWorkParameters(statement, user);
+                int[] ids = null;
+                boolean isResultSet = statement.execute();
+                while (isResultSet || statement.getUpdateCount() != -1) {
+                    if (isResultSet) {
+                        try (ResultSet rs = statement.getResultSet()) {
+                            if (ids == null && rs.next()) {
+                                ids = new int[]{rs.getInt(1), rs.getInt(2)};
+                            }
+                        }
+                    }
+                    isResultSet = statement.getMoreResults();
+                }
+                if (ids == null) {
+                    throw new SQLException("The database returned no id for the new user");
+                }
+                user.setId(ids[0]);
+                user.setScore_id(ids[1]);
+            } catch (SQLException sqlException) {
+                throw rollback(connection, sqlException);
+            }
+        }
+    }
+
+    /**
+     * Sends {@link #DELETE_UNIT_OF_WORK} in one round trip on a multi-statement connection, see
+     * {@link #createInOneRoundTrip(User)}.
+     */
+    private void deleteInOneRoundTrip(User user) throws SQLException {
+        try (Connection connection = getMultiStatementConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_UNIT_OF_WORK)) {
+                statement.setInt(1, user.getId());
+                statement.setInt(2, user.getId());
+                statement.execute();
+            } catch (SQLException sqlException) {
+                throw rollback(connection, sqlException);
+            }
+        }
+    }
+
+    /**
+     * Rolls back the transaction a failed unit of work left open on the given multi-statement connection.
+     *
+     * @return the given error, with the error of the rollback added if it failed as well
+     */
+    private static SQLException rollback(Connection connection, SQLException sqlException) {
+        try (Statement rollback = connection.createStatement()) {
+            rollback.execute("ROLLBACK");
+        } catch (SQLException rollbackException) {
+            sqlException.addSuppressed(rollbackException);
+        }
+        return sqlException;
+    }
+
+    /**
+     * Inserts the score and the user as a JDBC transaction, for databases without multi-statement queries.
+     */
+    private void createInTransaction(User user) throws SQLException {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement scoreStatement = connection.prepareStatement(INSERT_SCORE_STATEMENT, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement userStatement = connection.prepareStatement(INSERT_STATEMENT, Statement.RETURN_GENERATED_KEYS)) {
+                setScoreInsertParameters(scoreStatement, user);
+                scoreStatement.executeUpdate();
+                int scoreId = readGeneratedKey(scoreStatement);
+                setInsertParameters(userStatement, user, scoreId);
+                userStatement.executeUpdate();
+                int id = readGeneratedKey(userStatement);
+                connection.commit();
+                user.setId(id);
+                user.setScore_id(scoreId);
+            } catch (SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Deletes the score and the user as a JDBC transaction, for databases without multi-statement queries.
+     */
+    private void deleteInTransaction(User user) throws SQLException {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement scoreStatement = connection.prepareStatement(DELETE_SCORE_STATEMENT);
+                 PreparedStatement userStatement = connection.prepareStatement(DELETE_STATEMENT)) {
+                setDeleteParameters(scoreStatement, user);
+                scoreStatement.executeUpdate();
+                setDeleteParameters(userStatement, user);
+                userStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int readGeneratedKey(PreparedStatement statement) throws SQLException {
+        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+            if (!generatedKeys.next()) {
+                throw new SQLException("The database returned no generated key");
+            }
+            return generatedKeys.getInt(1);
+        }
     }
 }
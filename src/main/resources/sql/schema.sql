@@ -0,0 +1,54 @@
+-- The tables the database managers read and write, with the columns and names they expect, including the misspelled
+-- decription column of Machine. The script runs on MySQL 8 and on H2 in MySQL mode, so the benchmarks can create the
+-- same schema in an embedded database. unique_names.sql, sort_and_filter_indexes.sql and table_versions.sql add the
+-- indexes and triggers on top of it.
+-- The user manager deletes the score and the user of a user explicitly; the foreign key only keeps a score deleted by
+-- hand from leaving its user behind.
+
+CREATE TABLE IF NOT EXISTS Score (
+    idScore INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    highscore INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS User (
+    idUser INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(45) NOT NULL,
+    password VARCHAR(45) NOT NULL,
+    mail VARCHAR(45) NOT NULL,
+    Score_idScore INT NOT NULL,
+    CONSTRAINT fk_user_score FOREIGN KEY (Score_idScore) REFERENCES Score (idScore) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS Recipe (
+    idRecipe INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(45) NOT NULL,
+    brewtime INT NOT NULL DEFAULT 0,
+    amount_beans INT NOT NULL DEFAULT 0,
+    amount_added_water INT NOT NULL DEFAULT 0,
+    amount_added_milk INT NOT NULL DEFAULT 0,
+    water_pressure INT NOT NULL DEFAULT 0,
+    filling_capacity INT NOT NULL DEFAULT 0,
+    water_temperature INT NOT NULL DEFAULT 0,
+    Spoon_idspoon INT NOT NULL,
+    Cup_idcup INT NOT NULL,
+    image VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS Ingredient (
+    name VARCHAR(45) NOT NULL PRIMARY KEY,
+    description VARCHAR(255),
+    unit VARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS Machine (
+    idMachine INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(45) NOT NULL,
+    decription VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS Setting_Profiles_Authoringtool (
+    name VARCHAR(45) NOT NULL PRIMARY KEY,
+    inDarkMode TINYINT NOT NULL DEFAULT 0,
+    font_size INT NOT NULL,
+    font_family VARCHAR(45) NOT NULL
+);
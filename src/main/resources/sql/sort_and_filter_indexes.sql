@@ -0,0 +1,18 @@
+-- Indexes for the ORDER BY and WHERE clauses the table views push down to the database.
+-- Every sortable column is indexed together with the key column the managers use as tie-breaker,
+-- so a page can be read with a range scan in both directions instead of sorting the whole table.
+-- Requires MySQL 8.0.13 or newer for the functional index on the mail domain.
+
+CREATE INDEX idx_recipe_brewtime ON Recipe (brewtime, idRecipe);
+CREATE INDEX idx_recipe_amount_beans ON Recipe (amount_beans, idRecipe);
+CREATE INDEX idx_recipe_amount_added_milk ON Recipe (amount_added_milk, idRecipe);
+CREATE INDEX idx_recipe_water_pressure ON Recipe (water_pressure, idRecipe);
+
+CREATE INDEX idx_user_name ON User (name, idUser);
+CREATE INDEX idx_user_mail ON User (mail, idUser);
+CREATE INDEX idx_user_mail_domain ON User ((SUBSTRING_INDEX(mail, '@', -1)));
+CREATE INDEX idx_score_highscore ON Score (highscore, idScore);
+
+CREATE INDEX idx_ingredient_unit ON Ingredient (unit, name);
+
+CREATE INDEX idx_machine_name ON Machine (name, idMachine);
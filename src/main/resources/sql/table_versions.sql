@@ -0,0 +1,52 @@
+-- A version number per table that the table views read before they reload, so an unchanged table is not read again.
+-- The triggers count every inserted, updated and deleted row, so the version of a table moves with every write,
+-- no matter which client wrote it. All writes to one table update the same row of Table_Version.
+
+CREATE TABLE Table_Version (
+    table_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO Table_Version (table_name) VALUES ('Recipe'), ('Ingredient'), ('Machine'), ('User'), ('Score'), ('Setting_Profiles_Authoringtool');
+
+CREATE TRIGGER recipe_version_after_insert AFTER INSERT ON Recipe FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Recipe';
+CREATE TRIGGER recipe_version_after_update AFTER UPDATE ON Recipe FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Recipe';
+CREATE TRIGGER recipe_version_after_delete AFTER DELETE ON Recipe FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Recipe';
+
+CREATE TRIGGER ingredient_version_after_insert AFTER INSERT ON Ingredient FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Ingredient';
+CREATE TRIGGER ingredient_version_after_update AFTER UPDATE ON Ingredient FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Ingredient';
+CREATE TRIGGER ingredient_version_after_delete AFTER DELETE ON Ingredient FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Ingredient';
+
+CREATE TRIGGER machine_version_after_insert AFTER INSERT ON Machine FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Machine';
+CREATE TRIGGER machine_version_after_update AFTER UPDATE ON Machine FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Machine';
+CREATE TRIGGER machine_version_after_delete AFTER DELETE ON Machine FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Machine';
+
+CREATE TRIGGER user_version_after_insert AFTER INSERT ON User FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'User';
+CREATE TRIGGER user_version_after_update AFTER UPDATE ON User FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'User';
+CREATE TRIGGER user_version_after_delete AFTER DELETE ON User FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'User';
+
+CREATE TRIGGER score_version_after_insert AFTER INSERT ON Score FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Score';
+CREATE TRIGGER score_version_after_update AFTER UPDATE ON Score FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Score';
+CREATE TRIGGER score_version_after_delete AFTER DELETE ON Score FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Score';
+
+CREATE TRIGGER settings_profile_version_after_insert AFTER INSERT ON Setting_Profiles_Authoringtool FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Setting_Profiles_Authoringtool';
+CREATE TRIGGER settings_profile_version_after_update AFTER UPDATE ON Setting_Profiles_Authoringtool FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Setting_Profiles_Authoringtool';
+CREATE TRIGGER settings_profile_version_after_delete AFTER DELETE ON Setting_Profiles_Authoringtool FOR EACH ROW
+    UPDATE Table_Version SET version = version + 1 WHERE table_name = 'Setting_Profiles_Authoringtool';
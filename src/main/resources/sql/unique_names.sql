@@ -0,0 +1,8 @@
+-- Unique indexes on the names the authoring tool lets the user choose.
+-- The managers do not look a name up before they write it: a duplicate name makes the insert or update fail with a
+-- duplicate key error, which the controllers turn into the usual "already exists" message. This saves a query per
+-- write and also catches two authoring tools that choose the same name at the same time.
+-- Existing duplicates have to be renamed before the indexes can be created.
+
+CREATE UNIQUE INDEX uq_recipe_name ON Recipe (name);
+CREATE UNIQUE INDEX uq_user_name ON User (name);
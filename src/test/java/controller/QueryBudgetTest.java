@@ -0,0 +1,92 @@
+package controller;
+
+import model.Recipe;
+import model.TestDatabase;
+import model.User;
+import model.databaseManager.PageQuery;
+import model.databaseManager.PagedObservableList;
+import model.databaseManager.QueryAccounting;
+import model.databaseManager.QueryBudget;
+import model.databaseManager.QueryStats;
+import model.databaseManager.RecipeDatabaseManager;
+import model.databaseManager.UserDatabaseManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the database work of the actions of the recipe and the user controller against the budgets of
+ * {@code tools.QueryBudgetCheck} on H2, so a change that makes a controller send more queries fails the tests. The
+ * controllers are created without their views; the tests call the methods the actions send their queries through.
+ */
+public class QueryBudgetTest {
+    private static final int RECIPES = 250;
+
+    private RecipeController recipeController;
+    private UserController userController;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPES; i++) {
+            recipes.add(new Recipe("Recipe " + i, 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL));
+        }
+        assertTrue(new RecipeDatabaseManager().createAll(recipes).isCommitted());
+        recipeController = new RecipeController();
+        userController = new UserController();
+    }
+
+    @Test
+    public void openingThePaneReadsTheVersionTheCountAndTheFirstPage() {
+        QueryStats stats = QueryAccounting.measureAsync("RecipeController", "open pane", () ->
+                recipeController.readVersion().thenCompose(version -> recipeController.getAllFromSelectedProperty()));
+
+        stats.assertWithin(QueryBudget.unlimited().withStatements(3).withRoundTrips(3)
+                .withRowsRead(PagedObservableList.DEFAULT_PAGE_SIZE + 3));
+    }
+
+    @Test
+    public void anEditReadsTheRowAndWritesItBack() throws SQLException {
+        Recipe row = recipeController.getDatabaseManager().getPage(PageQuery.all(), null, 0, 1).get(0);
+
+        QueryStats openEditor = QueryAccounting.measureAsync("RecipeController", "open editor", () ->
+                recipeController.loadFullProperty(row).thenAccept(recipe -> recipeController.setSelectedProperty(recipe.orElseThrow())));
+        recipeController.getSelectedProperty().setBrewtime(30);
+        QueryStats saveEdit = QueryAccounting.measureAsync("RecipeController", "save edit", recipeController::updateSelectedPropertyInDB);
+
+        openEditor.assertWithin(QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(1));
+        saveEdit.assertWithin(QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(0));
+        assertEquals(30, recipeController.getDatabaseManager().getFullProperty(row).orElseThrow().getBrewtime());
+    }
+
+    @Test
+    public void aRecipeIsCreatedAndDeletedWithOneStatementEach() {
+        recipeController.setSelectedProperty(new Recipe("Latte", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL));
+
+        QueryStats create = QueryAccounting.measureAsync("RecipeController", "create", recipeController::createNewPropertyInDB);
+        QueryStats delete = QueryAccounting.measureAsync("RecipeController", "delete", recipeController::deleteSelectedPropertyFromDB);
+
+        create.assertWithin(QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(1));
+        delete.assertWithin(QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(0));
+    }
+
+    @Test
+    public void aUserIsCreatedAndDeletedWithinTheBudgetsOfTheJdbcTransactions() throws SQLException {
+        userController.setSelectedProperty(new User(0, "anna", "anna@example.com", "secret"));
+
+        QueryStats create = QueryAccounting.measureAsync("UserController", "create", userController::createNewPropertyInDB);
+        assertEquals(1, TestDatabase.countRows("User"));
+        QueryStats delete = QueryAccounting.measureAsync("UserController", "delete", userController::deleteSelectedPropertyFromDB);
+
+        // begin, the two statements, commit and the reset of the auto-commit
+        create.assertWithin(QueryBudget.unlimited().withStatements(2).withRoundTrips(5).withRowsRead(2));
+        delete.assertWithin(QueryBudget.unlimited().withStatements(2).withRoundTrips(5).withRowsRead(0));
+        assertEquals(0, TestDatabase.countRows("User"));
+    }
+}
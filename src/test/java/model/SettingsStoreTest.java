@@ -0,0 +1,74 @@
+package model;
+
+import model.databaseManager.QueryAccounting;
+import model.databaseManager.QueryStats;
+import model.databaseManager.SettingsProfileDatabaseManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class SettingsStoreTest {
+    private final SettingsStore store = SettingsStore.getInstance();
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        TestDatabase.execute("INSERT INTO Setting_Profiles_Authoringtool (`name`, `inDarkMode`, `font_size`, `font_family`) VALUES "
+                + "('Current', 0, 14, 'Arial'), ('Default', 0, 14, 'Arial'), ('Profile 1', 1, 18, 'TimesNewRoman')");
+        SettingsProfileDatabaseManager.getEntityCache().invalidateAll();
+        store.load();
+    }
+
+    @Test
+    public void profilesAreServedWithoutQueries() throws SQLException {
+        QueryStats stats = QueryAccounting.measure("MenuController", "switch pane", () -> {
+            assertEquals(14, store.getCurrentSettings().orElseThrow().getFontSize());
+            assertTrue(store.getProfile("Profile 1").orElseThrow().isInDarkMode());
+            assertFalse(store.getProfile("Profile 4").isPresent());
+        });
+
+        assertEquals(0, stats.getRoundTrips());
+    }
+
+    @Test
+    public void getProfileReturnsACopy() {
+        SettingsProfile profile = store.getCurrentSettings().orElseThrow();
+
+        profile.switchDarkMode();
+
+        assertFalse(store.getCurrentSettings().orElseThrow().isInDarkMode());
+    }
+
+    @Test
+    public void saveUpdatesTheStoreAtOnceAndWritesInTheOrderOfTheSaves() throws SQLException {
+        SettingsProfile profile = store.getCurrentSettings().orElseThrow();
+        profile.setFontSize(SettingsProfile.SMALL_FONT_SIZE);
+        CompletableFuture<Void> firstWrite = store.save(profile);
+        profile.setFontSize(SettingsProfile.BIG_FONT_SIZE);
+        profile.setFontFamily(FontFamily.ComicSansMS);
+        CompletableFuture<Void> secondWrite = store.save(profile);
+
+        assertEquals(SettingsProfile.BIG_FONT_SIZE, store.getCurrentSettings().orElseThrow().getFontSize());
+        secondWrite.join();
+        assertTrue(firstWrite.isDone());
+
+        SettingsProfileDatabaseManager.getEntityCache().invalidateAll();
+        SettingsProfile written = new SettingsProfileDatabaseManager().getProfileByName(SettingsStore.CURRENT_PROFILE).orElseThrow();
+        assertEquals(SettingsProfile.BIG_FONT_SIZE, written.getFontSize());
+        assertEquals(FontFamily.ComicSansMS, written.getFontFamily());
+    }
+
+    @Test
+    public void loadReplacesTheProfilesInMemory() throws SQLException {
+        TestDatabase.execute("UPDATE Setting_Profiles_Authoringtool SET `font_size` = 12 WHERE `name` = 'Default'");
+        assertEquals(14, store.getDefaultSettings().orElseThrow().getFontSize());
+
+        store.load();
+
+        assertEquals(12, store.getDefaultSettings().orElseThrow().getFontSize());
+    }
+}
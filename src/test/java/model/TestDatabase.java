@@ -0,0 +1,88 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+/**
+
+ Connects the {@link Database} to an embedded H2 database in memory in MySQL mode with the tables of the authoring
+ tool, so the tests run the database managers without a MySQL server.
+ */
+public final class TestDatabase {
+    public static final String URL = "jdbc:h2:mem:authoringtool-test;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    private TestDatabase() {}
+
+    /**
+     * Connects the {@link Database} to the embedded database and creates all tables and the unique indexes on the
+     * names anew, without rows.
+     *
+     * @throws SQLException if the tables cannot be created
+     */
+    public static void reset() throws SQLException {
+        if (!Database.getInstance().connect(URL, "sa", "")) {
+            throw new SQLException("Cannot connect to " + URL);
+        }
+        try (Connection connection = Database.getInstance().getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String table : List.of("Table_Version", "User", "Score", "Recipe", "Ingredient", "Machine", "Setting_Profiles_Authoringtool")) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+            }
+            runScript(statement, "/sql/schema.sql");
+            runScript(statement, "/sql/unique_names.sql");
+        }
+    }
+
+    /**
+     * Runs a statement on a connection of the {@link Database}, for example to insert rows for a test.
+     *
+     * @param sql the statement
+     * @throws SQLException if the statement fails
+     */
+    public static void execute(String sql) throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Counts the rows of a table.
+     *
+     * @param table the name of the table
+     * @return the number of rows
+     * @throws SQLException if the table cannot be read
+     */
+    public static int countRows(String table) throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // the statements of the scripts end with a semicolon at the end of a line, comments start with two dashes
+    private static void runScript(Statement statement, String name) throws SQLException {
+        try (InputStream in = TestDatabase.class.getResourceAsStream(name)) {
+            StringBuilder script = new StringBuilder();
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                if (!line.trim().startsWith("--")) {
+                    script.append(line).append('\n');
+                }
+            }
+            for (String sql : script.toString().split(";\\s*\\n")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Cannot read the script " + name, e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package model.databaseManager;
+
+import model.Recipe;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Shares one manager between many threads, as the JavaFX application thread and the background loaders do. Every
+ * operation has to own its statement and result set, so no caller sees the results of another one.
+ */
+public class DatabaseManagerConcurrencyTest {
+    private static final int CALLERS = 64;
+    private static final int ROUNDS = 50;
+    private static final int PAGE_SIZE = 10;
+
+    private RecipeDatabaseManager manager;
+    private List<Recipe> recipes;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new RecipeDatabaseManager();
+        recipes = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            recipes.add(new Recipe("Recipe " + i, 0, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL));
+        }
+        assertTrue(manager.createAll(recipes).isCommitted());
+    }
+
+    @Test
+    public void parallelCallersSeeTheirOwnResults() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> callers = new ArrayList<>();
+        try {
+            for (Recipe recipe : recipes) {
+                callers.add(executor.submit(callRounds(recipe.copy(), start)));
+            }
+            start.countDown();
+            for (Future<Void> caller : callers) {
+                caller.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Recipe recipe : recipes) {
+            assertEquals(ROUNDS, manager.getFullProperty(recipe).orElseThrow().getBrewtime());
+        }
+    }
+
+    /**
+     * Returns a caller that updates its own recipe in every round and reads it back, by id and by name, together with
+     * the count and a page of all recipes.
+     */
+    private Callable<Void> callRounds(Recipe recipe, CountDownLatch start) {
+        return () -> {
+            start.await();
+            for (int round = 1; round <= ROUNDS; round++) {
+                recipe.setBrewtime(round);
+                manager.updatePropertyInDB(recipe);
+
+                Recipe reread = manager.getFullProperty(recipe).orElseThrow();
+                assertEquals(recipe.getId(), reread.getId());
+                assertEquals(recipe.getName(), reread.getName());
+                assertEquals(round, reread.getBrewtime());
+                Optional<Recipe> found = manager.findRecipeByName(recipe.getName());
+                assertEquals(Optional.of(recipe.getId()), found.map(Recipe::getId));
+                assertEquals(CALLERS, manager.countAll());
+                List<Recipe> page = manager.getPage(PageQuery.all(), null, recipe.getId() % (CALLERS - PAGE_SIZE), PAGE_SIZE);
+                assertEquals(PAGE_SIZE, page.size());
+            }
+            return null;
+        };
+    }
+}
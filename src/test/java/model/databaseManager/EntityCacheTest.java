@@ -0,0 +1,117 @@
+package model.databaseManager;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class EntityCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<String> load(String value) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(value);
+    }
+
+    @Test
+    public void getLoadsOnlyOnTheFirstLookup() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+
+        assertEquals(Optional.of("espresso"), cache.get("espresso", () -> load("espresso")));
+        assertEquals(Optional.of("espresso"), cache.get("espresso", () -> load("other")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void getDoesNotCacheThatNothingWasFound() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+
+        assertEquals(Optional.empty(), cache.get("latte", () -> load(null)));
+        // another client created it in the meantime
+        assertEquals(Optional.of("latte"), cache.get("latte", () -> load("latte")));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void invalidateMakesTheNextLookupLoadAgain() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+        cache.get("espresso", () -> load("espresso"));
+
+        cache.invalidate("espresso");
+
+        assertEquals(Optional.of("ristretto"), cache.get("espresso", () -> load("ristretto")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateIfRemovesTheMatchingEntries() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+        cache.get("espresso", () -> load("espresso"));
+        cache.get("latte", () -> load("latte"));
+
+        cache.invalidateIf("latte"::equals);
+
+        assertEquals(1, cache.size());
+        cache.get("espresso", () -> load("espresso"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void aLookupThatRanDuringAnInvalidationIsNotCached() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+
+        cache.get("espresso", () -> {
+            // another thread writes the recipe while it is read
+            cache.invalidate("espresso");
+            return load("outdated");
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals(Optional.of("espresso"), cache.get("espresso", () -> load("espresso")));
+    }
+
+    @Test
+    public void theLeastRecentlyUsedEntryIsEvictedFirst() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>(2, EntityCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+        cache.get("espresso", () -> load("espresso"));
+        cache.get("latte", () -> load("latte"));
+        cache.get("espresso", () -> load("espresso"));
+
+        cache.get("mocha", () -> load("mocha"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get("espresso", () -> load("espresso"));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void expiredEntriesAreLoadedAgain() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>(EntityCache.DEFAULT_MAXIMUM_SIZE, 0);
+        cache.get("espresso", () -> load("espresso"));
+
+        cache.get("espresso", () -> load("espresso"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void aDisabledCacheLoadsEveryTime() throws SQLException {
+        EntityCache<String, String> cache = new EntityCache<>();
+        cache.setEnabled(false);
+
+        cache.get("espresso", () -> load("espresso"));
+        cache.get("espresso", () -> load("espresso"));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
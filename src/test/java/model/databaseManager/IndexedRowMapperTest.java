@@ -0,0 +1,70 @@
+package model.databaseManager;
+
+import model.Database;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IndexedRowMapperTest {
+    private static final IndexedRowMapper<String> MAPPER = new IndexedRowMapper<>(List.of("name", "count"),
+            row -> row.getString(0) + ":" + row.getInt(1));
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+    }
+
+    @Test
+    public void readsTheDeclaredColumnsInAnyOrderOfTheQuery() throws SQLException {
+        assertEquals(List.of("a:1", "b:2"), mapRows("SELECT 1 AS `COUNT`, 'x' AS other, 'a' AS `Name` "
+                + "UNION ALL SELECT 2, 'y', 'b'"));
+    }
+
+    @Test
+    public void readsTheFirstOfSeveralColumnsWithTheSameLabel() throws SQLException {
+        assertEquals(List.of("a:1"), mapRows("SELECT 'a' AS name, 1 AS `count`, 2 AS `count`"));
+    }
+
+    @Test
+    public void rejectsAQueryWithoutADeclaredColumn() {
+        SQLException exception = assertThrows(SQLException.class, () -> mapRows("SELECT 'a' AS name"));
+        assertEquals("The query has no column count", exception.getMessage());
+    }
+
+    @Test
+    public void rejectsAnotherResultSetThanTheCompiledOne() throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             Statement statement = connection.createStatement();
+             Statement otherStatement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 'a' AS name, 1 AS `count`");
+             ResultSet otherResultSet = otherStatement.executeQuery("SELECT 2 AS `count`, 'b' AS name")) {
+            RowMapper<String> rowMapper = MAPPER.compile(resultSet);
+            assertTrue(otherResultSet.next());
+
+            SQLException exception = assertThrows(SQLException.class, () -> rowMapper.mapRow(otherResultSet));
+            assertEquals("The row mapper was compiled for another result set", exception.getMessage());
+        }
+    }
+
+    private static List<String> mapRows(String sql) throws SQLException {
+        try (Connection connection = Database.getInstance().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            RowMapper<String> rowMapper = MAPPER.compile(resultSet);
+            List<String> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(rowMapper.mapRow(resultSet));
+            }
+            return rows;
+        }
+    }
+}
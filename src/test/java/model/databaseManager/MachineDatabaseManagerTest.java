@@ -0,0 +1,49 @@
+package model.databaseManager;
+
+import model.Machine;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class MachineDatabaseManagerTest {
+    private MachineDatabaseManager manager;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new MachineDatabaseManager();
+        // the names of machines are not unique
+        TestDatabase.execute("INSERT INTO Machine (idMachine, name, decription) VALUES (1, 'Barista', 'first'), (2, 'Barista', 'second')");
+    }
+
+    @Test
+    public void updatePropertyInDBAddressesTheMachineByItsId() throws SQLException {
+        manager.updatePropertyInDB(new Machine(2, "Barista", "changed"));
+
+        Map<Integer, Machine> machines = getMachinesById();
+        assertEquals("first", machines.get(1).getDescription());
+        assertEquals("changed", machines.get(2).getDescription());
+    }
+
+    @Test
+    public void updateAllAddressesTheMachinesByTheirIds() throws SQLException {
+        BatchResult<Machine> result = manager.updateAll(List.of(new Machine(1, "Barista", "one"), new Machine(2, "Barista", "two")));
+
+        assertTrue(result.isCommitted());
+        Map<Integer, Machine> machines = getMachinesById();
+        assertEquals("one", machines.get(1).getDescription());
+        assertEquals("two", machines.get(2).getDescription());
+    }
+
+    private Map<Integer, Machine> getMachinesById() throws SQLException {
+        return manager.getAllFromProperty().stream().collect(Collectors.toMap(Machine::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,61 @@
+package model.databaseManager;
+
+import model.Recipe;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class PagedObservableListTest {
+    private RecipeDatabaseManager manager;
+    private Recipe espresso;
+    private PagedObservableList<Recipe> list;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new RecipeDatabaseManager();
+        espresso = new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        manager.createNewPropertyInDB(espresso);
+        list = PagedObservableList.load(manager, PageQuery.all(), 10, 2).join();
+    }
+
+    @Test
+    public void pendingRowsAreOnlyFoundByIdentity() {
+        Recipe latte = new Recipe("Latte", 30, 8, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        Recipe mocha = new Recipe("Mocha", 35, 8, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        list.insertRow(0, latte);
+        list.insertRow(0, mocha);
+
+        // a row that is not shown has the same unassigned id as both pending rows
+        assertFalse(list.replaceRow(new Recipe("Ristretto", 20, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL), latte.copy()));
+        assertSame(mocha, list.get(0));
+        assertSame(latte, list.get(1));
+
+        Recipe changedLatte = latte.copy();
+        changedLatte.setBrewtime(40);
+        assertTrue(list.replaceRow(latte, changedLatte));
+        assertSame(mocha, list.get(0));
+        assertSame(changedLatte, list.get(1));
+
+        // the replacement is pending in place of the replaced row
+        assertFalse(list.replaceRow(latte.copy(), latte));
+        assertTrue(list.removeRow(changedLatte));
+        assertEquals(2, list.size());
+        assertSame(mocha, list.get(0));
+        assertEquals(espresso.getId(), list.get(1).getId());
+    }
+
+    @Test
+    public void writtenRowsAreFoundByKey() {
+        Recipe fullEspresso = espresso.copy();
+        fullEspresso.setBrewtime(30);
+
+        assertTrue(list.replaceRow(fullEspresso, fullEspresso));
+        assertSame(fullEspresso, list.get(0));
+    }
+
+}
@@ -0,0 +1,82 @@
+package model.databaseManager;
+
+import model.Machine;
+import model.Recipe;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProjectionTest {
+    private static final int RECIPES = 20;
+    private static final String IMAGE_URL = "https://example.com/images/" + "recipe".repeat(20) + ".png";
+
+    private RecipeDatabaseManager manager;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new RecipeDatabaseManager();
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPES; i++) {
+            recipes.add(new Recipe("Recipe " + i, 25, 9, 0, 9, IMAGE_URL));
+        }
+        assertTrue(manager.createAll(recipes).isCommitted());
+    }
+
+    @Test
+    public void everyQueryNamesItsColumns() throws SQLException {
+        QueryStats stats = QueryAccounting.measure("RecipeController", "open pane", () -> {
+            manager.getAllFromProperty();
+            manager.countAll();
+            manager.getPage(PageQuery.all(), null, 0, RECIPES);
+        });
+
+        for (String sql : stats.getRecordedSql()) {
+            assertFalse(sql, sql.contains("*") && !sql.contains("COUNT(*)"));
+            // the recipe model has no field for these columns
+            assertFalse(sql, sql.contains("amount_added_water") || sql.contains("filling_capacity") || sql.contains("Spoon_idspoon"));
+        }
+    }
+
+    @Test
+    public void pagesLeaveOutTheColumnsTheTableDoesNotShow() throws SQLException {
+        QueryStats full = QueryAccounting.measure("RecipeController", "load all", manager::getAllFromProperty);
+        List<Recipe> page = new ArrayList<>();
+        QueryStats list = QueryAccounting.measure("RecipeController", "load page",
+                () -> page.addAll(manager.getPage(PageQuery.all(), null, 0, RECIPES)));
+
+        assertEquals(RECIPES, page.size());
+        assertNull(page.get(0).getImageURL());
+        assertEquals(full.getRowsRead(), list.getRowsRead());
+        assertTrue(list.getBytesReceived() + " < " + full.getBytesReceived(),
+                list.getBytesReceived() < full.getBytesReceived() - RECIPES * (long) IMAGE_URL.length() / 2);
+    }
+
+    @Test
+    public void theEditorReadsTheFullRow() throws SQLException {
+        Recipe listed = manager.getPage(PageQuery.all(), null, 0, 1).get(0);
+
+        Recipe full = manager.getFullProperty(listed).orElseThrow();
+
+        assertEquals(listed.getId(), full.getId());
+        assertEquals(IMAGE_URL, full.getImageURL());
+    }
+
+    @Test
+    public void aFullListRowIsNotReadAgain() throws SQLException {
+        TestDatabase.execute("INSERT INTO Machine (idMachine, name, decription) VALUES (1, 'Barista', 'first')");
+        MachineDatabaseManager machineManager = new MachineDatabaseManager();
+        Machine machine = machineManager.getPage(PageQuery.all(), null, 0, 1).get(0);
+
+        QueryStats stats = QueryAccounting.measure("MachineController", "open editor",
+                () -> assertSame(machine, machineManager.getFullProperty(machine).orElseThrow()));
+
+        assertEquals(0, stats.getRoundTrips());
+    }
+}
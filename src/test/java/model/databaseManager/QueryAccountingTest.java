@@ -0,0 +1,90 @@
+package model.databaseManager;
+
+import model.TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class QueryAccountingTest {
+    private RecipeDatabaseManager manager;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new RecipeDatabaseManager();
+        QueryAccounting.reset();
+    }
+
+    @After
+    public void tearDown() {
+        QueryAccounting.setEnabled(false);
+    }
+
+    @Test
+    public void measureCountsWithoutTurningTheAccountingOn() throws SQLException {
+        QueryStats stats = QueryAccounting.measure("RecipeController", "open pane", () -> {
+            assertFalse(QueryAccounting.isEnabled());
+            manager.countAll();
+        });
+
+        assertEquals(1, stats.getRoundTrips());
+        assertFalse(QueryAccounting.isEnabled());
+    }
+
+    @Test
+    public void overlappingMeasurementsAndSwitchesDoNotEndAMeasurement() throws Exception {
+        CountDownLatch started = new CountDownLatch(1), othersDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<QueryStats> measurement = executor.submit(() -> QueryAccounting.measure("RecipeController", "open pane", () -> {
+                started.countDown();
+                try {
+                    othersDone.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+                manager.countAll();
+            }));
+            started.await();
+
+            QueryStats other = QueryAccounting.measure("UserController", "open pane", () -> manager.countAll());
+            QueryAccounting.setEnabled(true);
+            QueryAccounting.setEnabled(false);
+            othersDone.countDown();
+
+            assertEquals(1, other.getRoundTrips());
+            assertEquals(1, measurement.get().getRoundTrips());
+        } finally {
+            othersDone.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void actionsBegunDuringAMeasurementAreCountedIntoIt() throws SQLException {
+        QueryAccounting.setEnabled(true);
+
+        QueryStats stats = QueryAccounting.measure("RecipeController", "open pane",
+                () -> QueryAccounting.run("RecipeController", "sort", () -> manager.getAllFromPropertyPagedAsync().join()));
+
+        assertTrue(stats.getRoundTrips() > 0);
+        assertEquals(0, QueryAccounting.getTotals("RecipeController", "sort").getActions());
+    }
+
+    @Test
+    public void assertWithinListsTheExceededLimits() throws SQLException {
+        QueryStats stats = QueryAccounting.measure("RecipeController", "open pane", () -> manager.countAll());
+
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> stats.assertWithin(QueryBudget.unlimited().withRoundTrips(0)));
+        assertTrue(error.getMessage(), error.getMessage().startsWith("The query budget is exceeded: 1 round trips (budget 0)"));
+    }
+}
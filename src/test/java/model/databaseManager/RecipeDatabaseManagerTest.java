@@ -0,0 +1,113 @@
+package model.databaseManager;
+
+import model.Recipe;
+import model.TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class RecipeDatabaseManagerTest {
+    private RecipeDatabaseManager manager;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new RecipeDatabaseManager();
+    }
+
+    @Test
+    public void findRecipeByNameFindsTheWrittenRecipes() throws SQLException {
+        assertFalse(manager.findRecipeByName("Espresso").isPresent());
+        Recipe espresso = new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+
+        manager.createNewPropertyInDB(espresso);
+        assertTrue(manager.findRecipeByName("Espresso").isPresent());
+
+        espresso.setName("Ristretto");
+        manager.updatePropertyInDB(espresso);
+        assertFalse(manager.findRecipeByName("Espresso").isPresent());
+        assertEquals(Optional.of(espresso.getId()), manager.findRecipeByName("Ristretto").map(Recipe::getId));
+
+        manager.deletePropertyFromDB(espresso);
+        assertFalse(manager.findRecipeByName("Ristretto").isPresent());
+    }
+
+    @Test
+    public void createRejectsADuplicateNameWithoutLookingItUp() throws SQLException {
+        manager.createNewPropertyInDB(new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL));
+        Recipe duplicate = new Recipe("Espresso", 30, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+
+        QueryStats stats = QueryAccounting.measure("RecipeController", "create", () -> {
+            try {
+                manager.createNewPropertyInDB(duplicate);
+                fail("The unique index on the name accepted a duplicate");
+            } catch (SQLException e) {
+                assertTrue(DatabaseManager.isDuplicateKey(e));
+            }
+        });
+
+        // only the insert is sent, the name is not read first
+        assertEquals(1, stats.getStatements());
+        assertEquals(1, TestDatabase.countRows("Recipe"));
+    }
+
+    @Test
+    public void updateRejectsADuplicateName() throws SQLException {
+        manager.createNewPropertyInDB(new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL));
+        Recipe latte = new Recipe("Latte", 30, 8, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        manager.createNewPropertyInDB(latte);
+        latte.setName("Espresso");
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> manager.updatePropertyInDBAsync(latte).join());
+
+        assertTrue(DatabaseManager.isDuplicateKey(exception));
+        assertEquals(Optional.of(latte.getId()), manager.findRecipeByName("Latte").map(Recipe::getId));
+    }
+
+    @Test
+    public void isDuplicateKeyIgnoresOtherErrors() {
+        assertFalse(DatabaseManager.isDuplicateKey(new SQLException("Table not found", "42S02", 1146)));
+        assertFalse(DatabaseManager.isDuplicateKey(new CompletionException(new IllegalStateException())));
+        assertTrue(DatabaseManager.isDuplicateKey(new CompletionException(new SQLException("Duplicate entry", "23000", 1062))));
+    }
+
+    @Test
+    public void renamedRecipesKeepTheirId() throws SQLException {
+        Recipe espresso = new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        manager.createNewPropertyInDB(espresso);
+        int id = espresso.getId();
+        assertNotEquals(0, id);
+
+        espresso.setName("Ristretto");
+        espresso.setBrewtime(20);
+        manager.updatePropertyInDB(espresso);
+
+        assertEquals(1, TestDatabase.countRows("Recipe"));
+        Recipe ristretto = manager.getFullProperty(espresso).orElseThrow();
+        assertEquals(id, ristretto.getId());
+        assertEquals("Ristretto", ristretto.getName());
+        assertEquals(20, ristretto.getBrewtime());
+    }
+
+    @Test
+    public void updateAllAndDeleteAllAddressTheRecipesByTheirIds() throws SQLException {
+        Recipe espresso = new Recipe("Espresso", 25, 9, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        Recipe latte = new Recipe("Latte", 30, 8, 0, 9, Recipe.DEFAULT_IMAGE_URL);
+        assertTrue(manager.createAll(List.of(espresso, latte)).isCommitted());
+        espresso.setName("Doppio");
+        assertTrue(manager.updateAll(List.of(espresso)).isCommitted());
+        assertEquals(Optional.of(espresso.getId()), manager.findRecipeByName("Doppio").map(Recipe::getId));
+
+        // the name of the deleted recipe was changed but not written
+        latte.setName("Flat white");
+        assertTrue(manager.deleteAll(List.of(latte)).isCommitted());
+        assertEquals(1, TestDatabase.countRows("Recipe"));
+        assertFalse(manager.findRecipeByName("Latte").isPresent());
+    }
+}
@@ -0,0 +1,215 @@
+package model.databaseManager;
+
+import model.Database;
+import model.TestDatabase;
+import model.User;
+import model.connectionPool.ConnectionPool;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class UserDatabaseManagerTest {
+    /**
+     * The system property with the host of a MySQL database with the tables of the authoring tool, for example
+     * {@code sbt -Dauthoringtool.test.mysqlHost=localhost test}. The database, user and password are given with the
+     * properties {@code authoringtool.test.mysqlDatabase}, {@code authoringtool.test.mysqlUser} and
+     * {@code authoringtool.test.mysqlPassword}. Without it, the tests that need MySQL are skipped.
+     */
+    public static final String MYSQL_HOST_PROPERTY = "authoringtool.test.mysqlHost";
+
+    private UserDatabaseManager manager;
+
+    @Before
+    public void setUp() throws SQLException {
+        TestDatabase.reset();
+        manager = new UserDatabaseManager();
+    }
+
+    @Test
+    public void createAllSetsTheGeneratedKeysAfterTheCommit() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+
+        BatchResult<User> result = manager.createAll(List.of(anna, ben));
+
+        assertTrue(result.isCommitted());
+        assertNotEquals(0, anna.getId());
+        assertNotEquals(0, anna.getScore_id());
+        assertNotEquals(anna.getId(), ben.getId());
+        assertEquals(2, manager.getAllFromProperty().size());
+    }
+
+    @Test
+    public void createAllKeepsTheKeysOfARolledBackBatch() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        // the unique index on the name rejects the second user after the first one was inserted
+        User duplicate = new User(0, "anna", "other@example.com", "secret");
+
+        BatchResult<User> result = manager.createAll(List.of(anna, duplicate));
+
+        assertFalse(result.isCommitted());
+        assertEquals(1, result.getFailures().size());
+        assertSame(duplicate, result.getFailures().get(0).getProperty());
+        assertEquals(0, anna.getId());
+        assertEquals(0, anna.getScore_id());
+        assertEquals(0, manager.getAllFromProperty().size());
+    }
+
+    @Test
+    public void createNewPropertyInDBRunsAJdbcTransactionWithoutMultiStatements() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+
+        QueryStats stats = QueryAccounting.measure("UserController", "create", () -> manager.createNewPropertyInDB(anna));
+
+        // begin, the score, the user, commit and the reset of the auto-commit
+        assertEquals(2, stats.getStatements());
+        assertEquals(5, stats.getRoundTrips());
+        assertNotEquals(0, anna.getId());
+        assertNotEquals(0, anna.getScore_id());
+        assertEquals(1, TestDatabase.countRows("User"));
+        assertEquals(1, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void createNewPropertyInDBLeavesNoScoreBehind() throws SQLException {
+        manager.createNewPropertyInDB(new User(0, "anna", "anna@example.com", "secret"));
+        User duplicate = new User(0, "anna", "other@example.com", "secret");
+
+        try {
+            manager.createNewPropertyInDB(duplicate);
+            fail("The unique index on the name accepted a duplicate");
+        } catch (SQLException e) {
+            assertTrue(DatabaseManager.isDuplicateKey(e));
+        }
+
+        assertEquals(0, duplicate.getId());
+        assertEquals(1, TestDatabase.countRows("User"));
+        assertEquals(1, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void updateRejectsADuplicateNameWithoutLookingItUp() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+        manager.createAll(List.of(anna, ben));
+        ben.setUsername("anna");
+
+        QueryStats stats = QueryAccounting.measure("UserController", "save edit", () -> {
+            try {
+                manager.updatePropertyInDB(ben);
+                fail("The unique index on the name accepted a duplicate");
+            } catch (SQLException e) {
+                assertTrue(DatabaseManager.isDuplicateKey(e));
+            }
+        });
+
+        assertEquals(1, stats.getRoundTrips());
+        assertEquals(List.of("anna", "ben"), manager.getAllFromProperty().stream().map(User::getUsername).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void deletePropertyFromDBDeletesTheUserWithItsScoreInATransaction() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+        manager.createAll(List.of(anna, ben));
+
+        QueryStats stats = QueryAccounting.measure("UserController", "delete", () -> manager.deletePropertyFromDB(anna));
+
+        // begin, the score, the user, commit and the reset of the auto-commit
+        assertEquals(2, stats.getStatements());
+        assertEquals(5, stats.getRoundTrips());
+        assertEquals(List.of("ben"), manager.getAllFromProperty().stream().map(User::getUsername).collect(Collectors.toList()));
+        assertEquals(1, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void deletePropertyFromDBSendsTheMultiStatementTransactionInOneRoundTrip() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+        manager.createAll(List.of(anna, ben));
+        // H2 runs all statements of a multi-statement query, but only returns the result of the first one, so it can
+        // run the delete but not the create
+        assertTrue(Database.getInstance().connect(new ConnectionPool(TestDatabase.URL, "sa", ""),
+                new ConnectionPool(TestDatabase.URL, "sa", "")));
+
+        QueryStats stats = QueryAccounting.measure("UserController", "delete", () -> manager.deletePropertyFromDB(anna));
+
+        assertEquals(4, stats.getStatements());
+        assertEquals(1, stats.getRoundTrips());
+        assertEquals(1, TestDatabase.countRows("User"));
+        assertEquals(1, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void deletesLeaveNoUserBehindWithoutACascadingForeignKey() throws SQLException {
+        // a database created before schema.sql has no foreign key between the user and its score
+        TestDatabase.execute("ALTER TABLE User DROP CONSTRAINT fk_user_score");
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+        User carl = new User(0, "carl", "carl@example.com", "secret");
+        manager.createAll(List.of(anna, ben, carl));
+
+        manager.deletePropertyFromDB(anna);
+        assertEquals(2, TestDatabase.countRows("User"));
+        assertEquals(2, TestDatabase.countRows("Score"));
+
+        assertTrue(manager.deleteAll(List.of(ben, carl)).isCommitted());
+        assertEquals(0, TestDatabase.countRows("User"));
+        assertEquals(0, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void deleteAllDeletesTheUsersWithTheirScores() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        User ben = new User(0, "ben", "ben@example.com", "secret");
+        manager.createAll(List.of(anna, ben));
+
+        assertTrue(manager.deleteAll(List.of(anna, ben)).isCommitted());
+
+        assertEquals(0, TestDatabase.countRows("User"));
+        assertEquals(0, TestDatabase.countRows("Score"));
+    }
+
+    @Test
+    public void updatePropertyInDBRenamesTheUserById() throws SQLException {
+        User anna = new User(0, "anna", "anna@example.com", "secret");
+        manager.createNewPropertyInDB(anna);
+        assertTrue(manager.findUserByName("anna").isPresent());
+
+        // the user is written as the edit dialog does, without knowing the old name
+        manager.updatePropertyInDB(new User(anna.getId(), "hanna", anna.getMail(), anna.getPassword()));
+
+        assertFalse(manager.findUserByName("anna").isPresent());
+        assertTrue(manager.findUserByName("hanna").isPresent());
+    }
+
+    @Test
+    public void createNewPropertyInDBSendsOneRoundTripToMySql() throws SQLException {
+        String host = System.getProperty(MYSQL_HOST_PROPERTY);
+        Assume.assumeNotNull(host);
+        Database database = Database.getInstance();
+        database.host.set(host);
+        database.database.set(System.getProperty("authoringtool.test.mysqlDatabase", "authoringtool"));
+        database.username.set(System.getProperty("authoringtool.test.mysqlUser", "root"));
+        database.password.set(System.getProperty("authoringtool.test.mysqlPassword", ""));
+        assertTrue(database.connect());
+        assertTrue(database.supportsMultiStatements());
+        String name = "test" + System.nanoTime() % 1_000_000_000;
+        User user = new User(0, name, name + "@example.com", "secret");
+
+        QueryStats stats = QueryAccounting.measure("UserController", "create", () -> manager.createNewPropertyInDB(user));
+        try {
+            assertEquals(1, stats.getRoundTrips());
+            assertNotEquals(0, user.getId());
+            assertNotEquals(0, user.getScore_id());
+        } finally {
+            manager.deletePropertyFromDB(user);
+        }
+    }
+}
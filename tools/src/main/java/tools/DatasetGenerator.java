@@ -0,0 +1,530 @@
+package tools;
+
+import model.connectionPool.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/**
+
+ The DatasetGenerator class fills the database of the authoring tool with synthetic but realistic data, so slow
+ queries can be reproduced at the size of a production database. It creates the tables the database managers expect
+ from {@code sql/schema.sql} and loads recipes, users with their scores, ingredients, machines and settings profiles,
+ in the numbers configured.
+ <p>
+ Values like the drink of a recipe, the first name and mail domain of a user or the highscore are drawn from skewed
+ distributions, see {@link SkewedDistribution}, so a few values are very common and most are rare. Every row is
+ generated from its own random generator seeded with the id of the row, so the data only depends on the configuration
+ and not on the number of threads, and the name of a row can be computed from its id, see {@link #recipeName(int)}.
+ <p>
+ The rows are inserted with multi-row INSERT statements on all cores, each thread in its own transactions. The ids
+ are inserted explicitly, so every user refers to the score with the same id. The unique indexes on the names are
+ created after the rows are loaded, which is faster than maintaining them while loading.
+ <p>
+ The generator can be run from the command line, see {@link #main(String[])}, or used by other tools, for example
+ the benchmarks, on a connection pool of their own.
+ */
+public class DatasetGenerator {
+    /**
+     * An embedded H2 database in memory in MySQL mode, which lives as long as the process.
+     */
+    public static final String EMBEDDED_URL = "jdbc:h2:mem:authoringtool;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+    /**
+     * The number of multi-row statements a thread executes in one transaction.
+     */
+    private static final int STATEMENTS_PER_TRANSACTION = 10;
+    private static final int MAXIMUM_HIGHSCORE = 10_000;
+
+    private static final String[] DRINKS = {"Cappuccino", "Espresso", "Latte Macchiato", "Flat White", "Americano",
+            "Cafe Crema", "Cortado", "Lungo", "Ristretto", "Mocha", "Doppio", "Irish Coffee", "Affogato", "Cold Brew"};
+    private static final String[] FIRST_NAMES = {"anna", "max", "lena", "paul", "marie", "leon", "sophie", "felix",
+            "emma", "jonas", "mia", "luca", "hannah", "noah", "lea", "elias", "laura", "finn", "julia", "ben"};
+    private static final String[] MAIL_DOMAINS = {"gmail.com", "web.de", "gmx.de", "outlook.com", "t-online.de", "yahoo.com"};
+    private static final String[] INGREDIENTS = {"Milk", "Sugar", "Oat Milk", "Cream", "Cocoa", "Cinnamon",
+            "Vanilla Syrup", "Caramel Syrup", "Honey", "Almond Milk", "Hazelnut Syrup", "Whisky"};
+    private static final String[] UNITS = {"ml", "g", "pcs", "tsp"};
+    private static final String[] MACHINES = {"Barista Pro", "Espresso Classic", "Fully Automatic", "Portafilter",
+            "Capsule Machine", "Filter Machine"};
+    private static final String[] FONT_FAMILIES = {"Arial", "ComicSansMS", "TimesNewRoman"};
+    private static final int[] FONT_SIZES = {12, 14, 18};
+
+    private static final long SCORE_SALT = 1, USER_SALT = 2, RECIPE_SALT = 3, INGREDIENT_SALT = 4, MACHINE_SALT = 5, PROFILE_SALT = 6;
+
+    private int recipes = 10_000;
+    private int users = 10_000;
+    private int ingredients = 100;
+    private int machines = 100;
+    private int profiles = 5;
+    private int mailDomains = 50;
+    private double skew = 1.0;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int rowsPerStatement = 1000;
+    private long seed = 42;
+
+    /**
+     * Writes the columns of one row to the parameters of a multi-row statement.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        /**
+         * @return the index of the first parameter of the next row
+         */
+        int write(PreparedStatement statement, int parameterIndex, int id) throws SQLException;
+    }
+
+    /**
+     * A table and the columns its rows are inserted with.
+     */
+    private static final class Table {
+        private final String name;
+        private final List<String> columns;
+        private final RowWriter writer;
+
+        private Table(String name, List<String> columns, RowWriter writer) {
+            this.name = name;
+            this.columns = columns;
+            this.writer = writer;
+        }
+
+        private String insertStatement(int rows) {
+            String row = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            return "INSERT INTO " + name + " (`" + String.join("`, `", columns) + "`) VALUES "
+                    + String.join(", ", Collections.nCopies(rows, row));
+        }
+    }
+
+    /**
+     * Creates the tables the database managers expect, if they do not exist yet.
+     *
+     * @param connection the connection to create the tables on
+     * @throws SQLException if the tables cannot be created
+     */
+    public static void createSchema(Connection connection) throws SQLException {
+        SqlScript.run(connection, SqlScript.SCHEMA);
+    }
+
+    /**
+     * Creates the unique indexes on the names and, if requested, the indexes for sorting and filtering and the
+     * version triggers, which require MySQL 8.
+     *
+     * @param connection          the connection to create the indexes on
+     * @param withMySqlOnlyScripts true to also create the indexes and triggers that only MySQL supports
+     * @throws SQLException if an index cannot be created, for example because of duplicate names
+     */
+    public static void createIndexes(Connection connection, boolean withMySqlOnlyScripts) throws SQLException {
+        SqlScript.run(connection, SqlScript.UNIQUE_NAMES);
+        if (withMySqlOnlyScripts) {
+            SqlScript.run(connection, SqlScript.SORT_AND_FILTER_INDEXES);
+            SqlScript.run(connection, SqlScript.TABLE_VERSIONS);
+        }
+    }
+
+    /**
+     * Drops all tables of the authoring tool together with their rows.
+     *
+     * @param connection the connection to drop the tables on
+     * @throws SQLException if a table cannot be dropped
+     */
+    public static void dropTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("Table_Version", "User", "Score", "Recipe", "Ingredient", "Machine", "Setting_Profiles_Authoringtool")) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+            }
+        }
+    }
+
+    /**
+     * Inserts the configured number of rows into the empty tables, using as many connections of the given pool as
+     * there are threads.
+     *
+     * @param connectionPool the pool to lease the connections from
+     * @throws SQLException if a row cannot be inserted
+     */
+    public void generate(ConnectionPool connectionPool) throws SQLException {
+        SkewedDistribution drinks = new SkewedDistribution(DRINKS.length, skew);
+        SkewedDistribution firstNames = new SkewedDistribution(FIRST_NAMES.length, skew);
+        SkewedDistribution domains = new SkewedDistribution(mailDomains, skew);
+        SkewedDistribution highscores = new SkewedDistribution(MAXIMUM_HIGHSCORE + 1, skew);
+        SkewedDistribution units = new SkewedDistribution(UNITS.length, skew);
+
+        Table scoreTable = new Table("Score", List.of("idScore", "highscore"), (statement, index, id) -> {
+            SplittableRandom random = rowRandom(SCORE_SALT, id);
+            statement.setInt(index++, id);
+            statement.setInt(index++, highscores.sample(random));
+            return index;
+        });
+        Table userTable = new Table("User", List.of("idUser", "name", "password", "mail", "Score_idScore"), (statement, index, id) -> {
+            SplittableRandom random = rowRandom(USER_SALT, id);
+            String name = userName(firstNames, random, id);
+            statement.setInt(index++, id);
+            statement.setString(index++, name);
+            statement.setString(index++, Long.toHexString(random.nextLong()));
+            statement.setString(index++, name + "@" + mailDomain(domains.sample(random)));
+            statement.setInt(index++, id);
+            return index;
+        });
+        Table recipeTable = new Table("Recipe", List.of("idRecipe", "name", "brewtime", "amount_beans", "amount_added_water",
+                "amount_added_milk", "water_pressure", "filling_capacity", "water_temperature", "Spoon_idspoon", "Cup_idcup", "image"),
+                (statement, index, id) -> {
+                    SplittableRandom random = rowRandom(RECIPE_SALT, id);
+                    String name = recipeName(drinks, random, id);
+                    statement.setInt(index++, id);
+                    statement.setString(index++, name);
+                    statement.setInt(index++, random.nextInt(15, 61));
+                    statement.setInt(index++, random.nextInt(7, 22));
+                    statement.setInt(index++, random.nextInt(25, 251));
+                    // most drinks are made without milk
+                    statement.setInt(index++, random.nextInt(3) == 0 ? random.nextInt(50, 201) : 0);
+                    statement.setInt(index++, random.nextInt(9, 16));
+                    statement.setInt(index++, random.nextInt(20, 31));
+                    statement.setInt(index++, random.nextInt(85, 96));
+                    statement.setInt(index++, random.nextInt(1, 4));
+                    statement.setInt(index++, random.nextInt(1, 4));
+                    statement.setString(index++, random.nextInt(4) == 0 ? null : "https://example.com/recipes/" + id + ".png");
+                    return index;
+                });
+        Table ingredientTable = new Table("Ingredient", List.of("name", "description", "unit"), (statement, index, id) -> {
+            SplittableRandom random = rowRandom(INGREDIENT_SALT, id);
+            String name = ingredientName(random, id);
+            statement.setString(index++, name);
+            statement.setString(index++, name + " for coffee drinks");
+            statement.setString(index++, UNITS[units.sample(random)]);
+            return index;
+        });
+        Table machineTable = new Table("Machine", List.of("idMachine", "name", "decription"), (statement, index, id) -> {
+            SplittableRandom random = rowRandom(MACHINE_SALT, id);
+            String name = MACHINES[random.nextInt(MACHINES.length)] + " " + id;
+            statement.setInt(index++, id);
+            statement.setString(index++, name);
+            statement.setString(index++, "The " + name + " with " + random.nextInt(1, 3) + " brewing units");
+            return index;
+        });
+        Table profileTable = new Table("Setting_Profiles_Authoringtool", List.of("name", "inDarkMode", "font_size", "font_family"),
+                (statement, index, id) -> {
+                    SplittableRandom random = rowRandom(PROFILE_SALT, id);
+                    statement.setString(index++, profileName(id));
+                    statement.setInt(index++, random.nextInt(2));
+                    statement.setInt(index++, FONT_SIZES[random.nextInt(FONT_SIZES.length)]);
+                    statement.setString(index++, FONT_FAMILIES[random.nextInt(FONT_FAMILIES.length)]);
+                    return index;
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            int chunkSize = rowsPerStatement * STATEMENTS_PER_TRANSACTION;
+            for (int from = 1; from <= users; from += chunkSize) {
+                int first = from, last = Math.min(from + chunkSize - 1, users);
+                // the scores of a chunk are inserted before its users, which refer to them
+                chunks.add(executor.submit(() -> insertChunk(connectionPool, first, last, scoreTable, userTable)));
+            }
+            submitChunks(executor, chunks, connectionPool, recipeTable, recipes, chunkSize);
+            submitChunks(executor, chunks, connectionPool, ingredientTable, ingredients, chunkSize);
+            submitChunks(executor, chunks, connectionPool, machineTable, machines, chunkSize);
+            submitChunks(executor, chunks, connectionPool, profileTable, profiles, chunkSize);
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while generating the rows", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Cannot generate the rows", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitChunks(ExecutorService executor, List<Future<?>> chunks, ConnectionPool connectionPool,
+                              Table table, int rows, int chunkSize) {
+        for (int from = 1; from <= rows; from += chunkSize) {
+            int first = from, last = Math.min(from + chunkSize - 1, rows);
+            chunks.add(executor.submit(() -> insertChunk(connectionPool, first, last, table)));
+        }
+    }
+
+    /**
+     * Inserts the rows with the ids from {@code from} to {@code to} into each of the given tables, in one transaction.
+     */
+    private Void insertChunk(ConnectionPool connectionPool, int from, int to, Table... tables) throws SQLException {
+        try (Connection connection = connectionPool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Table table : tables) {
+                    insertRows(connection, table, from, to);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    private void insertRows(Connection connection, Table table, int from, int to) throws SQLException {
+        int fullStatements = (to - from + 1) / rowsPerStatement;
+        int id = from;
+        if (fullStatements > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(table.insertStatement(rowsPerStatement))) {
+                for (int i = 0; i < fullStatements; i++) {
+                    int index = 1;
+                    for (int row = 0; row < rowsPerStatement; row++) {
+                        index = table.writer.write(statement, index, id++);
+                    }
+                    statement.executeUpdate();
+                }
+            }
+        }
+        if (id <= to) {
+            try (PreparedStatement statement = connection.prepareStatement(table.insertStatement(to - id + 1))) {
+                int index = 1;
+                while (id <= to) {
+                    index = table.writer.write(statement, index, id++);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the generated recipe with the given id.
+     *
+     * @param id the id of the recipe, from 1 to the number of recipes
+     * @return the name of the recipe
+     */
+    public String recipeName(int id) {
+        return recipeName(new SkewedDistribution(DRINKS.length, skew), rowRandom(RECIPE_SALT, id), id);
+    }
+
+    /**
+     * Returns the name of the generated user with the given id.
+     *
+     * @param id the id of the user, from 1 to the number of users
+     * @return the name of the user
+     */
+    public String userName(int id) {
+        return userName(new SkewedDistribution(FIRST_NAMES.length, skew), rowRandom(USER_SALT, id), id);
+    }
+
+    /**
+     * Returns the name of the generated ingredient with the given number, which is its key.
+     *
+     * @param number the number of the ingredient, from 1 to the number of ingredients
+     * @return the name of the ingredient
+     */
+    public String ingredientName(int number) {
+        return ingredientName(rowRandom(INGREDIENT_SALT, number), number);
+    }
+
+    /**
+     * Returns the name of the generated settings profile with the given number. The first two profiles are the ones
+     * the application reads at every login, the next three the profiles of its profile panes.
+     *
+     * @param number the number of the profile, from 1 to the number of profiles
+     * @return the name of the profile
+     */
+    public static String profileName(int number) {
+        switch (number) {
+            case 1: return "Current";
+            case 2: return "Default";
+            default: return "Profile " + (number - 2);
+        }
+    }
+
+    private static String recipeName(SkewedDistribution drinks, SplittableRandom random, int id) {
+        return DRINKS[drinks.sample(random)] + " " + id;
+    }
+
+    private static String userName(SkewedDistribution firstNames, SplittableRandom random, int id) {
+        return FIRST_NAMES[firstNames.sample(random)] + id;
+    }
+
+    private static String ingredientName(SplittableRandom random, int number) {
+        return INGREDIENTS[random.nextInt(INGREDIENTS.length)] + " " + number;
+    }
+
+    private static String mailDomain(int rank) {
+        return rank < MAIL_DOMAINS.length ? MAIL_DOMAINS[rank] : "company" + rank + ".example";
+    }
+
+    private SplittableRandom rowRandom(long salt, int id) {
+        return new SplittableRandom(seed + salt * 0x9E3779B97F4A7C15L + id);
+    }
+
+    public int getRecipes() {
+        return recipes;
+    }
+
+    public void setRecipes(int recipes) {
+        this.recipes = recipes;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(int ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    public int getMachines() {
+        return machines;
+    }
+
+    public void setMachines(int machines) {
+        this.machines = machines;
+    }
+
+    public int getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Sets the number of settings profiles. There are always at least the current and the default profile; with the
+     * default of five there are also the three profiles of the profile panes.
+     *
+     * @param profiles the number of profiles
+     */
+    public void setProfiles(int profiles) {
+        this.profiles = Math.max(profiles, 2);
+    }
+
+    public int getMailDomains() {
+        return mailDomains;
+    }
+
+    public void setMailDomains(int mailDomains) {
+        this.mailDomains = mailDomains;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    /**
+     * Sets the exponent of the skewed distributions; 0 makes all values equally likely.
+     *
+     * @param skew the exponent, at least 0
+     */
+    public void setSkew(double skew) {
+        this.skew = skew;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    public void setRowsPerStatement(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates a dataset from the command line. The options are given as {@code --name=value}:
+     * <ul>
+     *     <li>{@code --url}, {@code --user}, {@code --password}: the database, by default {@link #EMBEDDED_URL}</li>
+     *     <li>{@code --recipes}, {@code --users}, {@code --ingredients}, {@code --machines}, {@code --profiles},
+     *     {@code --mail-domains}: the number of rows and of distinct mail domains</li>
+     *     <li>{@code --skew}: the exponent of the skewed distributions</li>
+     *     <li>{@code --threads}, {@code --rows-per-statement}, {@code --seed}</li>
+     *     <li>{@code --drop}: drops the tables before they are created</li>
+     *     <li>{@code --mysql-indexes}: also creates the indexes and triggers that only MySQL supports</li>
+     * </ul>
+     *
+     * @param args the options
+     */
+    public static void main(String[] args) {
+        DatasetGenerator generator = new DatasetGenerator();
+        String url = EMBEDDED_URL, user = "sa", password = "";
+        boolean drop = false, mySqlIndexes = false;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--url": url = value; break;
+                case "--user": user = value; break;
+                case "--password": password = value; break;
+                case "--recipes": generator.setRecipes(Integer.parseInt(value)); break;
+                case "--users": generator.setUsers(Integer.parseInt(value)); break;
+                case "--ingredients": generator.setIngredients(Integer.parseInt(value)); break;
+                case "--machines": generator.setMachines(Integer.parseInt(value)); break;
+                case "--profiles": generator.setProfiles(Integer.parseInt(value)); break;
+                case "--mail-domains": generator.setMailDomains(Integer.parseInt(value)); break;
+                case "--skew": generator.setSkew(Double.parseDouble(value)); break;
+                case "--threads": generator.setThreads(Integer.parseInt(value)); break;
+                case "--rows-per-statement": generator.setRowsPerStatement(Integer.parseInt(value)); break;
+                case "--seed": generator.setSeed(Long.parseLong(value)); break;
+                case "--drop": drop = true; break;
+                case "--mysql-indexes": mySqlIndexes = true; break;
+                default:
+                    System.err.println("Unknown option " + arg);
+                    System.exit(2);
+            }
+        }
+
+        try (ConnectionPool connectionPool = new ConnectionPool(url, user, password, generator.getThreads(),
+                ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS, ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE)) {
+            try (Connection connection = connectionPool.getConnection()) {
+                if (drop) {
+                    dropTables(connection);
+                }
+                createSchema(connection);
+            }
+            long start = System.nanoTime();
+            generator.generate(connectionPool);
+            double loadSeconds = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            try (Connection connection = connectionPool.getConnection()) {
+                createIndexes(connection, mySqlIndexes);
+            }
+            double indexSeconds = (System.nanoTime() - start) / 1e9;
+            long rows = 2L * generator.getUsers() + generator.getRecipes() + generator.getIngredients()
+                    + generator.getMachines() + generator.getProfiles();
+            System.out.printf(Locale.ROOT, "Inserted %d rows in %.1f s (%.0f rows/s) on %d threads, created the indexes in %.1f s%n",
+                    rows, loadSeconds, rows / loadSeconds, generator.getThreads(), indexSeconds);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
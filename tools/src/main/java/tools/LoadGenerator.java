@@ -0,0 +1,265 @@
+package tools;
+
+import model.Database;
+import model.connectionPool.ConnectionPool;
+import model.databaseManager.SettingsProfileDatabaseManager;
+import tools.Workload.Operation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+/**
+
+ The LoadGenerator class simulates many authoring stations working on one database at the same time, without a user
+ interface, to find the contention that only shows under concurrent use. Every {@link LoadSession} replays the
+ operation mixes of the controllers, see {@link Workload}, through managers of its own. After a warmup the latencies
+ of all operations, their errors and the time spent waiting for row locks are recorded, and a report with the
+ throughput, the p50, p99 and p999 latencies, the deadlocks and the lock waits of every operation is printed.
+ <p>
+ By default the generator runs against an embedded H2 database in memory, which it fills with the
+ {@link DatasetGenerator} first. Against MySQL it uses a database filled by the dataset generator before, with the
+ same numbers of rows and seed, because the sessions find the generated rows by their ids and names.
+ <p>
+ The stations do not share a cache, so the cache of the profiles is turned off unless {@code --name-caches} is given.
+ Against MySQL the user manager creates a user with a multi-statement transaction in one round trip, on H2 with a
+ JDBC transaction.
+ */
+public class LoadGenerator {
+    private final DatasetGenerator dataset = new DatasetGenerator();
+    private List<Workload> workloads = List.of(Workload.values());
+    private int sessions = 16;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private long thinkTimeMillis;
+    private double hotspotSkew = 1.0;
+
+    private volatile long measurementStartNanos;
+    private volatile long endNanos;
+    private SkewedDistribution recipeRows, userRows, ingredientRows, machineRows, profileRows;
+
+    /**
+     * Runs the sessions against the database the {@link Database} of the application is connected to, and prints
+     * the report.
+     *
+     * @param monitorConnection a connection the sessions do not use, for the {@link LockMonitor}
+     * @throws SQLException if the database cannot be identified or the lock waits cannot be read
+     */
+    public void run(Connection monitorConnection) throws SQLException {
+        prepare();
+        SplittableRandom random = new SplittableRandom(dataset.getSeed());
+        List<LoadSession> loadSessions = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        measurementStartNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        endNanos = measurementStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (int i = 1; i <= sessions; i++) {
+            LoadSession session = new LoadSession(i, this, random.split());
+            loadSessions.add(session);
+            Thread thread = new Thread(session, "load-session-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        try (LockMonitor lockMonitor = new LockMonitor(monitorConnection)) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(measurementStartNanos - System.nanoTime(), 0));
+                lockMonitor.start();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                threads.forEach(Thread::interrupt);
+            }
+            lockMonitor.stop();
+            printReport(loadSessions, lockMonitor);
+        }
+    }
+
+    /**
+     * Sets up the distributions of the edited rows before sessions are created.
+     */
+    void prepare() {
+        recipeRows = new SkewedDistribution(dataset.getRecipes(), hotspotSkew);
+        userRows = new SkewedDistribution(dataset.getUsers(), hotspotSkew);
+        ingredientRows = new SkewedDistribution(dataset.getIngredients(), hotspotSkew);
+        machineRows = new SkewedDistribution(dataset.getMachines(), hotspotSkew);
+        profileRows = new SkewedDistribution(Math.max(dataset.getProfiles() - 2, 1), hotspotSkew);
+    }
+
+    private void printReport(List<LoadSession> loadSessions, LockMonitor lockMonitor) {
+        Map<Workload, Map<Operation, OperationStats>> stats = new EnumMap<>(Workload.class);
+        OperationStats total = new OperationStats();
+        for (LoadSession session : loadSessions) {
+            session.getStats().forEach((workload, operations) -> operations.forEach((operation, operationStats) -> {
+                stats.computeIfAbsent(workload, ignored -> new EnumMap<>(Operation.class))
+                        .computeIfAbsent(operation, ignored -> new OperationStats())
+                        .merge(operationStats);
+                total.merge(operationStats);
+            }));
+        }
+
+        System.out.printf(Locale.ROOT, "%d sessions, %d s warmup, %d s measured%n", sessions, warmupSeconds, durationSeconds);
+        String format = "%-21s %-9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n";
+        System.out.printf(Locale.ROOT, format, "Controller", "Operation", "Count", "Ops/s", "p50 ms", "p99 ms", "p999 ms",
+                "Other err", "Deadlocks", "Lock t/o", "Dup. keys");
+        stats.forEach((workload, operations) -> operations.forEach((operation, operationStats) -> {
+            if (operationStats.getCount() + operationStats.getErrors() > 0) {
+                printRow(format, workload.getController(), operation.toString(), operationStats);
+            }
+        }));
+        printRow(format, "Total", "", total);
+        System.out.printf(Locale.ROOT, "Lock waits: %d, %d ms waited%s%n", lockMonitor.getWaits(), lockMonitor.getWaitMillis(),
+                lockMonitor.isSampled() ? " (sampled every 10 ms)" : "");
+    }
+
+    private void printRow(String format, String controller, String operation, OperationStats operationStats) {
+        System.out.printf(Locale.ROOT, format, controller, operation, operationStats.getCount(),
+                String.format(Locale.ROOT, "%.1f", operationStats.getCount() / (double) durationSeconds),
+                String.format(Locale.ROOT, "%.2f", operationStats.percentileMillis(0.5)),
+                String.format(Locale.ROOT, "%.2f", operationStats.percentileMillis(0.99)),
+                String.format(Locale.ROOT, "%.2f", operationStats.percentileMillis(0.999)),
+                operationStats.getOtherErrors(),
+                operationStats.getDeadlocks(), operationStats.getLockTimeouts(), operationStats.getDuplicateKeys());
+    }
+
+    DatasetGenerator getDataset() {
+        return dataset;
+    }
+
+    List<Workload> getWorkloads() {
+        return workloads;
+    }
+
+    long getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+
+    long getMeasurementStartNanos() {
+        return measurementStartNanos;
+    }
+
+    long getEndNanos() {
+        return endNanos;
+    }
+
+
+    int nextRecipe(SplittableRandom random) {
+        return recipeRows.sample(random) + 1;
+    }
+
+    int nextUser(SplittableRandom random) {
+        return userRows.sample(random) + 1;
+    }
+
+    int nextIngredient(SplittableRandom random) {
+        return ingredientRows.sample(random) + 1;
+    }
+
+    int nextMachine(SplittableRandom random) {
+        return machineRows.sample(random) + 1;
+    }
+
+    /**
+     * Draws one of the profiles of the profile panes, or the current profile if there are none.
+     */
+    int nextProfile(SplittableRandom random) {
+        return dataset.getProfiles() > 2 ? profileRows.sample(random) + 3 : 1;
+    }
+
+    /**
+     * Runs a load test from the command line. The options are given as {@code --name=value}:
+     * <ul>
+     *     <li>{@code --url}, {@code --user}, {@code --password}: the database, by default
+     *     {@link DatasetGenerator#EMBEDDED_URL}</li>
+     *     <li>{@code --sessions}: the number of simulated stations, by default 16</li>
+     *     <li>{@code --warmup}, {@code --duration}: the seconds of warmup and of measurement, by default 10 and 60</li>
+     *     <li>{@code --think-time}: the milliseconds a session pauses after every operation, by default 0</li>
+     *     <li>{@code --controllers}: the workloads to run, for example {@code recipe,user}, by default all</li>
+     *     <li>{@code --hotspot-skew}: the exponent of the distribution of the edited rows, by default 1</li>
+     *     <li>{@code --name-caches}: keeps the cache of the profiles turned on</li>
+     *     <li>{@code --generate}: fills the database first, which is the default for the embedded database</li>
+     *     <li>{@code --recipes}, {@code --users}, {@code --ingredients}, {@code --machines}, {@code --profiles},
+     *     {@code --skew}, {@code --seed}: the dataset, see {@link DatasetGenerator#main(String[])}</li>
+     * </ul>
+     *
+     * @param args the options
+     */
+    public static void main(String[] args) {
+        LoadGenerator loadGenerator = new LoadGenerator();
+        DatasetGenerator dataset = loadGenerator.dataset;
+        String url = DatasetGenerator.EMBEDDED_URL, user = "sa", password = "";
+        boolean generate = false, nameCaches = false;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--url": url = value; break;
+                case "--user": user = value; break;
+                case "--password": password = value; break;
+                case "--sessions": loadGenerator.sessions = Integer.parseInt(value); break;
+                case "--warmup": loadGenerator.warmupSeconds = Integer.parseInt(value); break;
+                case "--duration": loadGenerator.durationSeconds = Integer.parseInt(value); break;
+                case "--think-time": loadGenerator.thinkTimeMillis = Long.parseLong(value); break;
+                case "--hotspot-skew": loadGenerator.hotspotSkew = Double.parseDouble(value); break;
+                case "--controllers":
+                    List<Workload> workloads = new ArrayList<>();
+                    for (String workload : value.split(",")) {
+                        workloads.add(Workload.valueOf(workload.trim().toUpperCase(Locale.ROOT)));
+                    }
+                    loadGenerator.workloads = workloads;
+                    break;
+                case "--name-caches": nameCaches = true; break;
+                case "--generate": generate = true; break;
+                case "--recipes": dataset.setRecipes(Integer.parseInt(value)); break;
+                case "--users": dataset.setUsers(Integer.parseInt(value)); break;
+                case "--ingredients": dataset.setIngredients(Integer.parseInt(value)); break;
+                case "--machines": dataset.setMachines(Integer.parseInt(value)); break;
+                case "--profiles": dataset.setProfiles(Integer.parseInt(value)); break;
+                case "--skew": dataset.setSkew(Double.parseDouble(value)); break;
+                case "--seed": dataset.setSeed(Long.parseLong(value)); break;
+                default:
+                    System.err.println("Unknown option " + arg);
+                    System.exit(2);
+            }
+        }
+        generate |= url.equals(DatasetGenerator.EMBEDDED_URL);
+
+        // every session and the lock monitor hold a connection of their own
+        ConnectionPool connectionPool = new ConnectionPool(url, user, password, loadGenerator.sessions + 1,
+                ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS, ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+        // the sessions create users with multi-statement transactions on connections of their own, like the application
+        ConnectionPool multiStatementConnectionPool = !url.startsWith("jdbc:mysql:") ? null
+                : new ConnectionPool(url + (url.contains("?") ? "&" : "?") + "allowMultiQueries=true", user, password,
+                loadGenerator.sessions, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS,
+                ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+        if (!Database.getInstance().connect(connectionPool, multiStatementConnectionPool)) {
+            System.exit(1);
+        }
+        try {
+            if (generate) {
+                try (Connection connection = Database.getInstance().getConnection()) {
+                    DatasetGenerator.dropTables(connection);
+                    DatasetGenerator.createSchema(connection);
+                }
+                dataset.generate(connectionPool);
+                try (Connection connection = Database.getInstance().getConnection()) {
+                    DatasetGenerator.createIndexes(connection, false);
+                }
+            }
+            SettingsProfileDatabaseManager.getEntityCache().setEnabled(nameCaches);
+            loadGenerator.run(Database.getInstance().getConnection());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
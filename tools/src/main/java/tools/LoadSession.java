@@ -0,0 +1,261 @@
+package tools;
+
+import model.FontFamily;
+import model.Ingredient;
+import model.Machine;
+import model.Recipe;
+import model.SettingsProfile;
+import model.SettingsStore;
+import model.User;
+import model.databaseManager.DatabaseManager;
+import model.databaseManager.IngredientDatabaseManager;
+import model.databaseManager.MachineDatabaseManager;
+import model.databaseManager.PageQuery;
+import model.databaseManager.PagedObservableList;
+import model.databaseManager.RecipeDatabaseManager;
+import model.databaseManager.SettingsProfileDatabaseManager;
+import model.databaseManager.UserDatabaseManager;
+import tools.Workload.Operation;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+/**
+
+ One simulated authoring station. A session drives managers of its own, like the controllers of one running
+ application, and sends one operation after another until the run is over: it picks a workload, draws an operation
+ from its mix and runs the queries the controller sends for it, on the thread of the session instead of the
+ {@link model.databaseManager.DatabaseExecutor}. The rows it edits are drawn from skewed distributions, so several
+ sessions edit the same popular rows at the same time, as they would in production.
+ <p>
+ A session deletes only rows it has created itself. If it has none yet, the delete is replaced by a create.
+ */
+public class LoadSession implements Runnable {
+    private final int id;
+    private final LoadGenerator loadGenerator;
+    private final DatasetGenerator dataset;
+    private final SplittableRandom random;
+    private final Map<Workload, Map<Operation, OperationStats>> stats = new EnumMap<>(Workload.class);
+
+    private final RecipeDatabaseManager recipeDatabaseManager = new RecipeDatabaseManager();
+    private final UserDatabaseManager userDatabaseManager = new UserDatabaseManager();
+    private final IngredientDatabaseManager ingredientDatabaseManager = new IngredientDatabaseManager();
+    private final MachineDatabaseManager machineDatabaseManager = new MachineDatabaseManager();
+    private final SettingsProfileDatabaseManager profileDatabaseManager = new SettingsProfileDatabaseManager();
+    private final ArrayDeque<Recipe> createdRecipes = new ArrayDeque<>();
+    private final ArrayDeque<User> createdUsers = new ArrayDeque<>();
+    private int createdRows;
+
+    LoadSession(int id, LoadGenerator loadGenerator, SplittableRandom random) {
+        this.id = id;
+        this.loadGenerator = loadGenerator;
+        this.dataset = loadGenerator.getDataset();
+        this.random = random;
+        for (Workload workload : Workload.values()) {
+            Map<Operation, OperationStats> operationStats = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                operationStats.put(operation, new OperationStats());
+            }
+            stats.put(workload, operationStats);
+        }
+    }
+
+    /**
+     * Sends operations until the end of the run. Operations that start before the end of the warmup are not recorded.
+     */
+    @Override
+    public void run() {
+        List<Workload> workloads = loadGenerator.getWorkloads();
+        long thinkTimeMillis = loadGenerator.getThinkTimeMillis();
+        while (System.nanoTime() < loadGenerator.getEndNanos() && !Thread.currentThread().isInterrupted()) {
+            Workload workload = workloads.get(random.nextInt(workloads.size()));
+            Operation operation = workload.nextOperation(random);
+            long start = System.nanoTime();
+            boolean measured = start >= loadGenerator.getMeasurementStartNanos();
+            try {
+                operation = execute(workload, operation);
+                if (measured) {
+                    stats.get(workload).get(operation).record(System.nanoTime() - start);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (measured) {
+                    stats.get(workload).get(operation).recordError(e);
+                }
+            }
+            if (thinkTimeMillis > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(thinkTimeMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the recorded latencies and errors of the session.
+     *
+     * @return the stats by workload and operation
+     */
+    public Map<Workload, Map<Operation, OperationStats>> getStats() {
+        return stats;
+    }
+
+    /**
+     * Runs the queries of the given operation.
+     *
+     * @return the operation that was run, which differs from the given one if a delete was replaced by a create
+     */
+    Operation execute(Workload workload, Operation operation) throws SQLException {
+        switch (workload) {
+            case RECIPE: return executeRecipeOperation(operation);
+            case USER: return executeUserOperation(operation);
+            case INGREDIENT: return executeIngredientOperation(operation);
+            case MACHINE: return executeMachineOperation(operation);
+            case PROFILE: return executeProfileOperation(operation);
+            default: throw new IllegalArgumentException("Unknown workload " + workload);
+        }
+    }
+
+    private Operation executeRecipeOperation(Operation operation) throws SQLException {
+        switch (operation) {
+            case LIST:
+                list(recipeDatabaseManager);
+                return operation;
+            case VALIDATE:
+                recipeDatabaseManager.findRecipeByName(dataset.recipeName(loadGenerator.nextRecipe(random)));
+                return operation;
+            case EDIT:
+                Recipe row = new Recipe();
+                row.setId(loadGenerator.nextRecipe(random));
+                Optional<Recipe> recipe = recipeDatabaseManager.getFullProperty(row);
+                if (recipe.isPresent()) {
+                    recipe.get().setBrewtime(random.nextInt(15, 61));
+                    recipeDatabaseManager.updatePropertyInDB(recipe.get());
+                }
+                return operation;
+            case DELETE:
+                Recipe createdRecipe = createdRecipes.poll();
+                if (createdRecipe != null) {
+                    recipeDatabaseManager.deletePropertyFromDB(createdRecipe);
+                    return operation;
+                }
+                // there is nothing to delete yet
+                return executeRecipeOperation(Operation.CREATE);
+            case CREATE:
+                Recipe newRecipe = new Recipe("Load recipe " + id + "-" + ++createdRows, random.nextInt(15, 61),
+                        random.nextInt(7, 22), random.nextInt(0, 201), random.nextInt(9, 16), null);
+                recipeDatabaseManager.createNewPropertyInDB(newRecipe);
+                createdRecipes.add(newRecipe);
+                return Operation.CREATE;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private Operation executeUserOperation(Operation operation) throws SQLException {
+        switch (operation) {
+            case LIST:
+                list(userDatabaseManager);
+                return operation;
+            case VALIDATE:
+                userDatabaseManager.findUserByName(dataset.userName(loadGenerator.nextUser(random)));
+                return operation;
+            case EDIT:
+                Optional<User> user = userDatabaseManager.getFullProperty(new User(loadGenerator.nextUser(random), null, null, null));
+                if (user.isPresent()) {
+                    user.get().setPassword(Long.toHexString(random.nextLong()));
+                    userDatabaseManager.updatePropertyInDB(user.get());
+                }
+                return operation;
+            case DELETE:
+                User createdUser = createdUsers.poll();
+                if (createdUser != null) {
+                    userDatabaseManager.deletePropertyFromDB(createdUser);
+                    return operation;
+                }
+                // there is nothing to delete yet
+                return executeUserOperation(Operation.CREATE);
+            case CREATE:
+                String name = "load" + id + "x" + ++createdRows;
+                User newUser = new User(0, name, name + "@example.com", Long.toHexString(random.nextLong()));
+                userDatabaseManager.createNewPropertyInDB(newUser);
+                createdUsers.add(newUser);
+                return Operation.CREATE;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private Operation executeIngredientOperation(Operation operation) throws SQLException {
+        switch (operation) {
+            case LIST:
+                list(ingredientDatabaseManager);
+                return operation;
+            case EDIT:
+                String name = dataset.ingredientName(loadGenerator.nextIngredient(random));
+                Optional<Ingredient> ingredient = ingredientDatabaseManager.getFullProperty(new Ingredient(name, null, null));
+                if (ingredient.isPresent()) {
+                    ingredient.get().setDescription(name + " edited by session " + id);
+                    ingredient.get().setUnit("ml");
+                    ingredientDatabaseManager.updatePropertyInDB(ingredient.get());
+                }
+                return operation;
+            default:
+                throw new IllegalArgumentException("The ingredient pane has no operation " + operation);
+        }
+    }
+
+    private Operation executeMachineOperation(Operation operation) throws SQLException {
+        switch (operation) {
+            case LIST:
+                list(machineDatabaseManager);
+                return operation;
+            case EDIT:
+                Optional<Machine> machine = machineDatabaseManager.getFullProperty(new Machine(loadGenerator.nextMachine(random), null, null));
+                if (machine.isPresent()) {
+                    machine.get().setDescription("Edited by session " + id);
+                    machineDatabaseManager.updatePropertyInDB(machine.get());
+                }
+                return operation;
+            default:
+                throw new IllegalArgumentException("The machine pane has no operation " + operation);
+        }
+    }
+
+    /**
+     * The profile panes read all profiles once at login and save a profile together with the current settings.
+     */
+    private Operation executeProfileOperation(Operation operation) throws SQLException {
+        switch (operation) {
+            case LIST:
+                profileDatabaseManager.getAllFromProperty();
+                return operation;
+            case EDIT:
+                SettingsProfile profile = new SettingsProfile(DatasetGenerator.profileName(loadGenerator.nextProfile(random)),
+                        random.nextBoolean(), SettingsProfile.MEDIUM_FONT_SIZE, FontFamily.Arial);
+                profileDatabaseManager.updatePropertyInDB(profile);
+                SettingsProfile currentSettings = profile.copy();
+                currentSettings.setName(SettingsStore.CURRENT_PROFILE);
+                profileDatabaseManager.updatePropertyInDB(currentSettings);
+                return operation;
+            default:
+                throw new IllegalArgumentException("The profile panes have no operation " + operation);
+        }
+    }
+
+    /**
+     * Sends the queries of a table pane that is opened: the version of the table, the number of rows and the first page.
+     */
+    private <T> void list(DatabaseManager<T> databaseManager) throws SQLException {
+        PageQuery<T> query = PageQuery.all();
+        databaseManager.getVersion();
+        databaseManager.countAll(query);
+        databaseManager.getPage(query, null, 0, PagedObservableList.DEFAULT_PAGE_SIZE);
+    }
+}
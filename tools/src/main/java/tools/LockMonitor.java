@@ -0,0 +1,136 @@
+package tools;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+/**
+
+ Measures how long the sessions of a load test wait for row locks, on a connection of its own.
+ <p>
+ On MySQL, it reads the InnoDB counters of row lock waits and their total time when the measurement starts and when
+ it stops. H2 has no such counters, so the monitor samples its sessions on a background thread and counts every
+ session that is blocked by another one; each blocked sample stands for one sampling interval of waiting.
+ */
+public class LockMonitor implements AutoCloseable {
+    private static final long SAMPLING_INTERVAL_MILLIS = 10;
+
+    private final Connection connection;
+    private final boolean mySql;
+    private long startWaits, startWaitMillis;
+    private long waits, waitMillis;
+    private volatile boolean sampling;
+    private Thread sampler;
+    private volatile long blockedSamples;
+    private volatile SQLException samplingError;
+
+    /**
+     * Creates a monitor that queries the database through the given connection, which it closes when it is closed.
+     *
+     * @param connection a connection that is not used by the sessions
+     * @throws SQLException if the database cannot be identified
+     */
+    public LockMonitor(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.mySql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    /**
+     * Starts the measurement.
+     *
+     * @throws SQLException if the counters cannot be read
+     */
+    public void start() throws SQLException {
+        if (mySql) {
+            long[] counters = readInnoDbCounters();
+            startWaits = counters[0];
+            startWaitMillis = counters[1];
+            return;
+        }
+        sampling = true;
+        sampler = new Thread(this::sample, "lock-monitor");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Stops the measurement.
+     *
+     * @throws SQLException if the counters cannot be read or sampling failed
+     */
+    public void stop() throws SQLException {
+        if (mySql) {
+            long[] counters = readInnoDbCounters();
+            waits = counters[0] - startWaits;
+            waitMillis = counters[1] - startWaitMillis;
+            return;
+        }
+        sampling = false;
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (samplingError != null) {
+            throw samplingError;
+        }
+        waits = blockedSamples;
+        waitMillis = blockedSamples * SAMPLING_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Returns the number of lock waits; on H2 the number of samples that found a blocked session.
+     *
+     * @return the number of lock waits between start and stop
+     */
+    public long getWaits() {
+        return waits;
+    }
+
+    /**
+     * Returns the total time the sessions waited for locks; on H2 an estimate from the samples.
+     *
+     * @return the time in milliseconds
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    public boolean isSampled() {
+        return !mySql;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        sampling = false;
+        connection.close();
+    }
+
+    private long[] readInnoDbCounters() throws SQLException {
+        long[] counters = new long[2];
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW GLOBAL STATUS WHERE Variable_name IN ('Innodb_row_lock_waits', 'Innodb_row_lock_time')")) {
+            while (rs.next()) {
+                counters[rs.getString(1).equalsIgnoreCase("Innodb_row_lock_waits") ? 0 : 1] = rs.getLong(2);
+            }
+        }
+        return counters;
+    }
+
+    private void sample() {
+        try (Statement statement = connection.createStatement()) {
+            while (sampling) {
+                try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL")) {
+                    rs.next();
+                    blockedSamples += rs.getLong(1);
+                }
+                Thread.sleep(SAMPLING_INTERVAL_MILLIS);
+            }
+        } catch (SQLException e) {
+            samplingError = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package tools;
+
+import model.databaseManager.DatabaseManager;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+/**
+
+ The latencies and errors of one operation of one workload. A session records into stats of its own, so recording
+ needs no synchronization; the stats of all sessions are merged when the run is over. Every latency is kept, so the
+ percentiles are exact.
+ */
+public class OperationStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long deadlocks;
+    private long lockTimeouts;
+    private long duplicateKeys;
+    private long otherErrors;
+
+    /**
+     * Records a successful operation.
+     *
+     * @param nanos the latency of the operation
+     */
+    public void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    /**
+     * Records a failed operation by the kind of its error.
+     *
+     * @param throwable the error of the operation
+     */
+    public void recordError(Throwable throwable) {
+        if (isLockTimeout(throwable)) {
+            lockTimeouts++;
+        } else if (isDeadlock(throwable)) {
+            deadlocks++;
+        } else if (DatabaseManager.isDuplicateKey(throwable)) {
+            duplicateKeys++;
+        } else {
+            otherErrors++;
+        }
+    }
+
+    /**
+     * Adds the latencies and errors of the given stats to these.
+     *
+     * @param other the stats to add
+     */
+    public void merge(OperationStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        deadlocks += other.deadlocks;
+        lockTimeouts += other.lockTimeouts;
+        duplicateKeys += other.duplicateKeys;
+        otherErrors += other.otherErrors;
+    }
+
+    /**
+     * Returns the latency below which the given share of the successful operations completed.
+     *
+     * @param quantile the share, for example 0.99
+     * @return the latency in milliseconds, or 0 if no operation succeeded
+     */
+    public double percentileMillis(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getDeadlocks() {
+        return deadlocks;
+    }
+
+    public long getLockTimeouts() {
+        return lockTimeouts;
+    }
+
+    public long getDuplicateKeys() {
+        return duplicateKeys;
+    }
+
+    public long getOtherErrors() {
+        return otherErrors;
+    }
+
+    public long getErrors() {
+        return deadlocks + lockTimeouts + duplicateKeys + otherErrors;
+    }
+
+    /**
+     * MySQL reports a lock wait timeout with error 1205, H2 with error 50200.
+     */
+    private static boolean isLockTimeout(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                int errorCode = ((SQLException) cause).getErrorCode();
+                if (errorCode == 1205 || errorCode == 50200) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * MySQL reports a deadlock with error 1213, H2 with error 40001; both use the SQL state 40001 of a rolled back
+     * transaction.
+     */
+    private static boolean isDeadlock(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (sqlException.getErrorCode() == 1213 || "40001".equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,245 @@
+package tools;
+
+import model.Database;
+import model.connectionPool.ConnectionPool;
+import model.databaseManager.PagedObservableList;
+import model.databaseManager.QueryAccounting;
+import model.databaseManager.QueryBudget;
+import model.databaseManager.QueryStats;
+import model.databaseManager.SettingsProfileDatabaseManager;
+import tools.Workload.Operation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+/**
+
+ The QueryBudgetCheck class runs every operation of every controller, see {@link Workload}, a number of times as an
+ action of the {@link QueryAccounting} and checks that no run sends more to the database than the budget of the
+ operation allows. It prints the most work a run of every operation caused and exits with status 1 if a budget is
+ exceeded, so a change that makes a screen send more queries fails the build.
+ <p>
+ The operations are the ones a {@link LoadSession} replays, run on one session, by default against an embedded H2
+ database in memory filled by the {@link DatasetGenerator}. The cache of the profiles is turned off, so every
+ lookup reaches the database.
+ <p>
+ Only MySQL connections get a pool for multi-statement queries, so on H2 the user manager creates and deletes a user
+ with JDBC transactions of five round trips and the check budgets that path. The multi-statement transactions that
+ create and delete a user in one round trip are checked against budgets of their own when the check runs against a
+ MySQL database with {@code --url}, and the check says so when it does not.
+ */
+public class QueryBudgetCheck {
+    private static final int PAGE_ROWS = PagedObservableList.DEFAULT_PAGE_SIZE;
+
+    private final Map<Workload, Map<Operation, QueryBudget>> budgets = new EnumMap<>(Workload.class);
+    private final Map<Workload, Map<Operation, QueryStats>> worstRuns = new EnumMap<>(Workload.class);
+    private int repetitions = 10;
+
+    /**
+     * Creates a check with the budgets of all operations.
+     *
+     * @param multiStatementTransactions true if the database runs the transactions of the user manager in one round
+     *                                   trip, see {@link Database#supportsMultiStatements()}
+     */
+    public QueryBudgetCheck(boolean multiStatementTransactions) {
+        // opening a pane reads the version of up to two tables, counts the rows and reads the first page; H2 has no
+        // versions, so it sends one statement less
+        QueryBudget list = QueryBudget.unlimited().withStatements(3).withRoundTrips(3).withRowsRead(PAGE_ROWS + 3);
+        QueryBudget validate = QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(1);
+        // the row is read with all its columns and written back
+        QueryBudget edit = QueryBudget.unlimited().withStatements(2).withRoundTrips(2).withRowsRead(1);
+        // the rows of the ingredient and machine tables hold all columns, so an edit only writes
+        QueryBudget write = QueryBudget.unlimited().withStatements(1).withRoundTrips(1).withRowsRead(1);
+        // MySQL gets the transaction that inserts the score and the user in one round trip, which reads both ids;
+        // H2 runs it as a JDBC transaction: begin, two inserts, commit and the reset of the auto-commit
+        QueryBudget userCreate = multiStatementTransactions
+                ? QueryBudget.unlimited().withStatements(6).withRoundTrips(1).withRowsRead(1)
+                : QueryBudget.unlimited().withStatements(2).withRoundTrips(5).withRowsRead(2);
+        // the score and the user are deleted the same way, in one round trip or in a JDBC transaction
+        QueryBudget userDelete = multiStatementTransactions
+                ? QueryBudget.unlimited().withStatements(4).withRoundTrips(1).withRowsRead(0)
+                : QueryBudget.unlimited().withStatements(2).withRoundTrips(5).withRowsRead(0);
+
+        setBudget(Workload.RECIPE, Operation.LIST, list);
+        setBudget(Workload.RECIPE, Operation.VALIDATE, validate);
+        setBudget(Workload.RECIPE, Operation.EDIT, edit);
+        setBudget(Workload.RECIPE, Operation.CREATE, write);
+        setBudget(Workload.RECIPE, Operation.DELETE, write);
+        setBudget(Workload.USER, Operation.LIST, list);
+        setBudget(Workload.USER, Operation.VALIDATE, validate);
+        setBudget(Workload.USER, Operation.EDIT, edit);
+        setBudget(Workload.USER, Operation.CREATE, userCreate);
+        setBudget(Workload.USER, Operation.DELETE, userDelete);
+        setBudget(Workload.INGREDIENT, Operation.LIST, list);
+        setBudget(Workload.INGREDIENT, Operation.EDIT, write);
+        setBudget(Workload.MACHINE, Operation.LIST, list);
+        setBudget(Workload.MACHINE, Operation.EDIT, write);
+        // the profile panes read all profiles with one query, and a save writes the profile and the current settings
+        setBudget(Workload.PROFILE, Operation.LIST, QueryBudget.unlimited().withStatements(1).withRoundTrips(1));
+        setBudget(Workload.PROFILE, Operation.EDIT, QueryBudget.unlimited().withStatements(2).withRoundTrips(2).withRowsRead(0));
+    }
+
+    /**
+     * Sets the budget of one operation of a controller.
+     *
+     * @param workload  the controller
+     * @param operation the operation
+     * @param budget    the most work one run of the operation may cause
+     */
+    public void setBudget(Workload workload, Operation operation, QueryBudget budget) {
+        budgets.computeIfAbsent(workload, ignored -> new EnumMap<>(Operation.class)).put(operation, budget);
+    }
+
+    /**
+     * Runs every operation of every controller on the given session, checks every run against the budget of its
+     * operation and prints the most work a run of every operation caused.
+     *
+     * @param session the session that runs the operations
+     * @return the exceeded budgets, one for every operation with a run over its budget; empty if all runs are within
+     * their budgets
+     * @throws SQLException if an operation fails
+     */
+    public List<String> run(LoadSession session) throws SQLException {
+        Map<String, String> exceededBudgets = new LinkedHashMap<>();
+        for (Workload workload : Workload.values()) {
+            for (Operation operation : Operation.values()) {
+                if (!workload.hasOperation(operation)) {
+                    continue;
+                }
+                for (int i = 0; i < repetitions; i++) {
+                    Operation[] executed = new Operation[1];
+                    QueryStats stats = QueryAccounting.measure(workload.getController(), getActionName(operation),
+                            () -> executed[0] = session.execute(workload, operation));
+                    // a delete without a row to delete is run as a create
+                    Map<Operation, QueryStats> runs = worstRuns.computeIfAbsent(workload, ignored -> new EnumMap<>(Operation.class));
+                    QueryStats worstRun = runs.get(executed[0]);
+                    if (worstRun == null || stats.getRoundTrips() > worstRun.getRoundTrips()
+                            || (stats.getRoundTrips() == worstRun.getRoundTrips() && stats.getRowsRead() > worstRun.getRowsRead())) {
+                        runs.put(executed[0], stats);
+                    }
+                    QueryBudget budget = budgets.getOrDefault(workload, Map.of()).get(executed[0]);
+                    List<String> exceededLimits = budget == null ? List.of() : budget.getExceededLimits(stats);
+                    if (!exceededLimits.isEmpty()) {
+                        exceededBudgets.putIfAbsent(workload.getController() + " " + executed[0], String.join(", ", exceededLimits)
+                                + System.lineSeparator() + "  " + String.join(System.lineSeparator() + "  ", stats.getRecordedSql()));
+                    }
+                }
+            }
+        }
+
+        String format = "%-21s %-9s %9s %9s %9s %9s %12s  %s%n";
+        System.out.printf(Locale.ROOT, format, "Controller", "Operation", "Stmts", "Trips", "Rows", "Written", "Bytes recv", "Budget");
+        worstRuns.forEach((workload, operations) -> operations.forEach((operation, stats) -> {
+            boolean hasBudget = budgets.getOrDefault(workload, Map.of()).containsKey(operation);
+            boolean exceeded = exceededBudgets.containsKey(workload.getController() + " " + operation);
+            System.out.printf(Locale.ROOT, format, workload.getController(), operation, stats.getStatements(),
+                    stats.getRoundTrips(), stats.getRowsRead(), stats.getRowsWritten(), stats.getBytesReceived(),
+                    !hasBudget ? "none" : exceeded ? "EXCEEDED" : "ok");
+        }));
+        List<String> messages = new ArrayList<>();
+        exceededBudgets.forEach((operation, limits) -> messages.add(operation + ": " + limits));
+        return messages;
+    }
+
+    private static String getActionName(Operation operation) {
+        return operation == Operation.LIST ? "open pane" : operation.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs the check from the command line. The options are given as {@code --name=value}:
+     * <ul>
+     *     <li>{@code --url}, {@code --user}, {@code --password}: the database, by default
+     *     {@link DatasetGenerator#EMBEDDED_URL}; a MySQL database gets a pool for multi-statement transactions</li>
+     *     <li>{@code --generate}: fills the database first, which drops its tables; the default for the embedded
+     *     database. Without it the dataset options have to describe the rows already in the database</li>
+     *     <li>{@code --repetitions}: how often every operation is run, by default 10</li>
+     *     <li>{@code --recipes}, {@code --users}, {@code --ingredients}, {@code --machines}, {@code --profiles},
+     *     {@code --seed}: the dataset, see {@link DatasetGenerator#main(String[])}; by default a small one</li>
+     * </ul>
+     *
+     * @param args the options
+     */
+    public static void main(String[] args) {
+        LoadGenerator loadGenerator = new LoadGenerator();
+        DatasetGenerator dataset = loadGenerator.getDataset();
+        dataset.setRecipes(1000);
+        dataset.setUsers(1000);
+        dataset.setIngredients(100);
+        dataset.setMachines(100);
+        String url = DatasetGenerator.EMBEDDED_URL, user = "sa", password = "";
+        boolean generate = false;
+        int repetitions = 10;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--url": url = value; break;
+                case "--user": user = value; break;
+                case "--password": password = value; break;
+                case "--generate": generate = true; break;
+                case "--repetitions": repetitions = Integer.parseInt(value); break;
+                case "--recipes": dataset.setRecipes(Integer.parseInt(value)); break;
+                case "--users": dataset.setUsers(Integer.parseInt(value)); break;
+                case "--ingredients": dataset.setIngredients(Integer.parseInt(value)); break;
+                case "--machines": dataset.setMachines(Integer.parseInt(value)); break;
+                case "--profiles": dataset.setProfiles(Integer.parseInt(value)); break;
+                case "--seed": dataset.setSeed(Long.parseLong(value)); break;
+                default:
+                    System.err.println("Unknown option " + arg);
+                    System.exit(2);
+            }
+        }
+
+        generate |= url.equals(DatasetGenerator.EMBEDDED_URL);
+
+        ConnectionPool connectionPool = new ConnectionPool(url, user, password, dataset.getThreads(),
+                ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS, ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+        // like the application, the user manager sends its multi-statement transactions on connections of their own
+        ConnectionPool multiStatementConnectionPool = !url.startsWith("jdbc:mysql:") ? null
+                : new ConnectionPool(url + (url.contains("?") ? "&" : "?") + "allowMultiQueries=true", user, password,
+                1, ConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS, ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS,
+                ConnectionPool.DEFAULT_MAX_LIFETIME_MILLIS, ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE);
+        if (!Database.getInstance().connect(connectionPool, multiStatementConnectionPool)) {
+            System.exit(1);
+        }
+        QueryBudgetCheck check = new QueryBudgetCheck(Database.getInstance().supportsMultiStatements());
+        check.repetitions = repetitions;
+        List<String> exceededBudgets;
+        try {
+            if (generate) {
+                try (Connection connection = Database.getInstance().getConnection()) {
+                    DatasetGenerator.dropTables(connection);
+                    DatasetGenerator.createSchema(connection);
+                }
+                dataset.generate(connectionPool);
+                try (Connection connection = Database.getInstance().getConnection()) {
+                    DatasetGenerator.createIndexes(connection, false);
+                }
+            }
+            SettingsProfileDatabaseManager.getEntityCache().setEnabled(false);
+            loadGenerator.prepare();
+            exceededBudgets = check.run(new LoadSession(1, loadGenerator, new SplittableRandom(dataset.getSeed())));
+            if (!Database.getInstance().supportsMultiStatements()) {
+                System.out.println("The users were created and deleted with JDBC transactions; the multi-statement transactions are only "
+                        + "checked against MySQL, for example with --url=jdbc:mysql://localhost/authoringtool");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        if (!exceededBudgets.isEmpty()) {
+            System.err.println("Query budgets exceeded:");
+            exceededBudgets.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,47 @@
+package tools;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+/**
+
+ Draws ranks from 0 to n - 1 following a Zipf distribution, so a few values are very common and most are rare, like
+ the mail domains of users or the drinks of recipes. With an exponent of 0 every rank is equally likely; the larger
+ the exponent, the more the first ranks dominate. The distribution is immutable and can be shared by several threads,
+ each drawing with its own random generator.
+ */
+public final class SkewedDistribution {
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * Creates a distribution over the given number of ranks.
+     *
+     * @param n        the number of ranks
+     * @param exponent the exponent of the Zipf distribution; 0 for a uniform distribution
+     */
+    public SkewedDistribution(int n, double exponent) {
+        if (n < 1 || exponent < 0) {
+            throw new IllegalArgumentException("A distribution needs at least one rank and an exponent of at least 0");
+        }
+        cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random the random generator of the calling thread
+     * @return a rank from 0 to n - 1
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        // a negative index encodes the first rank whose cumulative probability is larger
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+/**
+
+ Runs the SQL scripts in {@code /sql} of the application, for example the schema, on a connection. The statements of
+ a script are separated by semicolons at the end of a line, and lines starting with two dashes are comments.
+ */
+public final class SqlScript {
+    public static final String SCHEMA = "/sql/schema.sql";
+    public static final String UNIQUE_NAMES = "/sql/unique_names.sql";
+    public static final String SORT_AND_FILTER_INDEXES = "/sql/sort_and_filter_indexes.sql";
+    public static final String TABLE_VERSIONS = "/sql/table_versions.sql";
+
+    private SqlScript() {}
+
+    /**
+     * Runs all statements of the script with the given name.
+     *
+     * @param connection the connection to run the statements on
+     * @param name       the name of the script on the class path
+     * @throws SQLException if the script is missing or one of its statements fails
+     */
+    public static void run(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : read(name)) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Reads the statements of the script with the given name.
+     *
+     * @param name the name of the script on the class path
+     * @return the statements without their semicolons
+     * @throws SQLException if the script is missing or cannot be read
+     */
+    public static List<String> read(String name) throws SQLException {
+        try (InputStream in = SqlScript.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new SQLException("The script " + name + " is missing");
+            }
+            StringBuilder script = new StringBuilder();
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                if (!line.trim().startsWith("--")) {
+                    script.append(line).append('\n');
+                }
+            }
+            List<String> statements = new ArrayList<>();
+            for (String statement : script.toString().split(";\\s*\\n")) {
+                if (!statement.isBlank()) {
+                    statements.add(statement.trim());
+                }
+            }
+            return statements;
+        } catch (IOException e) {
+            throw new SQLException("Cannot read the script " + name, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tools;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+/**
+
+ The operations a controller of the authoring tool sends to the database, and how often a user triggers each of them.
+ The load generator replays these mixes, see {@link LoadSession} for what every operation does.
+ */
+public enum Workload {
+    RECIPE("RecipeController", 40, 10, 30, 10, 10),
+    USER("UserController", 40, 10, 30, 10, 10),
+    INGREDIENT("IngredientController", 60, 0, 40, 0, 0),
+    MACHINE("MachineController", 60, 0, 40, 0, 0),
+    PROFILE("ProfileController", 50, 0, 50, 0, 0);
+
+    /**
+     * An operation a controller sends to the database.
+     */
+    public enum Operation {
+        /**
+         * Opens the pane: reads the version of the table, counts the rows and reads the first page.
+         */
+        LIST,
+        /**
+         * Looks a name up before it is written.
+         */
+        VALIDATE,
+        /**
+         * Opens a row for editing, which reads its full columns, and saves it.
+         */
+        EDIT,
+        CREATE,
+        DELETE
+    }
+
+    private final String controller;
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private final int totalWeight;
+
+    Workload(String controller, int list, int validate, int edit, int create, int delete) {
+        this.controller = controller;
+        weights.put(Operation.LIST, list);
+        weights.put(Operation.VALIDATE, validate);
+        weights.put(Operation.EDIT, edit);
+        weights.put(Operation.CREATE, create);
+        weights.put(Operation.DELETE, delete);
+        totalWeight = list + validate + edit + create + delete;
+    }
+
+    /**
+     * Returns the name of the controller whose operations the workload replays.
+     *
+     * @return the name of the controller
+     */
+    public String getController() {
+        return controller;
+    }
+
+    /**
+     * Returns whether the controller sends the given operation at all.
+     *
+     * @param operation the operation
+     * @return true if the operation is part of the mix
+     */
+    public boolean hasOperation(Operation operation) {
+        return weights.get(operation) > 0;
+    }
+
+    /**
+     * Draws the next operation of the workload according to its mix.
+     *
+     * @param random the random generator of the session
+     * @return the operation
+     */
+    public Operation nextOperation(SplittableRandom random) {
+        int choice = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            choice -= weight.getValue();
+            if (choice < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("The weights of " + this + " are inconsistent");
+    }
+}